@@ -94,8 +94,7 @@ const AdminDashboard = () => {
 
   const updateApplicationStatus = async (applicationId, status) => {
     try {
-      const adminId = localStorage.getItem('userId')
-      await axios.put(`http://localhost:8080/api/admin/applications/${applicationId}/override?status=${status}&reason=Admin override&adminId=${adminId}`)
+      await axios.put(`http://localhost:8080/api/admin/applications/${applicationId}/override?status=${status}&reason=Admin override`)
       fetchApplications()
     } catch (error) {
       console.error('Error updating application:', error)
@@ -29,15 +29,15 @@ const AgentAnalytics = ({ agentId }) => {
     setLoading(true)
     try {
       // Fetch appointments
-      const appointmentsResponse = await axios.get(`http://localhost:8080/api/agent/appointments/${agentId}`)
+      const appointmentsResponse = await axios.get('http://localhost:8080/api/agent/appointments')
       const appointments = appointmentsResponse.data
 
       // Fetch policies
-      const policiesResponse = await axios.get(`http://localhost:8080/api/policies/agent/${agentId}`)
+      const policiesResponse = await axios.get('http://localhost:8080/api/policies/agent')
       const policies = policiesResponse.data
 
       // Fetch applications
-      const applicationsResponse = await axios.get(`http://localhost:8080/api/policies/applications/agent/${agentId}`)
+      const applicationsResponse = await axios.get('http://localhost:8080/api/policies/applications/agent')
       const applications = applicationsResponse.data
 
       // Calculate analytics
@@ -20,7 +20,9 @@ const AgentAvailability = ({ agentId }) => {
         console.error('No agent ID provided');
         return;
       }
-      const response = await fetch(`http://localhost:8080/api/agent/availability/${agentId}`);
+      const response = await fetch('http://localhost:8080/api/agent/availability', {
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
+      });
       if (!response.ok) {
         throw new Error(`HTTP error! status: ${response.status}`);
       }
@@ -44,9 +46,9 @@ const AgentAvailability = ({ agentId }) => {
         availableDate: newAvailability.availableDate + 'T00:00:00'
       };
       
-      const response = await fetch(`http://localhost:8080/api/agent/availability/${agentId}`, {
+      const response = await fetch('http://localhost:8080/api/agent/availability', {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${localStorage.getItem('token')}` },
         body: JSON.stringify(availabilityData)
       });
       
@@ -61,7 +63,10 @@ const AgentAvailability = ({ agentId }) => {
 
   const deleteAvailability = async (id) => {
     try {
-      await fetch(`http://localhost:8080/api/agent/availability/${id}`, { method: 'DELETE' });
+      await fetch(`http://localhost:8080/api/agent/availability/${id}`, {
+        method: 'DELETE',
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
+      });
       fetchAvailabilities();
     } catch (error) {
       console.error('Error deleting availability:', error);
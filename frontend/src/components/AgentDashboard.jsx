@@ -24,7 +24,7 @@ const AgentDashboard = () => {
         console.error('No agent ID found in localStorage')
         return
       }
-      const response = await axios.get(`/api/agent/appointments/${agentId}`, {
+      const response = await axios.get('/api/agent/appointments', {
         headers: { Authorization: `Bearer ${token}` }
       })
       setAppointments(response.data)
@@ -30,9 +30,7 @@ const ApplicationReview = () => {
 
   const fetchApplications = async () => {
     try {
-      const userId = localStorage.getItem('userId')
-      console.log('Fetching applications for agent:', userId)
-      const response = await axios.get(`http://localhost:8080/api/policies/applications/agent/${userId}`)
+      const response = await axios.get('http://localhost:8080/api/policies/applications/agent')
       console.log('Applications fetched:', response.data)
       setApplications(response.data)
     } catch (error) {
@@ -47,11 +45,10 @@ const ApplicationReview = () => {
     
     setProcessing(true)
     try {
-      const processedBy = localStorage.getItem('userId')
-      console.log('Processing application:', { applicationId, status, reason, processedBy })
+      console.log('Processing application:', { applicationId, status, reason })
       
       const response = await axios.put(`http://localhost:8080/api/policies/applications/${applicationId}/process`, null, {
-        params: { status, reason, processedBy }
+        params: { status, reason }
       })
       
       console.log('Process response:', response.data)
@@ -225,8 +222,11 @@ const ApplicationReview = () => {
                     <button 
                       className="btn btn-primary"
                       style={{fontSize: '0.875rem', padding: '0.25rem 0.75rem'}}
-                      onClick={() => {
-                        window.open(`http://localhost:8080/api/policies/documents/${encodeURIComponent(selectedApp.documents)}`, '_blank')
+                      onClick={async () => {
+                        const response = await axios.get(`http://localhost:8080/api/policies/documents/${encodeURIComponent(selectedApp.documents)}`, {
+                          responseType: 'blob'
+                        })
+                        window.open(URL.createObjectURL(response.data), '_blank')
                       }}
                     >
                       View Document
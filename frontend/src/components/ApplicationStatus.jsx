@@ -12,8 +12,7 @@ const ApplicationStatus = () => {
 
   const fetchApplications = async () => {
     try {
-      const userId = localStorage.getItem('userId')
-      const response = await axios.get(`http://localhost:8080/api/policies/applications/user/${userId}`)
+      const response = await axios.get('http://localhost:8080/api/policies/applications/user')
       setApplications(response.data)
     } catch (error) {
       console.error('Error fetching applications:', error)
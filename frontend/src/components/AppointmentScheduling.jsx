@@ -70,9 +70,9 @@ const AppointmentScheduling = ({ customerId, onAppointmentBooked }) => {
     };
     
     try {
-      const response = await fetch(`http://localhost:8080/api/customer/appointments/book/${customerId}`, {
+      const response = await fetch('http://localhost:8080/api/customer/appointments/book', {
         method: 'POST',
-        headers: { 'Content-Type': 'application/json' },
+        headers: { 'Content-Type': 'application/json', Authorization: `Bearer ${localStorage.getItem('token')}` },
         body: JSON.stringify(appointmentData)
       });
       
@@ -21,7 +21,9 @@ const BookingHistory = ({ customerId }) => {
 
   const fetchAppointmentHistory = async () => {
     try {
-      const response = await fetch(`/api/customer/appointments/${customerId}`)
+      const response = await fetch('/api/customer/appointments', {
+        headers: { Authorization: `Bearer ${localStorage.getItem('token')}` }
+      })
       const data = await response.json()
       setAppointments(data)
     } catch (error) {
@@ -28,8 +28,7 @@ const CustomerDashboard = () => {
 
   const fetchMyApplications = async () => {
     try {
-      const userId = localStorage.getItem('userId')
-      const response = await axios.get(`http://localhost:8080/api/policies/applications/user/${userId}`)
+      const response = await axios.get('http://localhost:8080/api/policies/applications/user')
       setMyApplications(response.data)
     } catch (error) {
       console.error('Error fetching applications:', error)
@@ -38,8 +37,7 @@ const CustomerDashboard = () => {
 
   const fetchMyAppointments = async () => {
     try {
-      const userId = localStorage.getItem('userId')
-      const response = await axios.get(`http://localhost:8080/api/customer/appointments/${userId}`)
+      const response = await axios.get('http://localhost:8080/api/customer/appointments')
       setMyAppointments(response.data)
     } catch (error) {
       console.error('Error fetching appointments:', error)
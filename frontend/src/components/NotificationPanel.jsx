@@ -20,7 +20,7 @@ const NotificationPanel = ({ userId }) => {
   const fetchNotifications = async () => {
     setLoading(true)
     try {
-      const response = await axios.get(`http://localhost:8080/api/notifications/user/${userId}`)
+      const response = await axios.get('http://localhost:8080/api/notifications/user')
       setNotifications(response.data)
     } catch (error) {
       console.error('Error fetching notifications:', error)
@@ -32,7 +32,7 @@ const NotificationPanel = ({ userId }) => {
 
   const fetchUnreadCount = async () => {
     try {
-      const response = await axios.get(`http://localhost:8080/api/notifications/user/${userId}/count`)
+      const response = await axios.get('http://localhost:8080/api/notifications/user/count')
       setUnreadCount(response.data)
     } catch (error) {
       console.error('Error fetching unread count:', error)
@@ -52,7 +52,7 @@ const NotificationPanel = ({ userId }) => {
 
   const markAllAsRead = async () => {
     try {
-      await axios.put(`http://localhost:8080/api/notifications/user/${userId}/read-all`)
+      await axios.put('http://localhost:8080/api/notifications/user/read-all')
       fetchNotifications()
       fetchUnreadCount()
     } catch (error) {
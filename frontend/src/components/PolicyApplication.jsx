@@ -29,7 +29,6 @@ const PolicyApplication = ({ policy, onClose }) => {
     setLoading(true)
     
     try {
-      const userId = localStorage.getItem('userId')
       const submitData = new FormData()
       submitData.append('policyId', policy.id)
       submitData.append('additionalDetails', formData.additionalDetails)
@@ -37,7 +36,7 @@ const PolicyApplication = ({ policy, onClose }) => {
         submitData.append('documents', formData.documents)
       }
       
-      await axios.post(`http://localhost:8080/api/policies/apply?userId=${userId}`, submitData, {
+      await axios.post('http://localhost:8080/api/policies/apply', submitData, {
         headers: {
           'Content-Type': 'multipart/form-data'
         }
@@ -42,8 +42,7 @@ const PolicyApproval = () => {
 
   const handleApprove = async (policyId) => {
     try {
-      const adminId = localStorage.getItem('userId')
-      await axios.put(`http://localhost:8080/api/admin/policies/${policyId}/approve?adminId=${adminId}`)
+      await axios.put(`http://localhost:8080/api/admin/policies/${policyId}/approve`)
       alert('Policy approved successfully!')
       fetchPendingPolicies()
     } catch (error) {
@@ -56,8 +55,7 @@ const PolicyApproval = () => {
     if (!reason) return
 
     try {
-      const adminId = localStorage.getItem('userId')
-      await axios.put(`http://localhost:8080/api/admin/policies/${policyId}/reject?adminId=${adminId}&reason=${encodeURIComponent(reason)}`)
+      await axios.put(`http://localhost:8080/api/admin/policies/${policyId}/reject?reason=${encodeURIComponent(reason)}`)
       alert('Policy rejected successfully!')
       fetchPendingPolicies()
     } catch (error) {
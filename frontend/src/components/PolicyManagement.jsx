@@ -21,8 +21,7 @@ const PolicyManagement = () => {
 
   const fetchAgentPolicies = async () => {
     try {
-      const agentId = localStorage.getItem('userId')
-      const response = await axios.get(`http://localhost:8080/api/policies/agent/${agentId}`)
+      const response = await axios.get('http://localhost:8080/api/policies/agent')
       setPolicies(response.data)
     } catch (error) {
       console.error('Error fetching policies:', error)
@@ -47,7 +46,6 @@ const PolicyManagement = () => {
     }
     
     try {
-      const agentId = localStorage.getItem('userId')
       const policyData = {
         policyName: formData.policyName,
         premium: parseFloat(formData.premium),
@@ -60,7 +58,7 @@ const PolicyManagement = () => {
       
       console.log('Sending policy data:', policyData)
       
-      await axios.post(`http://localhost:8080/api/policies/create?agentId=${agentId}`, policyData)
+      await axios.post('http://localhost:8080/api/policies/create', policyData)
       setShowCreateForm(false)
       setFormData({
         policyName: '',
@@ -41,14 +41,13 @@ const ProfileSettings = ({ onClose }) => {
     setLoading(true)
     
     try {
-      const userId = localStorage.getItem('userId')
       const updateData = {
         fullName: profile.fullName,
         email: profile.email,
         profilePicture: profile.profilePicture
       }
       
-      await axios.put(`http://localhost:8080/api/auth/profile/${userId}`, updateData)
+      await axios.put('http://localhost:8080/api/auth/profile', updateData)
       
       // Update localStorage
       localStorage.setItem('fullName', profile.fullName)
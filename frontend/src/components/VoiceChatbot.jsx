@@ -68,8 +68,7 @@ const VoiceChatbot = () => {
     setMessages(prev => [...prev, { type: 'user', text }])
     
     try {
-      const userId = localStorage.getItem('userId')
-      const response = await axios.post(`http://localhost:8080/api/chatbot/chat?userId=${userId}`, {
+      const response = await axios.post('http://localhost:8080/api/chatbot/chat', {
         message: text
       })
       
@@ -0,0 +1,32 @@
+package com.example.insurAI.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Chat-completion backend. Implementations must not block the calling thread;
+ * the returned future fails with {@link com.example.insurAI.exception.LlmUnavailableException}
+ * when the upstream cannot produce an answer in time.
+ */
+public interface LlmClient {
+
+    CompletableFuture<String> complete(LlmPrompt prompt);
+
+    /**
+     * Streams the completion, passing each text delta to {@code sink} as it
+     * arrives. Blocks the caller until the reply ends, so it is meant to run on
+     * a virtual thread. Returning false from the sink stops the stream and
+     * releases the upstream connection.
+     */
+    default void stream(LlmPrompt prompt, Predicate<String> sink) {
+        stream(prompt, sink, new CompletableFuture<>());
+    }
+
+    /**
+     * As {@link #stream(LlmPrompt, Predicate)}, but also stops and releases the
+     * connection as soon as {@code cancellation} completes, even while waiting
+     * on the upstream for the next delta. A cancelled stream throws
+     * {@link com.example.insurAI.exception.LlmUnavailableException}.
+     */
+    void stream(LlmPrompt prompt, Predicate<String> sink, CompletableFuture<?> cancellation);
+}
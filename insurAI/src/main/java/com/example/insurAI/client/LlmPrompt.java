@@ -0,0 +1,17 @@
+package com.example.insurAI.client;
+
+import java.util.List;
+
+/**
+ * One completion request. {@code history} holds earlier user/assistant
+ * messages of the conversation, oldest first.
+ */
+public record LlmPrompt(String model, String systemPrompt, List<Message> history, String userMessage, int maxTokens) {
+
+    public record Message(String role, String content) {
+    }
+
+    public LlmPrompt(String model, String systemPrompt, String userMessage, int maxTokens) {
+        this(model, systemPrompt, List.of(), userMessage, maxTokens);
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.insurAI.client;
+
+import com.example.insurAI.exception.LlmUnavailableException;
+import com.example.insurAI.util.CircuitBreaker;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * OpenAI-compatible chat-completion client. Requests go through one shared
+ * {@link HttpClient}, which keeps upstream connections alive between calls and
+ * completes responses on virtual threads, so no request thread waits on the
+ * network. Completions are bounded by a connect and a total timeout, streams by
+ * the time to the first byte and then by the longest gap between lines, and
+ * every call is guarded by a circuit breaker that fails fast while the upstream
+ * is unhealthy.
+ */
+@Component
+public class OpenAiLlmClient implements LlmClient {
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String apiKey;
+    private final URI completionsUri;
+    private final Duration requestTimeout;
+    private final long streamIdleNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("llm-stream-watchdog").daemon().factory());
+    private final HttpClient httpClient;
+
+    public OpenAiLlmClient(ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${openai.api.key:demo-key}") String apiKey,
+                           @Value("${chatbot.llm.base-url:https://api.openai.com}") String baseUrl,
+                           @Value("${chatbot.llm.connect-timeout-ms:2000}") long connectTimeoutMs,
+                           @Value("${chatbot.llm.request-timeout-ms:15000}") long requestTimeoutMs,
+                           @Value("${chatbot.llm.stream-idle-timeout-ms:10000}") long streamIdleTimeoutMs,
+                           @Value("${chatbot.llm.circuit.failure-threshold:5}") int failureThreshold,
+                           @Value("${chatbot.llm.circuit.open-ms:30000}") long circuitOpenMs) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.apiKey = apiKey;
+        this.completionsUri = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/chat/completions");
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.streamIdleNanos = TimeUnit.MILLISECONDS.toNanos(streamIdleTimeoutMs);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, circuitOpenMs);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .executor(executor)
+            .build();
+
+        Gauge.builder("chatbot.llm.circuit.open", circuitBreaker,
+                breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<String> complete(LlmPrompt prompt) {
+        HttpRequest request;
+        try {
+            request = buildRequest(prompt, false);
+            acquire(prompt);
+        } catch (LlmUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+            // The request timeout only covers the response headers; bound the body as well
+            .orTimeout(requestTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .thenApply(this::parseReply)
+            .handle((reply, error) -> {
+                if (error == null) {
+                    recordSuccess(prompt, start);
+                    return reply;
+                }
+                throw recordFailure(prompt, start, unwrap(error));
+            });
+    }
+
+    @Override
+    public void stream(LlmPrompt prompt, Predicate<String> sink, CompletableFuture<?> cancellation) {
+        HttpRequest request = buildRequest(prompt, true);
+        acquire(prompt);
+
+        long start = System.nanoTime();
+        StreamWatch watch = new StreamWatch();
+        cancellation.whenComplete((ignored, error) -> watch.cancel());
+        try {
+            HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+            watch.startBody();
+            // Closing the line stream cancels the upstream body, including on early exit
+            try (Stream<String> lines = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new LlmUnavailableException("LLM upstream returned HTTP " + response.statusCode());
+                }
+                Iterator<String> events = lines.iterator();
+                while (events.hasNext()) {
+                    String line = events.next();
+                    watch.touch();
+                    if (!line.startsWith("data:")) {
+                        continue;
+                    }
+                    String data = line.substring(5).trim();
+                    if ("[DONE]".equals(data)) {
+                        break;
+                    }
+                    JsonNode delta = objectMapper.readTree(data)
+                        .path("choices").path(0).path("delta").path("content");
+                    if (delta.isTextual() && !delta.asText().isEmpty() && !sink.test(delta.asText())) {
+                        break;
+                    }
+                }
+            }
+            watch.finish();
+            recordSuccess(prompt, start);
+        } catch (InterruptedException | IOException | RuntimeException e) {
+            watch.finish();
+            if (watch.cancelled) {
+                circuitBreaker.onCancelled();
+                throw new LlmUnavailableException("LLM stream cancelled", e);
+            }
+            if (watch.idle) {
+                throw recordFailure(prompt, start, new HttpTimeoutException(
+                    "LLM stream idle for more than " + TimeUnit.NANOSECONDS.toMillis(streamIdleNanos) + " ms"));
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw recordFailure(prompt, start, e);
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    private HttpRequest buildRequest(LlmPrompt prompt, boolean stream) {
+        List<Map<String, String>> messages = new ArrayList<>(prompt.history().size() + 2);
+        messages.add(Map.of("role", "system", "content", prompt.systemPrompt()));
+        for (LlmPrompt.Message message : prompt.history()) {
+            messages.add(Map.of("role", message.role(), "content", message.content()));
+        }
+        messages.add(Map.of("role", "user", "content", prompt.userMessage()));
+
+        Map<String, Object> body = Map.of(
+            "model", prompt.model(),
+            "messages", messages,
+            "max_tokens", prompt.maxTokens(),
+            "stream", stream);
+        try {
+            return HttpRequest.newBuilder(completionsUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + apiKey)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        } catch (IOException e) {
+            throw new LlmUnavailableException("Could not encode LLM request", e);
+        }
+    }
+
+    private void acquire(LlmPrompt prompt) {
+        if (!circuitBreaker.tryAcquire()) {
+            failureCounter(prompt.model(), "circuit_open").increment();
+            throw new LlmUnavailableException("LLM circuit is open");
+        }
+    }
+
+    private void recordSuccess(LlmPrompt prompt, long start) {
+        circuitBreaker.onSuccess();
+        latencyTimer(prompt.model(), "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private LlmUnavailableException recordFailure(LlmPrompt prompt, long start, Throwable cause) {
+        circuitBreaker.onFailure();
+        latencyTimer(prompt.model(), "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        failureCounter(prompt.model(), failureReason(cause)).increment();
+        return cause instanceof LlmUnavailableException unavailable
+            ? unavailable
+            : new LlmUnavailableException("LLM request failed: " + cause, cause);
+    }
+
+    private String parseReply(HttpResponse<byte[]> response) {
+        if (response.statusCode() != 200) {
+            throw new LlmUnavailableException("LLM upstream returned HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode content = objectMapper.readTree(response.body())
+                .path("choices").path(0).path("message").path("content");
+            if (!content.isTextual()) {
+                throw new LlmUnavailableException("LLM response had no completion");
+            }
+            return content.asText();
+        } catch (IOException e) {
+            throw new LlmUnavailableException("Could not parse LLM response", e);
+        }
+    }
+
+    private Timer latencyTimer(String model, String outcome) {
+        return Timer.builder("chatbot.llm.latency")
+            .tag("model", model)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private Counter failureCounter(String model, String reason) {
+        return Counter.builder("chatbot.llm.failures")
+            .tag("model", model)
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static String failureReason(Throwable cause) {
+        if (cause instanceof TimeoutException || cause instanceof HttpTimeoutException) {
+            return "timeout";
+        }
+        if (cause instanceof ConnectException) {
+            return "connect";
+        }
+        if (cause instanceof LlmUnavailableException) {
+            return "upstream";
+        }
+        return "io";
+    }
+
+    /**
+     * Guards one streamed call. A read blocked on a silent upstream is only woken
+     * by an interrupt, so the reader is interrupted when the body goes quiet for
+     * longer than the idle timeout or when the caller cancels. The interrupt is
+     * cleared again in {@link #finish()} so it never leaks past the call.
+     */
+    private final class StreamWatch {
+
+        private final Thread reader = Thread.currentThread();
+        private volatile long lastRead;
+        private boolean done;
+        private boolean idle;
+        private boolean cancelled;
+
+        void startBody() {
+            lastRead = System.nanoTime();
+            watchdog.schedule(this::check, streamIdleNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void touch() {
+            lastRead = System.nanoTime();
+        }
+
+        synchronized void cancel() {
+            if (!done) {
+                cancelled = true;
+                reader.interrupt();
+            }
+        }
+
+        synchronized void finish() {
+            if (!done) {
+                done = true;
+                if (idle || cancelled) {
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private void check() {
+            long quiet = System.nanoTime() - lastRead;
+            synchronized (this) {
+                if (done || cancelled) {
+                    return;
+                }
+                if (quiet < streamIdleNanos) {
+                    watchdog.schedule(this::check, streamIdleNanos - quiet, TimeUnit.NANOSECONDS);
+                    return;
+                }
+                idle = true;
+                reader.interrupt();
+            }
+        }
+    }
+}
@@ -1,17 +1,20 @@
 package com.example.insurAI.config;
 
-import com.example.insurAI.entity.AgentAvailability;
+import com.example.insurAI.entity.AvailabilityRule;
 import com.example.insurAI.entity.Role;
 import com.example.insurAI.entity.User;
-import com.example.insurAI.repository.AgentAvailabilityRepository;
+import com.example.insurAI.repository.AvailabilityRuleRepository;
 import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.RecurringAvailability;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.EnumSet;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -23,7 +26,7 @@ public class DataInitializer implements CommandLineRunner {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private AgentAvailabilityRepository availabilityRepository;
+    private AvailabilityRuleRepository ruleRepository;
 
     @Override
     public void run(String... args) throws Exception {
@@ -53,28 +56,21 @@ public class DataInitializer implements CommandLineRunner {
             customer.setEmailVerified(true);
             userRepository.save(customer);
 
-            // Create test availability slots for the agent
-            LocalDateTime today = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-            
-            for (int i = 0; i < 7; i++) {
-                LocalDateTime date = today.plusDays(i);
-                
-                AgentAvailability morning = new AgentAvailability();
-                morning.setAgent(agent);
-                morning.setAvailableDate(date);
-                morning.setStartTime(LocalTime.of(9, 0));
-                morning.setEndTime(LocalTime.of(12, 0));
-                morning.setAvailable(true);
-                availabilityRepository.save(morning);
-                
-                AgentAvailability afternoon = new AgentAvailability();
-                afternoon.setAgent(agent);
-                afternoon.setAvailableDate(date);
-                afternoon.setStartTime(LocalTime.of(14, 0));
-                afternoon.setEndTime(LocalTime.of(17, 0));
-                afternoon.setAvailable(true);
-                availabilityRepository.save(afternoon);
-            }
+            // Create test availability rules for the agent, every day for the next week
+            LocalDate today = LocalDate.now();
+            ruleRepository.save(dailyRule(agent, today, LocalTime.of(9, 0), LocalTime.of(12, 0)));
+            ruleRepository.save(dailyRule(agent, today, LocalTime.of(14, 0), LocalTime.of(17, 0)));
         }
     }
-}
\ No newline at end of file
+
+    private AvailabilityRule dailyRule(User agent, LocalDate from, LocalTime start, LocalTime end) {
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setAgent(agent);
+        rule.setDaysOfWeek(RecurringAvailability.maskOf(EnumSet.allOf(DayOfWeek.class)));
+        rule.setStartTime(start);
+        rule.setEndTime(end);
+        rule.setValidFrom(from);
+        rule.setValidUntil(from.plusDays(6));
+        return rule;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.insurAI.config;
+
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.service.AccessTokenRevocationService;
+import com.example.insurAI.service.JwtService;
+import com.example.insurAI.service.UserRevocationService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates requests from the bearer token's claims. Tokens of suspended
+ * or revoked users are rejected using the in-memory revocation set only.
+ * <p>
+ * The context is also saved as a request attribute, so the async dispatch of a
+ * CompletableFuture or SSE response, which this filter skips, is still
+ * authenticated.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+    private final UserRevocationService revocationService;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    public JwtAuthenticationFilter(JwtService jwtService, UserRevocationService revocationService,
+                                   AccessTokenRevocationService accessTokenRevocationService) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.accessTokenRevocationService = accessTokenRevocationService;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtService.extractClaims(header.substring(BEARER_PREFIX.length()));
+        } catch (Exception e) {
+            // Invalid or expired token - continue unauthenticated
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Number userId = claims.get(JwtService.CLAIM_USER_ID, Number.class);
+        String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            // Legacy token issued before claims were added
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Number version = claims.get(JwtService.CLAIM_VERSION, Number.class);
+        if (revocationService.isRevoked(userId.longValue(), version != null ? version.longValue() : 0L)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED,
+                "Your account has been suspended by admin. Please contact administrator.");
+            return;
+        }
+
+        if (accessTokenRevocationService.isRevoked(claims.getId(), claims.getExpiration())) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Session has been signed out");
+            return;
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(userId.longValue(), claims.getSubject(), Role.valueOf(role));
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            principal, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        securityContextRepository.saveContext(context, request, response);
+
+        filterChain.doFilter(request, response);
+    }
+}
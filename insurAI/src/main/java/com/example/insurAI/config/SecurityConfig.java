@@ -1,13 +1,19 @@
 package com.example.insurAI.config;
 
+import com.example.insurAI.service.AccessTokenRevocationService;
+import com.example.insurAI.service.JwtService;
+import com.example.insurAI.service.UserRevocationService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -19,8 +25,8 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -36,28 +42,37 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService,
+                                           UserRevocationService revocationService,
+                                           AccessTokenRevocationService accessTokenRevocationService) throws Exception {
         return http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Account endpoints that act on the signed-in user or list users
+                .requestMatchers("/api/auth/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/auth/admins", "/api/auth/customers").hasAnyRole("ADMIN", "AGENT")
+                .requestMatchers("/api/auth/profile").authenticated()
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/availability/**").permitAll()
-                .requestMatchers("/api/customer/**").permitAll()
-                .requestMatchers("/api/agent/**").permitAll()
-                .requestMatchers("/api/appointments/**").permitAll()
-                .requestMatchers("/api/policies/**").permitAll()
-                .requestMatchers("/api/notifications/**").permitAll()
-                .requestMatchers("/api/admin/**").permitAll()
-                .requestMatchers("/api/insurance/**").permitAll()
-                .requestMatchers("/api/chatbot/**").permitAll()
+                // Public catalogue and availability browsing
+                .requestMatchers(HttpMethod.GET, "/api/availability/**", "/api/insurance/plans/**",
+                    "/api/insurance/compare", "/api/policies/active", "/api/policies/all",
+                    "/api/policies/search", "/api/appointments/available-slots").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/agent/**").hasRole("AGENT")
+                .requestMatchers("/api/customer/appointments/**").hasRole("CUSTOMER")
+                .requestMatchers("/api/policies/create", "/api/policies/agent", "/api/policies/applications/agent",
+                    "/api/policies/applications/*/process").hasRole("AGENT")
+                .requestMatchers("/api/policies/pending", "/api/policies/*/approve", "/api/policies/*/reject").hasRole("ADMIN")
                 .requestMatchers("/api/test/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers("/error").permitAll()
                 .requestMatchers("/").permitAll()
                 .anyRequest().authenticated()
             )
+            .addFilterBefore(new JwtAuthenticationFilter(jwtService, revocationService, accessTokenRevocationService),
+                UsernamePasswordAuthenticationFilter.class)
             .build();
     }
 }
\ No newline at end of file
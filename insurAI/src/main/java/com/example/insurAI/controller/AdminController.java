@@ -1,11 +1,21 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.dto.AvailabilityBatchRequest;
+import com.example.insurAI.dto.AvailabilityBatchResult;
 import com.example.insurAI.entity.*;
 import com.example.insurAI.service.AdminService;
+import com.example.insurAI.service.ArchivalService;
+import com.example.insurAI.service.AvailabilityService;
+import com.example.insurAI.service.UserImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +27,15 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
     
+    @Autowired
+    private UserImportService userImportService;
+    
+    @Autowired
+    private AvailabilityService availabilityService;
+    
+    @Autowired
+    private ArchivalService archivalService;
+    
     // Dashboard Analytics
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
@@ -37,6 +56,17 @@ public class AdminController {
         return ResponseEntity.ok("User status updated");
     }
     
+    // Streams a CSV (with header row) or NDJSON upload; responds with NDJSON failures and a summary line
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserImportService.Format format = request.getContentType().startsWith("text/csv")
+            ? UserImportService.Format.CSV
+            : UserImportService.Format.NDJSON;
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        userImportService.importUsers(request.getInputStream(), format, response.getOutputStream());
+    }
+    
     @DeleteMapping("/users/{userId}")
     public ResponseEntity<String> deleteUser(@PathVariable Long userId) {
         adminService.deleteUser(userId);
@@ -56,6 +86,17 @@ public class AdminController {
         return ResponseEntity.ok("Agent approved");
     }
     
+    // Publishes availability for many agents in one call; each window names its agent
+    @PostMapping("/availability/batch")
+    public ResponseEntity<?> publishAvailability(@RequestBody AvailabilityBatchRequest request) {
+        try {
+            AvailabilityBatchResult result = availabilityService.publishBatch(null, request.getWindows());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     // Policy Management
     @GetMapping("/policies")
     public ResponseEntity<List<Policy>> getAllPolicies() {
@@ -78,9 +119,9 @@ public class AdminController {
     @PutMapping("/policies/{policyId}/approve")
     public ResponseEntity<String> approvePolicy(
             @PathVariable Long policyId,
-            @RequestParam Long adminId) {
+            @AuthenticationPrincipal AuthenticatedUser admin) {
         try {
-            adminService.approvePolicy(policyId, adminId);
+            adminService.approvePolicy(policyId, admin.id());
             return ResponseEntity.ok("Policy approved successfully");
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -90,10 +131,10 @@ public class AdminController {
     @PutMapping("/policies/{policyId}/reject")
     public ResponseEntity<String> rejectPolicy(
             @PathVariable Long policyId,
-            @RequestParam Long adminId,
+            @AuthenticationPrincipal AuthenticatedUser admin,
             @RequestParam(required = false) String reason) {
         try {
-            adminService.rejectPolicy(policyId, adminId, reason);
+            adminService.rejectPolicy(policyId, admin.id(), reason);
             return ResponseEntity.ok("Policy rejected successfully");
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -126,6 +167,12 @@ public class AdminController {
         return ResponseEntity.ok("Appointment cancelled");
     }
     
+    // Runs the nightly archival now; answers with the number of rows moved
+    @PostMapping("/archive")
+    public ResponseEntity<Map<String, Integer>> archiveHistory() {
+        return ResponseEntity.ok(archivalService.archiveExpired());
+    }
+    
     // Notification Management
     @GetMapping("/notifications")
     public ResponseEntity<List<Notification>> getAllNotifications() {
@@ -1,13 +1,23 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.dto.AvailabilityBatchRequest;
+import com.example.insurAI.dto.AvailabilityBatchResult;
 import com.example.insurAI.dto.AvailabilityRequest;
+import com.example.insurAI.dto.AvailabilityRuleRequest;
+import com.example.insurAI.dto.TimeOffRequest;
 import com.example.insurAI.entity.AgentAvailability;
 import com.example.insurAI.entity.Appointment;
+import com.example.insurAI.entity.AvailabilityRule;
+import com.example.insurAI.entity.AvailabilityTimeOff;
 
 import com.example.insurAI.service.AppointmentService;
+import com.example.insurAI.service.AvailabilityRuleService;
 import com.example.insurAI.service.AvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,10 +33,13 @@ public class AgentController {
     @Autowired
     private AvailabilityService availabilityService;
     
-    @GetMapping("/appointments/{agentId}")
-    public ResponseEntity<List<Appointment>> getAgentAppointments(@PathVariable Long agentId) {
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+    
+    @GetMapping("/appointments")
+    public ResponseEntity<List<Appointment>> getAgentAppointments(@AuthenticationPrincipal AuthenticatedUser agent) {
         try {
-            List<Appointment> appointments = appointmentService.getAgentAppointments(agentId);
+            List<Appointment> appointments = appointmentService.getAgentAppointments(agent.id());
             return ResponseEntity.ok(appointments);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -34,40 +47,100 @@ public class AgentController {
     }
     
     @PutMapping("/appointments/{appointmentId}/status")
-    public ResponseEntity<String> updateAppointmentStatus(@PathVariable Long appointmentId, @RequestParam String status) {
+    public ResponseEntity<String> updateAppointmentStatus(@AuthenticationPrincipal AuthenticatedUser agent, @PathVariable Long appointmentId, @RequestParam String status) {
         try {
-            appointmentService.updateAppointmentStatus(appointmentId, status);
+            appointmentService.updateAppointmentStatus(appointmentId, status, agent);
             return ResponseEntity.ok("Appointment status updated successfully");
+        } catch (AccessDeniedException e) {
+            // Answered as 403 by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating appointment status: " + e.getMessage());
         }
     }
     
-    @PostMapping("/availability/{agentId}")
-    public ResponseEntity<AgentAvailability> setAvailability(@PathVariable Long agentId, @RequestBody AvailabilityRequest request) {
+    @PostMapping("/availability")
+    public ResponseEntity<AgentAvailability> setAvailability(@AuthenticationPrincipal AuthenticatedUser agent, @RequestBody AvailabilityRequest request) {
         try {
-            AgentAvailability availability = availabilityService.setAvailability(agentId, request);
+            AgentAvailability availability = availabilityService.setAvailability(agent.id(), request);
             return ResponseEntity.ok(availability);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
-    @GetMapping("/availability/{agentId}")
-    public ResponseEntity<List<AgentAvailability>> getAgentAvailability(@PathVariable Long agentId) {
-        List<AgentAvailability> availability = availabilityService.getAgentAvailability(agentId);
+    @PostMapping("/availability/batch")
+    public ResponseEntity<?> publishAvailability(@AuthenticationPrincipal AuthenticatedUser agent, @RequestBody AvailabilityBatchRequest request) {
+        try {
+            AvailabilityBatchResult result = availabilityService.publishBatch(agent.id(), request.getWindows());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/availability")
+    public ResponseEntity<List<AgentAvailability>> getAgentAvailability(@AuthenticationPrincipal AuthenticatedUser agent) {
+        List<AgentAvailability> availability = availabilityService.getAgentAvailability(agent.id());
         return ResponseEntity.ok(availability);
     }
     
     @PutMapping("/availability/{availabilityId}")
-    public ResponseEntity<AgentAvailability> updateAvailability(@PathVariable Long availabilityId, @RequestBody AvailabilityRequest request) {
-        AgentAvailability availability = availabilityService.updateAvailability(availabilityId, request);
-        return ResponseEntity.ok(availability);
+    public ResponseEntity<AgentAvailability> updateAvailability(@AuthenticationPrincipal AuthenticatedUser agent,
+                                                                @PathVariable Long availabilityId, @RequestBody AvailabilityRequest request) {
+        try {
+            AgentAvailability availability = availabilityService.updateAvailability(agent.id(), availabilityId, request);
+            return ResponseEntity.ok(availability);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     @DeleteMapping("/availability/{availabilityId}")
-    public ResponseEntity<Void> deleteAvailability(@PathVariable Long availabilityId) {
-        availabilityService.deleteAvailability(availabilityId);
+    public ResponseEntity<Void> deleteAvailability(@AuthenticationPrincipal AuthenticatedUser agent, @PathVariable Long availabilityId) {
+        availabilityService.deleteAvailability(agent.id(), availabilityId);
+        return ResponseEntity.ok().build();
+    }
+    
+    @PostMapping("/availability-rules")
+    public ResponseEntity<?> createAvailabilityRule(@AuthenticationPrincipal AuthenticatedUser agent, @RequestBody AvailabilityRuleRequest request) {
+        try {
+            AvailabilityRule rule = availabilityRuleService.createRule(agent.id(), request);
+            return ResponseEntity.ok(rule);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/availability-rules")
+    public ResponseEntity<List<AvailabilityRule>> getAvailabilityRules(@AuthenticationPrincipal AuthenticatedUser agent) {
+        return ResponseEntity.ok(availabilityRuleService.getRules(agent.id()));
+    }
+    
+    @DeleteMapping("/availability-rules/{ruleId}")
+    public ResponseEntity<Void> deleteAvailabilityRule(@AuthenticationPrincipal AuthenticatedUser agent, @PathVariable Long ruleId) {
+        availabilityRuleService.deleteRule(agent.id(), ruleId);
+        return ResponseEntity.ok().build();
+    }
+    
+    @PostMapping("/time-off")
+    public ResponseEntity<?> addTimeOff(@AuthenticationPrincipal AuthenticatedUser agent, @RequestBody TimeOffRequest request) {
+        try {
+            AvailabilityTimeOff timeOff = availabilityRuleService.addTimeOff(agent.id(), request);
+            return ResponseEntity.ok(timeOff);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/time-off")
+    public ResponseEntity<List<AvailabilityTimeOff>> getTimeOff(@AuthenticationPrincipal AuthenticatedUser agent) {
+        return ResponseEntity.ok(availabilityRuleService.getUpcomingTimeOff(agent.id()));
+    }
+    
+    @DeleteMapping("/time-off/{timeOffId}")
+    public ResponseEntity<Void> deleteTimeOff(@AuthenticationPrincipal AuthenticatedUser agent, @PathVariable Long timeOffId) {
+        availabilityRuleService.deleteTimeOff(agent.id(), timeOffId);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+}
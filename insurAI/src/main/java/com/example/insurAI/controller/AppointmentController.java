@@ -1,12 +1,17 @@
 package com.example.insurAI.controller;
 
 import com.example.insurAI.dto.AppointmentRequest;
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.dto.BookableSlot;
 import com.example.insurAI.entity.Appointment;
 import com.example.insurAI.service.AppointmentService;
+import com.example.insurAI.service.AppointmentSlotService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,17 +22,21 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
 
-    @GetMapping("/agent/{agentId}")
-    public ResponseEntity<List<Appointment>> getAppointmentsByAgent(@PathVariable Long agentId) {
-        List<Appointment> appointments = appointmentService.getAppointmentsByAgent(agentId);
+    @Autowired
+    private AppointmentSlotService appointmentSlotService;
+
+    @GetMapping("/agent")
+    public ResponseEntity<List<Appointment>> getAppointmentsByAgent(@AuthenticationPrincipal AuthenticatedUser agent) {
+        List<Appointment> appointments = appointmentService.getAppointmentsByAgent(agent.id());
         return ResponseEntity.ok(appointments);
     }
 
     @PutMapping("/{appointmentId}/status")
     public ResponseEntity<String> updateAppointmentStatus(
             @PathVariable Long appointmentId, 
-            @RequestParam String status) {
-        appointmentService.updateAppointmentStatus(appointmentId, status);
+            @RequestParam String status,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        appointmentService.updateAppointmentStatus(appointmentId, status, user);
         return ResponseEntity.ok("Appointment status updated successfully");
     }
 
@@ -38,8 +47,19 @@ public class AppointmentController {
     }
 
     @GetMapping("/available-slots")
-    public ResponseEntity<List<String>> getAvailableSlots(@RequestParam Long agentId) {
-        List<String> slots = appointmentService.getAvailableSlots(agentId);
-        return ResponseEntity.ok(slots);
+    public ResponseEntity<?> getAvailableSlots(
+            @RequestParam List<Long> agentId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer slotMinutes,
+            @RequestParam(required = false) Integer bufferMinutes) {
+        try {
+            LocalDate start = from != null ? LocalDate.parse(from) : LocalDate.now();
+            LocalDate end = to != null ? LocalDate.parse(to) : start.plusDays(6);
+            List<BookableSlot> slots = appointmentSlotService.findSlots(agentId, start, end, slotMinutes, bufferMinutes);
+            return ResponseEntity.ok(slots);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
\ No newline at end of file
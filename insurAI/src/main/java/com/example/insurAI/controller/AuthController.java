@@ -1,18 +1,27 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AgentSummary;
+import com.example.insurAI.dto.AuthenticatedUser;
 import com.example.insurAI.dto.AuthResponse;
 import com.example.insurAI.dto.LoginRequest;
 import com.example.insurAI.dto.RegisterRequest;
 import com.example.insurAI.dto.ResetPasswordRequest;
 import com.example.insurAI.dto.ValidateResetCodeRequest;
 import com.example.insurAI.entity.Role;
+import com.example.insurAI.exception.RateLimitExceededException;
+import com.example.insurAI.exception.ServiceBusyException;
 import com.example.insurAI.entity.User;
+import com.example.insurAI.service.AgentDirectoryService;
 import com.example.insurAI.service.AuthService;
 import com.example.insurAI.repository.UserRepository;
 
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -21,11 +30,13 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
     private final AuthService authService;
     private final UserRepository userRepository;
+    private final AgentDirectoryService agentDirectoryService;
 
     @Autowired
-    public AuthController(AuthService authService, UserRepository userRepository) {
+    public AuthController(AuthService authService, UserRepository userRepository, AgentDirectoryService agentDirectoryService) {
         this.authService = authService;
         this.userRepository = userRepository;
+        this.agentDirectoryService = agentDirectoryService;
     }
 
     @PostMapping("/register")
@@ -33,6 +44,9 @@ public class AuthController {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            // Answered as 503 with Retry-After by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest().body(new AuthResponse(null, e.getMessage()));
@@ -40,10 +54,16 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@RequestBody LoginRequest request, HttpServletRequest httpRequest) {
         try {
-            AuthResponse response = authService.login(request);
+            AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(response);
+        } catch (RateLimitExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new AuthResponse(null, e.getMessage()));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(new AuthResponse(null, e.getMessage()));
         } catch (Exception e) {
@@ -51,6 +71,23 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody java.util.Map<String, String> request) {
+        try {
+            return ResponseEntity.ok(authService.refresh(request.get("refreshToken")));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthResponse(null, e.getMessage()));
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                         @RequestBody(required = false) java.util.Map<String, String> request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(accessToken, request != null ? request.get("refreshToken") : null);
+        return ResponseEntity.ok("Logged out successfully");
+    }
+
     @PostMapping("/verify")
     public ResponseEntity<String> verifyEmail(@RequestParam String code) {
         try {
@@ -96,6 +133,8 @@ public class AuthController {
     public ResponseEntity<String> resetPassword(@RequestBody ResetPasswordRequest request) {
         try {
             return ResponseEntity.ok(authService.confirmPasswordReset(request));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -106,9 +145,10 @@ public class AuthController {
     @PostMapping("/admin/register")
     public ResponseEntity<AuthResponse> registerAdmin(@RequestBody RegisterRequest request) {
         try {
-            request.setRole(Role.ADMIN);
-            AuthResponse response = authService.register(request);
+            AuthResponse response = authService.registerAdmin(request);
             return ResponseEntity.ok(response);
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new AuthResponse(null, e.getMessage()));
         }
@@ -127,19 +167,18 @@ public class AuthController {
     }
 
     @GetMapping("/agents")
-    public ResponseEntity<List<User>> getAllAgents() {
-        List<User> agents = userRepository.findByRole(Role.AGENT);
-        return ResponseEntity.ok(agents);
+    public ResponseEntity<List<AgentSummary>> getAllAgents(@RequestParam(required = false) Long afterId,
+                                                            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(agentDirectoryService.page(afterId, size));
     }
     
-    @PutMapping("/profile/{userId}")
-    public ResponseEntity<String> updateProfile(@PathVariable Long userId, @RequestBody java.util.Map<String, String> profileData) {
+    @PutMapping("/profile")
+    public ResponseEntity<String> updateProfile(@AuthenticationPrincipal AuthenticatedUser user, @RequestBody java.util.Map<String, String> profileData) {
         try {
-            authService.updateProfile(userId, profileData);
+            authService.updateProfile(user.id(), profileData);
             return ResponseEntity.ok("Profile updated successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.insurAI.controller;
 import com.example.insurAI.dto.AgentSearchResponse;
 import com.example.insurAI.entity.AgentAvailability;
 import com.example.insurAI.service.AvailabilityService;
+import com.example.insurAI.util.AvailabilityIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -37,6 +38,13 @@ public class AvailabilityController {
         return ResponseEntity.ok(slots);
     }
     
+    @GetMapping("/next/{agentId}")
+    public ResponseEntity<AvailabilityIndex.FreeSlot> getNextFreeSlot(@PathVariable Long agentId) {
+        return availabilityService.getNextFreeSlot(agentId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<AgentSearchResponse> searchAgentsByDateTime(
             @RequestParam String date, 
@@ -1,11 +1,17 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.service.ChatStreamService;
 import com.example.insurAI.service.ChatbotService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/chatbot")
@@ -15,14 +21,24 @@ public class ChatbotController {
     @Autowired
     private ChatbotService chatbotService;
     
+    @Autowired
+    private ChatStreamService chatStreamService;
+    
     @PostMapping("/chat")
-    public ResponseEntity<Map<String, Object>> processMessage(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> processMessage(
             @RequestBody Map<String, String> request,
-            @RequestParam Long userId) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
         String userMessage = request.get("message");
-        Map<String, Object> response = chatbotService.processUserMessage(userMessage, userId);
+        return chatbotService.processUserMessage(userMessage, user)
+            .thenApply(ResponseEntity::ok);
+    }
+    
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(
+            @RequestBody Map<String, String> request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        return ResponseEntity.ok(response);
+        return chatStreamService.open(request.get("message"), user);
     }
-}
\ No newline at end of file
+}
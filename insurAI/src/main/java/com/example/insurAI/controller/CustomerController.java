@@ -1,13 +1,16 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AgentSummary;
+import com.example.insurAI.dto.AuthenticatedUser;
 import com.example.insurAI.dto.AppointmentRequest;
+import com.example.insurAI.dto.EarliestAppointmentRequest;
 import com.example.insurAI.entity.Appointment;
-import com.example.insurAI.entity.Role;
-import com.example.insurAI.entity.User;
-import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.service.AgentAssignmentService;
+import com.example.insurAI.service.AgentDirectoryService;
 import com.example.insurAI.service.AppointmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -18,21 +21,24 @@ import java.util.List;
 public class CustomerController {
     
     @Autowired
-    private UserRepository userRepository;
+    private AgentDirectoryService agentDirectoryService;
     
     @Autowired
     private AppointmentService appointmentService;
     
+    @Autowired
+    private AgentAssignmentService agentAssignmentService;
+    
     @GetMapping("/agents")
-    public ResponseEntity<List<User>> getAgents() {
-        List<User> agents = userRepository.findByRole(Role.AGENT);
-        return ResponseEntity.ok(agents);
+    public ResponseEntity<List<AgentSummary>> getAgents(@RequestParam(required = false) Long afterId,
+                                                         @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(agentDirectoryService.page(afterId, size));
     }
     
-    @PostMapping("/appointments/book/{customerId}")
-    public ResponseEntity<?> bookAppointment(@PathVariable Long customerId, @RequestBody AppointmentRequest request) {
+    @PostMapping("/appointments/book")
+    public ResponseEntity<?> bookAppointment(@AuthenticationPrincipal AuthenticatedUser customer, @RequestBody AppointmentRequest request) {
         try {
-            Appointment appointment = appointmentService.bookAppointment(customerId, request);
+            Appointment appointment = appointmentService.bookAppointment(customer.id(), request);
             return ResponseEntity.ok(appointment);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -41,10 +47,21 @@ public class CustomerController {
         }
     }
     
-    @GetMapping("/appointments/{customerId}")
-    public ResponseEntity<List<Appointment>> getCustomerAppointments(@PathVariable Long customerId) {
+    // Books the earliest free slot with whichever agent has it
+    @PostMapping("/appointments/book-earliest")
+    public ResponseEntity<?> bookEarliestAppointment(@AuthenticationPrincipal AuthenticatedUser customer, @RequestBody EarliestAppointmentRequest request) {
+        try {
+            Appointment appointment = agentAssignmentService.bookEarliest(customer.id(), request);
+            return ResponseEntity.ok(appointment);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/appointments")
+    public ResponseEntity<List<Appointment>> getCustomerAppointments(@AuthenticationPrincipal AuthenticatedUser customer) {
         try {
-            List<Appointment> appointments = appointmentService.getCustomerAppointments(customerId);
+            List<Appointment> appointments = appointmentService.getCustomerAppointments(customer.id());
             return ResponseEntity.ok(appointments);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
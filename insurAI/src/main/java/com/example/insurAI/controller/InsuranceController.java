@@ -1,9 +1,13 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.dto.PolicyComparison;
 import com.example.insurAI.entity.Policy;
+import com.example.insurAI.service.PolicyComparisonService;
 import com.example.insurAI.service.PolicyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -15,6 +19,9 @@ public class InsuranceController {
     @Autowired
     private PolicyService policyService;
     
+    @Autowired
+    private PolicyComparisonService policyComparisonService;
+    
     @GetMapping("/plans")
     public ResponseEntity<List<Policy>> getAllPlans() {
         List<Policy> activePolicies = policyService.getActivePolicies();
@@ -30,8 +37,13 @@ public class InsuranceController {
         return ResponseEntity.ok(filteredPolicies);
     }
     
-    @GetMapping("/policies/customer/{customerId}")
-    public ResponseEntity<List<Policy>> getCustomerPolicies(@PathVariable Long customerId) {
+    @GetMapping("/compare")
+    public ResponseEntity<PolicyComparison> comparePlans() {
+        return ResponseEntity.ok(policyComparisonService.getComparison());
+    }
+    
+    @GetMapping("/policies/customer")
+    public ResponseEntity<List<Policy>> getCustomerPolicies(@AuthenticationPrincipal AuthenticatedUser customer) {
         // Return empty list for now - implement customer-specific policies later
         return ResponseEntity.ok(List.of());
     }
@@ -1,9 +1,11 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AuthenticatedUser;
 import com.example.insurAI.entity.Notification;
 import com.example.insurAI.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,21 +18,21 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
-    @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Notification>> getUserNotifications(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getUserNotifications(userId);
+    @GetMapping("/user")
+    public ResponseEntity<List<Notification>> getUserNotifications(@AuthenticationPrincipal AuthenticatedUser user) {
+        List<Notification> notifications = notificationService.getUserNotifications(user.id());
         return ResponseEntity.ok(notifications);
     }
     
-    @GetMapping("/user/{userId}/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications(@PathVariable Long userId) {
-        List<Notification> notifications = notificationService.getUnreadNotifications(userId);
+    @GetMapping("/user/unread")
+    public ResponseEntity<List<Notification>> getUnreadNotifications(@AuthenticationPrincipal AuthenticatedUser user) {
+        List<Notification> notifications = notificationService.getUnreadNotifications(user.id());
         return ResponseEntity.ok(notifications);
     }
     
-    @GetMapping("/user/{userId}/count")
-    public ResponseEntity<Long> getUnreadCount(@PathVariable Long userId) {
-        long count = notificationService.getUnreadCount(userId);
+    @GetMapping("/user/count")
+    public ResponseEntity<Long> getUnreadCount(@AuthenticationPrincipal AuthenticatedUser user) {
+        long count = notificationService.getUnreadCount(user.id());
         return ResponseEntity.ok(count);
     }
     
@@ -40,9 +42,9 @@ public class NotificationController {
         return ResponseEntity.ok("Notification marked as read");
     }
     
-    @PutMapping("/user/{userId}/read-all")
-    public ResponseEntity<String> markAllAsRead(@PathVariable Long userId) {
-        notificationService.markAllAsRead(userId);
+    @PutMapping("/user/read-all")
+    public ResponseEntity<String> markAllAsRead(@AuthenticationPrincipal AuthenticatedUser user) {
+        notificationService.markAllAsRead(user.id());
         return ResponseEntity.ok("All notifications marked as read");
     }
 }
\ No newline at end of file
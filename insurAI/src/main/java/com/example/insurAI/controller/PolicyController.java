@@ -1,11 +1,15 @@
 package com.example.insurAI.controller;
 
+import com.example.insurAI.dto.AuthenticatedUser;
 import com.example.insurAI.dto.PolicyRequest;
 import com.example.insurAI.dto.PolicyApplicationRequest;
+import com.example.insurAI.dto.PolicySearchResult;
 import com.example.insurAI.entity.*;
+import com.example.insurAI.service.PolicySearchService;
 import com.example.insurAI.service.PolicyService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -17,10 +21,13 @@ public class PolicyController {
     @Autowired
     private PolicyService policyService;
 
+    @Autowired
+    private PolicySearchService policySearchService;
+
     @PostMapping("/create")
-    public ResponseEntity<?> createPolicy(@RequestBody PolicyRequest request, @RequestParam Long agentId) {
+    public ResponseEntity<?> createPolicy(@RequestBody PolicyRequest request, @AuthenticationPrincipal AuthenticatedUser agent) {
         try {
-            Policy policy = policyService.createPolicy(request, agentId);
+            Policy policy = policyService.createPolicy(request, agent.id());
             return ResponseEntity.ok(policy);
         } catch (Exception e) {
             e.printStackTrace();
@@ -34,9 +41,16 @@ public class PolicyController {
         return ResponseEntity.ok(policies);
     }
 
-    @GetMapping("/agent/{agentId}")
-    public ResponseEntity<List<Policy>> getAgentPolicies(@PathVariable Long agentId) {
-        List<Policy> policies = policyService.getAgentPolicies(agentId);
+    @GetMapping("/search")
+    public ResponseEntity<List<PolicySearchResult>> searchPolicies(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(policySearchService.search(query, limit));
+    }
+
+    @GetMapping("/agent")
+    public ResponseEntity<List<Policy>> getAgentPolicies(@AuthenticationPrincipal AuthenticatedUser agent) {
+        List<Policy> policies = policyService.getAgentPolicies(agent.id());
         return ResponseEntity.ok(policies);
     }
 
@@ -45,7 +59,7 @@ public class PolicyController {
             @RequestParam Long policyId,
             @RequestParam String additionalDetails,
             @RequestParam(required = false) org.springframework.web.multipart.MultipartFile documents,
-            @RequestParam Long userId) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         try {
             PolicyApplicationRequest request = new PolicyApplicationRequest();
             request.setPolicyId(policyId);
@@ -69,7 +83,7 @@ public class PolicyController {
                 System.out.println("No document received or document is empty");
             }
             
-            PolicyApplication application = policyService.applyForPolicy(request, userId);
+            PolicyApplication application = policyService.applyForPolicy(request, user.id());
             return ResponseEntity.ok(application);
         } catch (Exception e) {
             System.err.println("Policy application error: " + e.getClass().getSimpleName() + ": " + e.getMessage());
@@ -102,15 +116,15 @@ public class PolicyController {
     
 
 
-    @GetMapping("/applications/user/{userId}")
-    public ResponseEntity<List<PolicyApplication>> getUserApplications(@PathVariable Long userId) {
-        List<PolicyApplication> applications = policyService.getUserApplications(userId);
+    @GetMapping("/applications/user")
+    public ResponseEntity<List<PolicyApplication>> getUserApplications(@AuthenticationPrincipal AuthenticatedUser user) {
+        List<PolicyApplication> applications = policyService.getUserApplications(user.id());
         return ResponseEntity.ok(applications);
     }
 
-    @GetMapping("/applications/agent/{agentId}")
-    public ResponseEntity<List<PolicyApplication>> getAgentApplications(@PathVariable Long agentId) {
-        List<PolicyApplication> applications = policyService.getAgentApplications(agentId);
+    @GetMapping("/applications/agent")
+    public ResponseEntity<List<PolicyApplication>> getAgentApplications(@AuthenticationPrincipal AuthenticatedUser agent) {
+        List<PolicyApplication> applications = policyService.getAgentApplications(agent.id());
         return ResponseEntity.ok(applications);
     }
 
@@ -119,8 +133,8 @@ public class PolicyController {
             @PathVariable Long applicationId,
             @RequestParam ApplicationStatus status,
             @RequestParam(required = false) String reason,
-            @RequestParam Long processedBy) {
-        PolicyApplication application = policyService.processApplication(applicationId, status, reason, processedBy);
+            @AuthenticationPrincipal AuthenticatedUser processedBy) {
+        PolicyApplication application = policyService.processApplication(applicationId, status, reason, processedBy.id());
         return ResponseEntity.ok(application);
     }
     
@@ -134,9 +148,9 @@ public class PolicyController {
     @PutMapping("/{policyId}/approve")
     public ResponseEntity<Policy> approvePolicy(
             @PathVariable Long policyId,
-            @RequestParam Long adminId) {
+            @AuthenticationPrincipal AuthenticatedUser admin) {
         try {
-            Policy policy = policyService.approvePolicy(policyId, adminId);
+            Policy policy = policyService.approvePolicy(policyId, admin.id());
             return ResponseEntity.ok(policy);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -146,10 +160,10 @@ public class PolicyController {
     @PutMapping("/{policyId}/reject")
     public ResponseEntity<Policy> rejectPolicy(
             @PathVariable Long policyId,
-            @RequestParam Long adminId,
+            @AuthenticationPrincipal AuthenticatedUser admin,
             @RequestParam(required = false) String reason) {
         try {
-            Policy policy = policyService.rejectPolicy(policyId, adminId, reason);
+            Policy policy = policyService.rejectPolicy(policyId, admin.id(), reason);
             return ResponseEntity.ok(policy);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -1,16 +1,21 @@
 package com.example.insurAI.controller;
 
-import com.example.insurAI.entity.AgentAvailability;
+import com.example.insurAI.entity.AvailabilityRule;
 import com.example.insurAI.entity.Role;
 import com.example.insurAI.entity.User;
-import com.example.insurAI.repository.AgentAvailabilityRepository;
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.repository.AvailabilityRuleRepository;
 import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.RecurringAvailability;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.EnumSet;
 
 @RestController
 @RequestMapping("/api/test")
@@ -21,7 +26,10 @@ public class TestController {
     private UserRepository userRepository;
     
     @Autowired
-    private AgentAvailabilityRepository availabilityRepository;
+    private AvailabilityRuleRepository ruleRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
@@ -47,35 +55,25 @@ public class TestController {
                 return ResponseEntity.ok("No agents found. Please create an agent first.");
             }
             
-            // Create sample availability slots for next 7 days
-            LocalDate today = LocalDate.now();
-            int slotsCreated = 0;
+            // Two daily rules cover the next 7 days instead of a row per day
+            LocalDate from = LocalDate.now().plusDays(1);
+            int rulesCreated = 0;
             
-            for (int i = 1; i <= 7; i++) {
-                LocalDate date = today.plusDays(i);
-                
-                // Morning slots
-                AgentAvailability morning = new AgentAvailability();
-                morning.setAgent(agent);
-                morning.setAvailableDate(date.atStartOfDay());
-                morning.setStartTime(LocalTime.of(9, 0));
-                morning.setEndTime(LocalTime.of(12, 0));
-                morning.setAvailable(true);
-                availabilityRepository.save(morning);
-                slotsCreated++;
-                
-                // Afternoon slots
-                AgentAvailability afternoon = new AgentAvailability();
-                afternoon.setAgent(agent);
-                afternoon.setAvailableDate(date.atStartOfDay());
-                afternoon.setStartTime(LocalTime.of(14, 0));
-                afternoon.setEndTime(LocalTime.of(17, 0));
-                afternoon.setAvailable(true);
-                availabilityRepository.save(afternoon);
-                slotsCreated++;
+            for (LocalTime[] hours : new LocalTime[][] {
+                    {LocalTime.of(9, 0), LocalTime.of(12, 0)}, {LocalTime.of(14, 0), LocalTime.of(17, 0)}}) {
+                AvailabilityRule rule = new AvailabilityRule();
+                rule.setAgent(agent);
+                rule.setDaysOfWeek(RecurringAvailability.maskOf(EnumSet.allOf(DayOfWeek.class)));
+                rule.setStartTime(hours[0]);
+                rule.setEndTime(hours[1]);
+                rule.setValidFrom(from);
+                rule.setValidUntil(from.plusDays(6));
+                ruleRepository.save(rule);
+                rulesCreated++;
             }
             
-            return ResponseEntity.ok("Created " + slotsCreated + " sample availability slots for agent: " + agent.getFullName());
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(agent.getId()));
+            return ResponseEntity.ok("Created " + rulesCreated + " sample availability rules for agent: " + agent.getFullName());
         } catch (Exception e) {
             return ResponseEntity.ok("Error creating sample data: " + e.getMessage());
         }
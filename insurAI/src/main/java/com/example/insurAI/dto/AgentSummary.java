@@ -0,0 +1,7 @@
+package com.example.insurAI.dto;
+
+/**
+ * Directory entry for an agent - no credentials or other account internals.
+ */
+public record AgentSummary(Long id, String fullName, String email, Boolean active, Long upcomingFreeSlots) {
+}
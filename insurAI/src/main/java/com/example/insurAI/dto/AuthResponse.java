@@ -11,6 +11,7 @@ public class AuthResponse {
     private Long userId;
     private String fullName;
     private String email;
+    private String refreshToken;
     
     public AuthResponse(String token, String message) {
         this.token = token;
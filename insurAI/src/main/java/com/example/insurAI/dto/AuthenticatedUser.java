@@ -0,0 +1,9 @@
+package com.example.insurAI.dto;
+
+import com.example.insurAI.entity.Role;
+
+/**
+ * Principal built from JWT claims alone - no users table lookup.
+ */
+public record AuthenticatedUser(Long id, String email, Role role) {
+}
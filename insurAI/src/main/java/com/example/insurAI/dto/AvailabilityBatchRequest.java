@@ -0,0 +1,18 @@
+package com.example.insurAI.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+public class AvailabilityBatchRequest {
+    private List<Window> windows;
+
+    // A window names its agent unless the whole batch is for one agent
+    @Getter
+    @Setter
+    public static class Window extends AvailabilityRequest {
+        private Long agentId;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.insurAI.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch publish; errors name the rejected windows by position, up to a limit.
+ */
+public record AvailabilityBatchResult(int received, int created, int rejected, int agents, List<String> errors) {
+}
@@ -0,0 +1,19 @@
+package com.example.insurAI.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+import lombok.*;
+
+@Getter
+@Setter
+public class AvailabilityRuleRequest {
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+
+}
@@ -0,0 +1,9 @@
+package com.example.insurAI.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A slot that can be booked with the agent at {@code start} - no availability id needed.
+ */
+public record BookableSlot(Long agentId, LocalDateTime start, LocalDateTime end) {
+}
@@ -0,0 +1,15 @@
+package com.example.insurAI.dto;
+
+import java.time.LocalDate;
+
+import lombok.*;
+
+
+@Getter
+@Setter
+public class EarliestAppointmentRequest {
+    // Earliest day to book; today when not given
+    private LocalDate fromDate;
+    private String reason;
+    private String notes;
+}
@@ -0,0 +1,18 @@
+package com.example.insurAI.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Precomputed comparison of the active catalog, grouped by policy type.
+ */
+public record PolicyComparison(LocalDateTime builtAt, int totalPolicies, List<TypeSummary> types) {
+
+    public record TypeSummary(String policyType, int policyCount, BigDecimal minPremium, BigDecimal medianPremium,
+                              BigDecimal maxPremium, List<Pick> topPicks) {
+    }
+
+    public record Pick(Long policyId, String policyName, BigDecimal premium, String coverage) {
+    }
+}
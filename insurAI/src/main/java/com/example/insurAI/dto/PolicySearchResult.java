@@ -0,0 +1,7 @@
+package com.example.insurAI.dto;
+
+import java.math.BigDecimal;
+
+public record PolicySearchResult(Long policyId, String policyName, String policyType, BigDecimal premium,
+                                 String coverage, double score) {
+}
@@ -0,0 +1,16 @@
+package com.example.insurAI.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import lombok.*;
+
+@Getter
+@Setter
+public class TimeOffRequest {
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private String reason;
+
+}
@@ -12,8 +12,10 @@ import java.time.LocalTime;
 @Setter
 @Table(name = "agent_availability")
 public class AgentAvailability {
+    // Ids are handed out 50 at a time so bulk inserts can be batched; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agent_availability_seq")
+    @SequenceGenerator(name = "agent_availability_seq", sequenceName = "agent_availability_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne
@@ -34,6 +36,8 @@ public class AgentAvailability {
     
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
-
     
+    // Concurrent edits of the same window fail instead of silently overwriting each other
+    @Version
+    private long version;
 }
\ No newline at end of file
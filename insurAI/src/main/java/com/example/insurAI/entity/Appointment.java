@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @Setter
-@Table(name = "appointments")
+@Table(name = "appointments", uniqueConstraints =
+    @UniqueConstraint(name = "uk_appointments_agent_reserved_slot", columnNames = {"agent_id", "reserved_slot"}))
 public class Appointment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,5 +35,16 @@ public class Appointment {
     private String notes;
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
-
+    
+    // Mirrors appointmentDateTime while the appointment holds its slot; the unique key
+    // on (agent_id, reserved_slot) makes a double booking impossible at the database.
+    // Only rejected appointments are without one (V8 rejected the V3 leftovers)
+    @Column(name = "reserved_slot")
+    private LocalDateTime reservedSlot;
+    
+    @PrePersist
+    @PreUpdate
+    void syncReservedSlot() {
+        reservedSlot = status == AppointmentStatus.REJECTED ? null : appointmentDateTime;
+    }
 }
\ No newline at end of file
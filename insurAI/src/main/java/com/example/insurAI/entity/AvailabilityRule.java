@@ -0,0 +1,55 @@
+package com.example.insurAI.entity;
+
+import com.example.insurAI.util.RecurringAvailability;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "availability_rules", indexes = {
+    @Index(name = "idx_availability_rules_agent", columnList = "agent_id"),
+    @Index(name = "idx_availability_rules_valid_until", columnList = "valid_until")
+})
+public class AvailabilityRule {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "agent_id", nullable = false)
+    private User agent;
+    
+    // Bit 0 is Monday through bit 6 for Sunday
+    @Column(nullable = false)
+    private int daysOfWeek;
+    
+    @Column(nullable = false)
+    private LocalTime startTime;
+    
+    // Midnight means the end of the day
+    @Column(nullable = false)
+    private LocalTime endTime;
+    
+    @Column(nullable = false)
+    private LocalDate validFrom;
+    
+    // Null for a rule without an end date
+    @Column(name = "valid_until")
+    private LocalDate validUntil;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+    
+    public Set<DayOfWeek> getDays() {
+        return RecurringAvailability.daysOf(daysOfWeek);
+    }
+}
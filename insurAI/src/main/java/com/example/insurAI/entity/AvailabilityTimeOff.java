@@ -0,0 +1,38 @@
+package com.example.insurAI.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "availability_time_off", indexes = {
+    @Index(name = "idx_availability_time_off_agent_date", columnList = "agent_id, off_date")
+})
+public class AvailabilityTimeOff {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "agent_id", nullable = false)
+    private User agent;
+    
+    @Column(name = "off_date", nullable = false)
+    private LocalDate date;
+    
+    // Both null when the whole day is off
+    private LocalTime startTime;
+    private LocalTime endTime;
+    
+    private String reason;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,5 @@
+package com.example.insurAI.entity;
+
+public enum EmailStatus {
+    PENDING, SENT, DEAD
+}
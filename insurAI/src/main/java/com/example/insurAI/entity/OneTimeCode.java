@@ -0,0 +1,36 @@
+package com.example.insurAI.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "one_time_codes", indexes = {
+    @Index(name = "idx_one_time_codes_user_purpose", columnList = "user_id, purpose"),
+    @Index(name = "idx_one_time_codes_expires_at", columnList = "expires_at")
+})
+public class OneTimeCode {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // HMAC-SHA256 hex of purpose + code keyed by auth.codes.hmac-secret; the plain code is never stored
+    @Column(nullable = false, unique = true, length = 64)
+    private String codeHash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OneTimeCodePurpose purpose;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
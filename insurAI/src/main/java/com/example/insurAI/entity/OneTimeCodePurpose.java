@@ -0,0 +1,5 @@
+package com.example.insurAI.entity;
+
+public enum OneTimeCodePurpose {
+    EMAIL_VERIFICATION, PASSWORD_RESET
+}
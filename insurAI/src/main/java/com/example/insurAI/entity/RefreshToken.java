@@ -0,0 +1,38 @@
+package com.example.insurAI.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_tokens_family", columnList = "family_id")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // SHA-256 hex of the opaque token handed to the client
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    // All tokens produced by rotating one login share a family
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    private boolean revoked = false;
+    
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -0,0 +1,27 @@
+package com.example.insurAI.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "revoked_access_tokens", indexes = {
+    @Index(name = "idx_revoked_access_tokens_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_revoked_access_tokens_revoked_at", columnList = "revoked_at")
+})
+public class RevokedAccessToken {
+    // JWT ID of the revoked access token
+    @Id
+    @Column(length = 36)
+    private String jti;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt = LocalDateTime.now();
+}
@@ -32,12 +32,8 @@ public class User {
     
     private boolean active = true;
     
-    private String verificationCode;
-    private LocalDateTime verificationCodeExpiry;
-    
-    private String resetToken;
-    
-    private LocalDateTime resetTokenExpiry;
+    // Bumped whenever previously issued tokens must stop working
+    private long tokenVersion = 0;
     
     private LocalDateTime createdAt = LocalDateTime.now();
 
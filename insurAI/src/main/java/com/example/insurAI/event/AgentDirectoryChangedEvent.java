@@ -0,0 +1,8 @@
+package com.example.insurAI.event;
+
+/**
+ * Published when an agent is added, removed, renamed or changes status.
+ * A null {@code agentId} means any number of agents may have changed.
+ */
+public record AgentDirectoryChangedEvent(Long agentId) {
+}
@@ -0,0 +1,19 @@
+package com.example.insurAI.event;
+
+/**
+ * Published after an agent's availability windows, weekly rules or time off
+ * are added, edited, booked or removed, or an appointment takes or frees one
+ * of the agent's slots. A null {@code agentId} means availability should be
+ * reloaded for every agent. {@code windowsChanged} is false when only the
+ * agent's appointments changed, so the open windows need no reload.
+ */
+public record AvailabilityChangedEvent(Long agentId, boolean windowsChanged) {
+
+    public AvailabilityChangedEvent(Long agentId) {
+        this(agentId, true);
+    }
+
+    public static AvailabilityChangedEvent bookingsChanged(Long agentId) {
+        return new AvailabilityChangedEvent(agentId, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.insurAI.event;
+
+/**
+ * Published when the set of customer-visible (active) policies may have changed.
+ */
+public record PolicyCatalogChangedEvent(Long policyId) {
+}
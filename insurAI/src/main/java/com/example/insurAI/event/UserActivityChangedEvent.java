@@ -0,0 +1,7 @@
+package com.example.insurAI.event;
+
+/**
+ * Published when a user's profile, applications or appointments change.
+ */
+public record UserActivityChangedEvent(Long userId) {
+}
@@ -0,0 +1,15 @@
+package com.example.insurAI.exception;
+
+/**
+ * Thrown when the language model upstream fails, times out or is short-circuited.
+ */
+public class LlmUnavailableException extends RuntimeException {
+
+    public LlmUnavailableException(String message) {
+        super(message);
+    }
+
+    public LlmUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
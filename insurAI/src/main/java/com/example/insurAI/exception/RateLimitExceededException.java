@@ -0,0 +1,17 @@
+package com.example.insurAI.exception;
+
+/**
+ * Thrown when a caller has exceeded its request budget.
+ */
+public class RateLimitExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.insurAI.exception;
+
+/**
+ * Thrown when a bounded resource is saturated and the caller should retry later.
+ */
+public class ServiceBusyException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
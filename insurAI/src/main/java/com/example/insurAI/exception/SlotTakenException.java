@@ -0,0 +1,11 @@
+package com.example.insurAI.exception;
+
+/**
+ * Thrown when the requested appointment slot is already booked with the agent.
+ */
+public class SlotTakenException extends RuntimeException {
+
+    public SlotTakenException() {
+        super("Agent is not available at this time - slot already booked");
+    }
+}
@@ -3,12 +3,13 @@ package com.example.insurAI.repository;
 import com.example.insurAI.entity.AgentAvailability;
 import com.example.insurAI.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,14 +17,31 @@ public interface AgentAvailabilityRepository extends JpaRepository<AgentAvailabi
     
     List<AgentAvailability> findByAgentAndIsAvailableTrue(User agent);
     
+    @Query("SELECT aa FROM AgentAvailability aa WHERE aa.agent.id = :agentId AND aa.isAvailable = true AND aa.availableDate >= :from ORDER BY aa.availableDate, aa.startTime")
+    List<AgentAvailability> findOpenByAgentFrom(@Param("agentId") Long agentId, @Param("from") LocalDateTime from);
+    
     @Query("SELECT aa FROM AgentAvailability aa WHERE aa.agent.id = :agentId AND aa.availableDate >= :startDate AND aa.availableDate <= :endDate AND aa.isAvailable = true")
     List<AgentAvailability> findAvailableSlotsByAgentAndDateRange(@Param("agentId") Long agentId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     @Query("SELECT aa FROM AgentAvailability aa WHERE aa.availableDate >= :startDate AND aa.availableDate <= :endDate AND aa.isAvailable = true")
     List<AgentAvailability> findAllAvailableSlotsByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT DISTINCT aa FROM AgentAvailability aa JOIN FETCH aa.agent WHERE DATE(aa.availableDate) = DATE(:searchDate) AND aa.startTime <= :searchTime AND aa.endTime > :searchTime AND aa.isAvailable = true")
-    List<AgentAvailability> findAvailableAgentsByDateTime(@Param("searchDate") LocalDateTime searchDate, @Param("searchTime") LocalTime searchTime);
+    // Rows of (id, agentId, availableDate, startTime, endTime) for loading the availability index
+    @Query("SELECT aa.id, aa.agent.id, aa.availableDate, aa.startTime, aa.endTime FROM AgentAvailability aa WHERE aa.isAvailable = true AND aa.availableDate >= :from")
+    List<Object[]> findOpenWindowsFrom(@Param("from") LocalDateTime from);
+    
+    @Query("SELECT aa.id, aa.agent.id, aa.availableDate, aa.startTime, aa.endTime FROM AgentAvailability aa WHERE aa.agent.id = :agentId AND aa.isAvailable = true AND aa.availableDate >= :from")
+    List<Object[]> findOpenWindowsByAgentFrom(@Param("agentId") Long agentId, @Param("from") LocalDateTime from);
+    
+    // Rows of (agentId, availableDate, startTime, endTime) for every window of the agents in [from, to), booked or open
+    @Query("SELECT aa.agent.id, aa.availableDate, aa.startTime, aa.endTime FROM AgentAvailability aa WHERE aa.agent.id IN :agentIds AND aa.availableDate >= :from AND aa.availableDate < :to")
+    List<Object[]> findWindowsByAgentsBetween(@Param("agentIds") Collection<Long> agentIds, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
     
     List<AgentAvailability> findByIsAvailableTrue();
+    
+    // Claims the window only if it is still open and belongs to the agent; 0 means it was not
+    @Modifying
+    @Query("UPDATE AgentAvailability aa SET aa.isAvailable = false, aa.updatedAt = :now, aa.version = aa.version + 1 "
+        + "WHERE aa.id = :id AND aa.agent.id = :agentId AND aa.isAvailable = true")
+    int markBookedIfAvailable(@Param("id") Long id, @Param("agentId") Long agentId, @Param("now") LocalDateTime now);
 }
\ No newline at end of file
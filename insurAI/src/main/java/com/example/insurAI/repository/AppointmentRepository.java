@@ -1,11 +1,13 @@
 package com.example.insurAI.repository;
 
 import com.example.insurAI.entity.Appointment;
+import com.example.insurAI.entity.AppointmentStatus;
 import com.example.insurAI.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
@@ -13,7 +15,19 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     List<Appointment> findByAgent(User agent);
     List<Appointment> findByCustomerId(Long customerId);
     List<Appointment> findByAgentId(Long agentId);
+    long countByCustomerId(Long customerId);
     
     @Query("SELECT a FROM Appointment a WHERE a.agent.id = :agentId AND a.appointmentDateTime = :dateTime")
     List<Appointment> findByAgentIdAndDateTime(@Param("agentId") Long agentId, @Param("dateTime") LocalDateTime dateTime);
-}
\ No newline at end of file
+    
+    boolean existsByAgentIdAndReservedSlot(Long agentId, LocalDateTime reservedSlot);
+    
+    // Rows of (agentId, reservedSlot) for every live appointment of the agents in [from, to)
+    @Query("SELECT a.agent.id, a.reservedSlot FROM Appointment a WHERE a.agent.id IN :agentIds AND a.reservedSlot >= :from AND a.reservedSlot < :to")
+    List<Object[]> findReservedSlots(@Param("agentIds") Collection<Long> agentIds, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    List<Appointment> findByStatusAndAppointmentDateTimeBetween(AppointmentStatus status, LocalDateTime from, LocalDateTime to);
+    
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.appointmentDateTime >= :from AND a.appointmentDateTime < :to")
+    long countScheduledBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
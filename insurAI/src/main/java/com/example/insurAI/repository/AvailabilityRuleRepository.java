@@ -0,0 +1,23 @@
+package com.example.insurAI.repository;
+
+import com.example.insurAI.entity.AvailabilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+    
+    List<AvailabilityRule> findByAgentIdOrderByValidFromAsc(Long agentId);
+    
+    // Rows of (id, agentId, daysOfWeek, startTime, endTime, validFrom, validUntil) for rules still in effect
+    @Query("SELECT r.id, r.agent.id, r.daysOfWeek, r.startTime, r.endTime, r.validFrom, r.validUntil FROM AvailabilityRule r WHERE r.validUntil IS NULL OR r.validUntil >= :from")
+    List<Object[]> findActiveRulesFrom(@Param("from") LocalDate from);
+    
+    @Query("SELECT r.id, r.agent.id, r.daysOfWeek, r.startTime, r.endTime, r.validFrom, r.validUntil FROM AvailabilityRule r WHERE r.agent.id = :agentId AND (r.validUntil IS NULL OR r.validUntil >= :from)")
+    List<Object[]> findActiveRulesByAgentFrom(@Param("agentId") Long agentId, @Param("from") LocalDate from);
+}
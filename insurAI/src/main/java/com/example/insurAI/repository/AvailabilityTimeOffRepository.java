@@ -0,0 +1,23 @@
+package com.example.insurAI.repository;
+
+import com.example.insurAI.entity.AvailabilityTimeOff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AvailabilityTimeOffRepository extends JpaRepository<AvailabilityTimeOff, Long> {
+    
+    List<AvailabilityTimeOff> findByAgentIdAndDateGreaterThanEqualOrderByDateAsc(Long agentId, LocalDate from);
+    
+    // Rows of (agentId, date, startTime, endTime) for time off still ahead
+    @Query("SELECT t.agent.id, t.date, t.startTime, t.endTime FROM AvailabilityTimeOff t WHERE t.date >= :from")
+    List<Object[]> findTimeOffFrom(@Param("from") LocalDate from);
+    
+    @Query("SELECT t.agent.id, t.date, t.startTime, t.endTime FROM AvailabilityTimeOff t WHERE t.agent.id = :agentId AND t.date >= :from")
+    List<Object[]> findTimeOffByAgentFrom(@Param("agentId") Long agentId, @Param("from") LocalDate from);
+}
@@ -0,0 +1,33 @@
+package com.example.insurAI.repository;
+
+import com.example.insurAI.entity.EmailOutbox;
+import com.example.insurAI.entity.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    
+    // SKIP LOCKED so several dispatchers never claim the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<EmailOutbox> findDue(@Param("status") EmailStatus status, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    long countByStatus(EmailStatus status);
+    
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE status IN ('SENT', 'DEAD') AND created_at < :cutoff LIMIT :batchSize", nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,29 @@
+package com.example.insurAI.repository;
+
+import com.example.insurAI.entity.OneTimeCode;
+import com.example.insurAI.entity.OneTimeCodePurpose;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OneTimeCodeRepository extends JpaRepository<OneTimeCode, Long> {
+    Optional<OneTimeCode> findByCodeHash(String codeHash);
+    List<OneTimeCode> findByExpiresAtAfter(LocalDateTime now);
+    List<OneTimeCode> findByUserIdAndPurpose(Long userId, OneTimeCodePurpose purpose);
+    
+    @Modifying
+    @Query("DELETE FROM OneTimeCode c WHERE c.codeHash = :codeHash AND c.purpose = :purpose AND c.expiresAt > :now")
+    int deleteLiveCode(@Param("codeHash") String codeHash, @Param("purpose") OneTimeCodePurpose purpose,
+                       @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query(value = "DELETE FROM one_time_codes WHERE expires_at < :now LIMIT :batchSize", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+}
@@ -13,4 +13,5 @@ public interface PolicyApplicationRepository extends JpaRepository<PolicyApplica
     List<PolicyApplication> findByPolicyAgentId(Long agentId);
     List<PolicyApplication> findByUserIdAndStatus(Long userId, ApplicationStatus status);
     long countByStatus(ApplicationStatus status);
+    long countByUserId(Long userId);
 }
\ No newline at end of file
@@ -1,16 +1,43 @@
 package com.example.insurAI.repository;
 
+import com.example.insurAI.dto.AgentSummary;
 import com.example.insurAI.entity.Role;
 import com.example.insurAI.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-    Optional<User> findByVerificationCode(String verificationCode);
-    Optional<User> findByResetToken(String token);
     List<User> findByRole(Role role);
     long countByRole(Role role);
     long countByRoleAndActiveTrue(Role role);
-}
\ No newline at end of file
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT u.id FROM User u WHERE u.active = false")
+    List<Long> findInactiveUserIds();
+    
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.tokenVersion > 0")
+    List<Object[]> findUserTokenVersions();
+    
+    // Keyset page of agents ordered by id, with their open availability slots from :from onwards
+    @Query("SELECT new com.example.insurAI.dto.AgentSummary(u.id, u.fullName, u.email, u.active, COUNT(aa)) "
+        + "FROM User u LEFT JOIN AgentAvailability aa ON aa.agent = u AND aa.isAvailable = true AND aa.availableDate >= :from "
+        + "WHERE u.role = com.example.insurAI.entity.Role.AGENT AND u.id > :afterId "
+        + "GROUP BY u.id, u.fullName, u.email, u.active ORDER BY u.id")
+    List<AgentSummary> findAgentSummariesAfter(@Param("afterId") Long afterId, @Param("from") LocalDateTime from, Pageable limit);
+    
+    // Active agents with the most open slots first
+    @Query("SELECT new com.example.insurAI.dto.AgentSummary(u.id, u.fullName, u.email, u.active, COUNT(aa)) "
+        + "FROM User u LEFT JOIN AgentAvailability aa ON aa.agent = u AND aa.isAvailable = true AND aa.availableDate >= :from "
+        + "WHERE u.role = com.example.insurAI.entity.Role.AGENT "
+        + "GROUP BY u.id, u.fullName, u.email, u.active ORDER BY u.active DESC, COUNT(aa) DESC, u.id")
+    List<AgentSummary> findTopAgentSummaries(@Param("from") LocalDateTime from, Pageable limit);
+}
@@ -0,0 +1,119 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.RevokedAccessToken;
+import com.example.insurAI.repository.RevokedAccessTokenRepository;
+import com.example.insurAI.util.TimeBucketedBloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tracks revoked access-token IDs. The revoked_access_tokens table is the
+ * source of truth; a time-bucketed Bloom filter in front of it answers the
+ * common "not revoked" case in constant time without touching the database.
+ * The filter is refreshed from the table on a fixed delay, so a token revoked
+ * on another instance is rejected here within one refresh interval.
+ */
+@Service
+public class AccessTokenRevocationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenRevocationService.class);
+    
+    private static final long BUCKET_WIDTH_MILLIS = 15 * 60 * 1000L;
+    
+    // Re-read a little before the last refresh so rows committed late, or stamped by a skewed clock, are not missed
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    
+    private final TimeBucketedBloomFilter revokedIds = new TimeBucketedBloomFilter(BUCKET_WIDTH_MILLIS, 10_000, 0.001);
+    
+    @Autowired
+    private RevokedAccessTokenRepository revokedAccessTokenRepository;
+    
+    // Start of the last refresh; null until the first full load
+    private LocalDateTime lastRefresh;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevokedTokens() {
+        refreshRevokedTokens();
+    }
+    
+    /**
+     * Adds tokens revoked since the last refresh, by any instance. The first
+     * call loads every unexpired revocation.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:10000}")
+    public synchronized void refreshRevokedTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedAccessToken> revoked = lastRefresh == null
+            ? revokedAccessTokenRepository.findByExpiresAtAfter(now)
+            : revokedAccessTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastRefresh.minus(REFRESH_OVERLAP), now);
+        for (RevokedAccessToken token : revoked) {
+            revokedIds.put(token.getJti(), toMillis(token.getExpiresAt()));
+        }
+        if (lastRefresh == null) {
+            log.info("Loaded {} revoked access tokens", revoked.size());
+        }
+        lastRefresh = now;
+    }
+    
+    @Transactional
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        RevokedAccessToken revoked = new RevokedAccessToken();
+        revoked.setJti(jti);
+        revoked.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        revokedAccessTokenRepository.save(revoked);
+        afterCommit(() -> revokedIds.put(jti, expiresAt.getTime()));
+    }
+    
+    public boolean isRevoked(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null) {
+            return false;
+        }
+        if (!revokedIds.mightContain(jti, expiresAt.getTime())) {
+            return false;
+        }
+        // Possible false positive - confirm against the table
+        return revokedAccessTokenRepository.existsById(jti);
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.revocation.sweep-interval-ms:900000}")
+    @Transactional
+    public void sweepExpired() {
+        revokedIds.expireBefore(System.currentTimeMillis());
+        revokedAccessTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+    
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    // Outside a transaction there is nothing to wait for
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -1,8 +1,13 @@
 package com.example.insurAI.service;
 
 import com.example.insurAI.entity.*;
+import com.example.insurAI.event.AgentDirectoryChangedEvent;
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.event.UserActivityChangedEvent;
 import com.example.insurAI.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -29,6 +34,21 @@ public class AdminService {
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private UserRevocationService revocationService;
+    
+    @Autowired
+    private ConversationMemory conversationMemory;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private ArchivalService archivalService;
+    
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
         
@@ -51,13 +71,10 @@ public class AdminService {
         LocalDateTime startOfDay = today.atStartOfDay();
         LocalDateTime endOfDay = today.plusDays(1).atStartOfDay();
         
-        long todayAppointments = appointmentRepository.findAll().stream()
-            .filter(apt -> apt.getAppointmentDateTime().isAfter(startOfDay) && 
-                          apt.getAppointmentDateTime().isBefore(endOfDay))
-            .count();
+        long todayAppointments = appointmentRepository.countScheduledBetween(startOfDay, endOfDay);
         
         stats.put("appointmentsToday", todayAppointments);
-        stats.put("totalAppointments", appointmentRepository.count());
+        stats.put("totalAppointments", appointmentRepository.count() + archivalService.getArchivedAppointmentCount());
         
         return stats;
     }
@@ -71,11 +88,33 @@ public class AdminService {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         user.setActive(active);
+        if (!active) {
+            // Invalidate every token issued so far, even after reactivation
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
         userRepository.save(user);
+        
+        if (active) {
+            revocationService.reactivate(userId);
+        } else {
+            revocationService.suspend(userId, user.getTokenVersion());
+            refreshTokenService.revokeAllForUser(userId);
+        }
+        if (user.getRole() == Role.AGENT) {
+            eventPublisher.publishEvent(new AgentDirectoryChangedEvent(userId));
+        }
     }
     
     public void deleteUser(Long userId) {
+        boolean agent = userRepository.findById(userId).map(user -> user.getRole() == Role.AGENT).orElse(false);
         userRepository.deleteById(userId);
+        revocationService.forget(userId);
+        refreshTokenService.revokeAllForUser(userId);
+        conversationMemory.forget(userId);
+        eventPublisher.publishEvent(new UserActivityChangedEvent(userId));
+        if (agent) {
+            eventPublisher.publishEvent(new AgentDirectoryChangedEvent(userId));
+        }
     }
     
     // Agent Management
@@ -88,6 +127,8 @@ public class AdminService {
             .orElseThrow(() -> new RuntimeException("Agent not found"));
         agent.setActive(true);
         userRepository.save(agent);
+        revocationService.reactivate(agentId);
+        eventPublisher.publishEvent(new AgentDirectoryChangedEvent(agentId));
     }
     
     // Policy Management
@@ -100,6 +141,7 @@ public class AdminService {
             .orElseThrow(() -> new RuntimeException("Policy not found"));
         policy.setStatus(PolicyStatus.valueOf(status.toUpperCase()));
         policyRepository.save(policy);
+        eventPublisher.publishEvent(new PolicyCatalogChangedEvent(policyId));
     }
     
     public List<Policy> getPendingPolicies() {
@@ -116,6 +158,7 @@ public class AdminService {
         
         policy.setStatus(PolicyStatus.ACTIVE);
         policyRepository.save(policy);
+        eventPublisher.publishEvent(new PolicyCatalogChangedEvent(policyId));
     }
     
     public void rejectPolicy(Long policyId, Long adminId, String reason) {
@@ -128,6 +171,7 @@ public class AdminService {
         
         policy.setStatus(PolicyStatus.INACTIVE);
         policyRepository.save(policy);
+        eventPublisher.publishEvent(new PolicyCatalogChangedEvent(policyId));
     }
     
     // Application Management
@@ -157,6 +201,7 @@ public class AdminService {
         appointment.setStatus(AppointmentStatus.REJECTED);
         appointment.setUpdatedAt(LocalDateTime.now());
         appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.bookingsChanged(appointment.getAgent().getId()));
     }
     
     // Notification Management
@@ -0,0 +1,178 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.AppointmentRequest;
+import com.example.insurAI.dto.EarliestAppointmentRequest;
+import com.example.insurAI.entity.Appointment;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.entity.User;
+import com.example.insurAI.event.AgentDirectoryChangedEvent;
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.exception.SlotTakenException;
+import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.AssignmentQueue;
+import com.example.insurAI.util.AvailabilityIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Books the customer with whichever agent is free first. Each day gets an
+ * assignment queue of its bookable agents, built on first use; a claim takes
+ * the head of the queue and is then booked through the normal booking path,
+ * so the per-agent lock and the reserved-slot key still decide the race.
+ * Agents whose availability, bookings or status change are refreshed in the
+ * built queues before the next assignment.
+ */
+@Service
+public class AgentAssignmentService {
+    
+    @Autowired
+    private AvailabilityIndexService availabilityIndexService;
+    
+    @Autowired
+    private AppointmentSlotService appointmentSlotService;
+    
+    @Autowired
+    private AppointmentService appointmentService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${appointments.assignment.search-days:14}")
+    private int searchDays;
+    
+    @Value("${appointments.assignment.max-attempts:20}")
+    private int maxAttempts;
+    
+    private final Map<LocalDate, AssignmentQueue> queues = new ConcurrentHashMap<>();
+    
+    private final Set<Long> staleAgents = ConcurrentHashMap.newKeySet();
+    
+    // Bumped whenever all queues are dropped, so a queue built across that is not kept
+    private final AtomicLong queueGeneration = new AtomicLong();
+    
+    public Appointment bookEarliest(Long customerId, EarliestAppointmentRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate first = request.getFromDate() != null && request.getFromDate().isAfter(today) ? request.getFromDate() : today;
+        queues.keySet().removeIf(day -> day.isBefore(today));
+        refreshStaleAgents();
+        
+        int attempts = 0;
+        for (LocalDate day = first; day.isBefore(first.plusDays(searchDays)); day = day.plusDays(1)) {
+            AssignmentQueue queue = queueFor(day);
+            int notBefore = day.equals(today) ? now.getHour() * 60 + now.getMinute() + 1 : 0;
+            Optional<AssignmentQueue.Claim> claim;
+            while ((claim = queue.claim(notBefore)).isPresent()) {
+                if (++attempts > maxAttempts) {
+                    throw new RuntimeException("No agent could be booked right now - please try again");
+                }
+                AppointmentRequest booking = new AppointmentRequest();
+                booking.setAgentId(claim.get().agentId());
+                booking.setAppointmentDateTime(day.atStartOfDay().plusMinutes(claim.get().minute()));
+                booking.setReason(request.getReason());
+                booking.setNotes(request.getNotes());
+                try {
+                    return appointmentService.bookAppointment(customerId, booking);
+                } catch (SlotTakenException e) {
+                    // Booked elsewhere since the queue was built; the claim already moved past it
+                } catch (RuntimeException e) {
+                    queue.release(claim.get());
+                    throw e;
+                }
+            }
+        }
+        throw new RuntimeException("No agent has a free slot in the next " + searchDays + " days");
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        markStale(event.agentId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentDirectoryChanged(AgentDirectoryChangedEvent event) {
+        markStale(event.agentId());
+    }
+    
+    // Refreshed lazily, so the index and slot cache have caught up with the change by then
+    private void markStale(Long agentId) {
+        if (agentId == null) {
+            queueGeneration.incrementAndGet();
+            queues.clear();
+        } else {
+            staleAgents.add(agentId);
+        }
+    }
+    
+    private void refreshStaleAgents() {
+        if (staleAgents.isEmpty() || queues.isEmpty()) {
+            staleAgents.clear();
+            return;
+        }
+        List<Long> agentIds = new ArrayList<>(staleAgents);
+        staleAgents.removeAll(agentIds);
+        Set<Long> bookable = bookableAgents(agentIds);
+        queues.forEach((day, queue) -> fill(queue, day, agentIds, bookable));
+    }
+    
+    // Built outside the map, since loading it queries the database and computeIfAbsent would hold the bin lock
+    private AssignmentQueue queueFor(LocalDate day) {
+        AssignmentQueue queue = queues.get(day);
+        if (queue != null) {
+            return queue;
+        }
+        long generation = queueGeneration.get();
+        AssignmentQueue built = buildQueue(day);
+        if (queueGeneration.get() != generation) {
+            return built;
+        }
+        queue = queues.putIfAbsent(day, built);
+        return queue != null ? queue : built;
+    }
+    
+    private AssignmentQueue buildQueue(LocalDate day) {
+        Set<Long> agentIds = new HashSet<>();
+        for (AvailabilityIndex.Opening opening : availabilityIndexService.openingsBetween(day, day)) {
+            agentIds.add(opening.agentId());
+        }
+        AssignmentQueue queue = new AssignmentQueue();
+        fill(queue, day, agentIds, bookableAgents(agentIds));
+        return queue;
+    }
+    
+    private void fill(AssignmentQueue queue, LocalDate day, Iterable<Long> agentIds, Set<Long> bookable) {
+        Map<Long, AppointmentSlotService.DaySlots> slots = appointmentSlotService.slotsOn(bookable, day);
+        for (Long agentId : agentIds) {
+            AppointmentSlotService.DaySlots daySlots = slots.get(agentId);
+            if (daySlots == null || daySlots.starts().length == 0) {
+                queue.remove(agentId);
+            } else {
+                queue.put(agentId, daySlots.starts(), daySlots.bookings());
+            }
+        }
+    }
+    
+    // Suspended or deleted agents are never assigned
+    private Set<Long> bookableAgents(Iterable<Long> agentIds) {
+        Set<Long> bookable = new HashSet<>();
+        for (User agent : userRepository.findAllById(agentIds)) {
+            if (agent.getRole() == Role.AGENT && agent.isActive()) {
+                bookable.add(agent.getId());
+            }
+        }
+        return bookable;
+    }
+}
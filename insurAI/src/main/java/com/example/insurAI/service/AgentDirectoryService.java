@@ -0,0 +1,78 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.AgentSummary;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.event.AgentDirectoryChangedEvent;
+import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read side of the agent list. Serves lightweight agent projections by keyset
+ * page or as a top-N ranking, each result cached briefly and dropped as soon
+ * as an agent changes. Open-slot counts move with every booking, so they are
+ * left to age out with the TTL rather than clearing the cache on each one.
+ */
+@Service
+public class AgentDirectoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${agents.directory.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${agents.directory.max-cached-queries:1000}")
+    private int maxCachedQueries;
+
+    private BoundedTtlCache<String, Object> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedTtlCache<>(maxCachedQueries);
+    }
+
+    /**
+     * Agents ordered by id, starting after {@code afterId} (null for the first page).
+     */
+    public List<AgentSummary> page(Long afterId, int size) {
+        long after = afterId != null ? afterId : 0L;
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return cached("page:" + after + ':' + limit,
+            () -> userRepository.findAgentSummariesAfter(after, LocalDateTime.now(), PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Active agents with the most upcoming open slots first.
+     */
+    public List<AgentSummary> top(int n) {
+        int limit = Math.max(1, Math.min(n, MAX_PAGE_SIZE));
+        return cached("top:" + limit,
+            () -> userRepository.findTopAgentSummaries(LocalDateTime.now(), PageRequest.of(0, limit)));
+    }
+
+    public long countAgents() {
+        return cached("count", () -> userRepository.countByRole(Role.AGENT));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentDirectoryChanged(AgentDirectoryChangedEvent event) {
+        cache.invalidateAll();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> loader) {
+        return (T) cache.getOrLoad(key, loader::get, ttlSeconds * 1000);
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.insurAI.service;
 
 import com.example.insurAI.dto.AppointmentRequest;
+import com.example.insurAI.dto.AuthenticatedUser;
 import com.example.insurAI.entity.Appointment;
 import com.example.insurAI.entity.AppointmentStatus;
+import com.example.insurAI.entity.Role;
 import com.example.insurAI.entity.User;
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.event.UserActivityChangedEvent;
+import com.example.insurAI.exception.SlotTakenException;
 import com.example.insurAI.repository.AppointmentRepository;
 import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.KeyedLocks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
@@ -25,22 +36,59 @@ public class AppointmentService {
     @Autowired
     private AvailabilityService availabilityService;
     
+    @Autowired
+    private AppointmentSlotService appointmentSlotService;
+    
     @Autowired
     private NotificationService notificationService;
     
-    @Transactional
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final KeyedLocks<Long> agentBookingLocks = new KeyedLocks<>();
+    
+    /**
+     * Books the slot for the customer. Bookings for one agent run one at a time and
+     * hold the agent's lock until their transaction commits, so the next one sees
+     * the slot as taken; bookings for different agents run in parallel. The unique
+     * reserved-slot key still rejects a double booking made from another instance.
+     */
     public Appointment bookAppointment(Long customerId, AppointmentRequest request) {
-        User customer = userRepository.findById(customerId)
-            .orElseThrow(() -> new RuntimeException("Customer not found"));
+        if (request.getAgentId() == null) {
+            throw new RuntimeException("Agent not found");
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            return agentBookingLocks.withLock(request.getAgentId(),
+                () -> transactionTemplate.execute(status -> reserve(customerId, request)));
+        } catch (DataIntegrityViolationException e) {
+            throw new SlotTakenException();
+        }
+    }
+    
+    private Appointment reserve(Long customerId, AppointmentRequest request) {
+        User customer = userRepository.getReferenceById(customerId);
         User agent = userRepository.findById(request.getAgentId())
             .orElseThrow(() -> new RuntimeException("Agent not found"));
         
         // Check if agent already has appointment at this time
-        List<Appointment> existingAppointments = appointmentRepository
-            .findByAgentIdAndDateTime(request.getAgentId(), request.getAppointmentDateTime());
+        if (appointmentRepository.existsByAgentIdAndReservedSlot(request.getAgentId(), request.getAppointmentDateTime())) {
+            throw new SlotTakenException();
+        }
+        
+        // Only free starts on the agent's slot grid are bookable, so bookings at different times never overlap
+        if (!isOpenSlotStart(request.getAgentId(), request.getAppointmentDateTime())) {
+            throw new RuntimeException("Requested time is not one of the agent's open slots");
+        }
         
-        if (!existingAppointments.isEmpty()) {
-            throw new RuntimeException("Agent is not available at this time - slot already booked");
+        // Claim the availability window first so a stale or foreign window fails fast
+        if (request.getAvailabilityId() != null) {
+            availabilityService.markSlotAsBooked(request.getAvailabilityId(), request.getAgentId());
+        } else {
+            eventPublisher.publishEvent(AvailabilityChangedEvent.bookingsChanged(request.getAgentId()));
         }
         
         Appointment appointment = new Appointment();
@@ -53,17 +101,23 @@ public class AppointmentService {
         
         Appointment savedAppointment = appointmentRepository.save(appointment);
         
-        // Mark the availability slot as booked if availabilityId is provided
-        if (request.getAvailabilityId() != null) {
-            availabilityService.markSlotAsBooked(request.getAvailabilityId());
-        }
-        
         // Send booking confirmation notification
         notificationService.sendAppointmentBookedNotification(savedAppointment);
+        eventPublisher.publishEvent(new UserActivityChangedEvent(customerId));
         
         return savedAppointment;
     }
     
+    private boolean isOpenSlotStart(Long agentId, LocalDateTime start) {
+        if (start == null || start.toLocalTime().toNanoOfDay() % 60_000_000_000L != 0) {
+            return false;
+        }
+        AppointmentSlotService.DaySlots daySlots =
+            appointmentSlotService.slotsOn(List.of(agentId), start.toLocalDate()).get(agentId);
+        return daySlots != null
+            && Arrays.binarySearch(daySlots.starts(), start.getHour() * 60 + start.getMinute()) >= 0;
+    }
+    
     public List<Appointment> getCustomerAppointments(Long customerId) {
         return appointmentRepository.findByCustomerId(customerId);
     }
@@ -79,17 +133,26 @@ public class AppointmentService {
         appointment.setStatus(status);
         appointment.setUpdatedAt(LocalDateTime.now());
         
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.bookingsChanged(appointment.getAgent().getId()));
+        return saved;
     }
     
     public List<Appointment> getAppointmentsByAgent(Long agentId) {
         return appointmentRepository.findByAgentId(agentId);
     }
     
-    public void updateAppointmentStatus(Long appointmentId, String status) {
+    /**
+     * Confirms or rejects an appointment on behalf of its agent or an admin.
+     */
+    public void updateAppointmentStatus(Long appointmentId, String status, AuthenticatedUser actor) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
             .orElseThrow(() -> new RuntimeException("Appointment not found"));
         
+        if (actor.role() != Role.ADMIN && !appointment.getAgent().getId().equals(actor.id())) {
+            throw new AccessDeniedException("Only the appointment's agent or an admin can change its status");
+        }
+        
         String oldStatus = appointment.getStatus().toString();
         
         AppointmentStatus appointmentStatus;
@@ -107,6 +170,7 @@ public class AppointmentService {
         appointment.setStatus(appointmentStatus);
         appointment.setUpdatedAt(LocalDateTime.now());
         appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.bookingsChanged(appointment.getAgent().getId()));
         
         // Send status update notification
         notificationService.sendAppointmentStatusUpdateNotification(appointment, oldStatus, status.toUpperCase());
@@ -124,11 +188,7 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.PENDING);
         
         appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AvailabilityChangedEvent.bookingsChanged(agent.getId()));
     }
-    
-    public List<String> getAvailableSlots(Long agentId) {
-        return List.of(
-            "09:00 AM", "10:00 AM", "11:00 AM", "02:00 PM", "03:00 PM", "04:00 PM"
-        );
-    }
+
 }
\ No newline at end of file
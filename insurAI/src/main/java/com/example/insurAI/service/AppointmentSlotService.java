@@ -0,0 +1,182 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.BookableSlot;
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.repository.AppointmentRepository;
+import com.example.insurAI.util.SlotCalculator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bookable slots per agent and day: the agent's open windows minus live
+ * appointments, cut into slots of a given length with a buffer around every
+ * booking. Results in the configured slot shape are cached per agent-day and
+ * dropped whenever that agent's availability or appointments change; other
+ * shapes are computed on every call so callers cannot grow the cache.
+ */
+@Service
+public class AppointmentSlotService {
+
+    public static final int MAX_AGENTS = 50;
+    public static final int MAX_DAYS = 31;
+
+    @Autowired
+    private AvailabilityIndexService availabilityIndexService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${appointments.slots.length-minutes:60}")
+    private int defaultSlotMinutes;
+
+    @Value("${appointments.slots.buffer-minutes:0}")
+    private int defaultBufferMinutes;
+
+    @Value("${appointments.slots.max-cached-agents:5000}")
+    private int maxCachedAgents;
+
+    // Free slot start minutes on one day, ascending, and the live appointments that day
+    public record DaySlots(int[] starts, int bookings) {
+    }
+
+    // Per agent, then per day, in the default slot shape only
+    private final Map<Long, Map<LocalDate, DaySlots>> cache = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public List<BookableSlot> findSlots(Collection<Long> agentIds, LocalDate from, LocalDate to,
+                                       Integer slotMinutes, Integer bufferMinutes) {
+        List<Long> agents = new ArrayList<>(new LinkedHashSet<>(agentIds));
+        if (agents.isEmpty() || agents.size() > MAX_AGENTS) {
+            throw new RuntimeException("Ask for between 1 and " + MAX_AGENTS + " agents");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate first = from.isBefore(today) ? today : from;
+        if (to.isBefore(first)) {
+            return List.of();
+        }
+        if (ChronoUnit.DAYS.between(first, to) >= MAX_DAYS) {
+            throw new RuntimeException("Date range cannot exceed " + MAX_DAYS + " days");
+        }
+        int slot = slotMinutes != null ? slotMinutes : defaultSlotMinutes;
+        int buffer = bufferMinutes != null ? bufferMinutes : defaultBufferMinutes;
+        if (slot < 5 || slot > 480 || buffer < 0 || buffer > 240) {
+            throw new RuntimeException("Slot length must be 5-480 minutes and buffer 0-240 minutes");
+        }
+
+        Map<Long, Map<LocalDate, DaySlots>> starts = loadStarts(agents, first, to, slot, buffer);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookableSlot> slots = new ArrayList<>();
+        for (Long agentId : agents) {
+            for (LocalDate day = first; !day.isAfter(to); day = day.plusDays(1)) {
+                for (int minute : starts.get(agentId).get(day).starts()) {
+                    LocalDateTime start = day.atStartOfDay().plusMinutes(minute);
+                    if (start.isAfter(now)) {
+                        slots.add(new BookableSlot(agentId, start, start.plusMinutes(slot)));
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Default-length slots on one day for any number of agents, for assigning
+     * agents server-side. Starts already past are included.
+     */
+    public Map<Long, DaySlots> slotsOn(Collection<Long> agentIds, LocalDate day) {
+        Map<Long, DaySlots> slots = new HashMap<>();
+        loadStarts(new ArrayList<>(new LinkedHashSet<>(agentIds)), day, day, defaultSlotMinutes, defaultBufferMinutes)
+            .forEach((agentId, days) -> slots.put(agentId, days.get(day)));
+        return slots;
+    }
+
+    public int getDefaultSlotMinutes() {
+        return defaultSlotMinutes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.agentId() == null) {
+            cache.clear();
+        } else {
+            cache.remove(event.agentId());
+        }
+    }
+
+    private Map<Long, Map<LocalDate, DaySlots>> loadStarts(List<Long> agents, LocalDate first, LocalDate last,
+                                                       int slot, int buffer) {
+        long loadedGeneration = generation.get();
+        boolean cacheable = slot == defaultSlotMinutes && buffer == defaultBufferMinutes;
+        Map<Long, Map<LocalDate, DaySlots>> starts = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long agentId : agents) {
+            Map<LocalDate, DaySlots> cachedDays = cacheable ? cache.getOrDefault(agentId, Map.of()) : Map.of();
+            Map<LocalDate, DaySlots> days = new HashMap<>();
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                DaySlots cached = cachedDays.get(day);
+                if (cached != null) {
+                    days.put(day, cached);
+                }
+            }
+            starts.put(agentId, days);
+            if (days.size() <= ChronoUnit.DAYS.between(first, last)) {
+                missing.add(agentId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return starts;
+        }
+
+        // One query for the bookings of every agent with an uncached day
+        Map<Long, Map<LocalDate, List<Integer>>> booked = new HashMap<>();
+        for (Object[] row : appointmentRepository.findReservedSlots(missing, first.atStartOfDay(), last.plusDays(1).atStartOfDay())) {
+            LocalDateTime reserved = (LocalDateTime) row[1];
+            booked.computeIfAbsent((Long) row[0], id -> new HashMap<>())
+                .computeIfAbsent(reserved.toLocalDate(), d -> new ArrayList<>())
+                .add(reserved.getHour() * 60 + reserved.getMinute());
+        }
+
+        if (cacheable && cache.size() >= maxCachedAgents) {
+            cache.clear();
+        }
+        for (Long agentId : missing) {
+            Map<LocalDate, DaySlots> days = starts.get(agentId);
+            Map<LocalDate, List<Integer>> agentBookings = booked.getOrDefault(agentId, Map.of());
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                if (days.containsKey(day)) {
+                    continue;
+                }
+                int[] bookedStarts = agentBookings.getOrDefault(day, List.of()).stream().mapToInt(Integer::intValue).toArray();
+                DaySlots dayStarts = new DaySlots(SlotCalculator.bookableStarts(availabilityIndexService.windowBounds(agentId, day),
+                    bookedStarts, slot, buffer), bookedStarts.length);
+                days.put(day, dayStarts);
+                if (cacheable) {
+                    cache.computeIfAbsent(agentId, id -> new ConcurrentHashMap<>()).put(day, dayStarts);
+                }
+            }
+            // A change that landed while we were loading may not be reflected; drop what we just cached
+            if (cacheable && generation.get() != loadedGeneration) {
+                cache.remove(agentId);
+            }
+        }
+        return starts;
+    }
+}
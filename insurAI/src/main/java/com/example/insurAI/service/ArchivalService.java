@@ -0,0 +1,177 @@
+package com.example.insurAI.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Moves history out of the hot tables each night: availability windows from
+ * past days, and completed or rejected appointments once their retention
+ * period is over. Rows are copied into the year-partitioned archive tables
+ * and deleted from the hot table in batches, one transaction per batch, so
+ * the hot tables only ever hold the current and future window.
+ */
+@Service
+public class ArchivalService {
+    
+    private static final Logger log = LoggerFactory.getLogger(ArchivalService.class);
+    
+    private static final String[] ARCHIVE_TABLES = {"agent_availability_archive", "appointments_archive"};
+    
+    private static final String ARCHIVE_AVAILABILITY_SQL =
+        "INSERT INTO agent_availability_archive (id, agent_id, available_date, start_time, end_time, is_available, created_at, updated_at, archived_at) "
+            + "SELECT id, agent_id, available_date, start_time, end_time, is_available, created_at, updated_at, ? FROM agent_availability WHERE id IN ";
+    
+    private static final String ARCHIVE_APPOINTMENTS_SQL =
+        "INSERT INTO appointments_archive (id, customer_id, agent_id, appointment_date_time, status, reason, notes, created_at, updated_at, archived_at) "
+            + "SELECT id, customer_id, agent_id, appointment_date_time, status, reason, notes, created_at, updated_at, ? FROM appointments WHERE id IN ";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${archive.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${archive.appointments.retention-days:30}")
+    private int appointmentRetentionDays;
+    
+    private final AtomicLong archivedAppointments = new AtomicLong();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadArchivedCount() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM appointments_archive", Long.class);
+        archivedAppointments.set(count != null ? count : 0);
+    }
+    
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public synchronized Map<String, Integer> archiveExpired() {
+        LocalDate today = LocalDate.now();
+        for (String table : ARCHIVE_TABLES) {
+            ensurePartitions(table, today.getYear() + 1);
+        }
+        int availability = archiveAvailabilityBefore(today.atStartOfDay());
+        int appointments = archiveAppointmentsBefore(today.minusDays(appointmentRetentionDays).atStartOfDay());
+        log.info("Archived {} availability windows and {} appointments", availability, appointments);
+        return Map.of("availabilityWindows", availability, "appointments", appointments);
+    }
+    
+    /**
+     * Appointments already moved to the archive, kept so the dashboard total never scans it.
+     */
+    public long getArchivedAppointmentCount() {
+        return archivedAppointments.get();
+    }
+    
+    public int archiveAvailabilityBefore(LocalDateTime before) {
+        return moveInBatches(() -> {
+            List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM agent_availability WHERE available_date < ? LIMIT ?", Long.class, before, batchSize);
+            if (!ids.isEmpty()) {
+                String in = inList(ids.size());
+                jdbcTemplate.update(ARCHIVE_AVAILABILITY_SQL + in, withArchivedAt(ids));
+                jdbcTemplate.update("DELETE FROM agent_availability WHERE id IN " + in, ids.toArray());
+            }
+            return ids.size();
+        }, moved -> { });
+    }
+    
+    public int archiveAppointmentsBefore(LocalDateTime before) {
+        return moveInBatches(() -> {
+            List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM appointments WHERE status IN ('COMPLETED', 'REJECTED') AND appointment_date_time < ? LIMIT ?",
+                Long.class, before, batchSize);
+            if (!ids.isEmpty()) {
+                String in = inList(ids.size());
+                jdbcTemplate.update(ARCHIVE_APPOINTMENTS_SQL + in, withArchivedAt(ids));
+                // Notifications outlive the appointment; they keep their text and lose the link
+                jdbcTemplate.update("UPDATE notifications SET appointment_id = NULL WHERE appointment_id IN " + in, ids.toArray());
+                jdbcTemplate.update("DELETE FROM appointments WHERE id IN " + in, ids.toArray());
+            }
+            return ids.size();
+        }, archivedAppointments::addAndGet);
+    }
+    
+    private interface Batch {
+        int move();
+    }
+    
+    // Reports each batch as soon as it commits, so a later failed batch cannot lose the count of earlier ones
+    private int moveInBatches(Batch batch, IntConsumer committed) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> batch.move());
+            committed.accept(moved);
+            total += moved;
+            if (moved < batchSize) {
+                return total;
+            }
+        }
+    }
+    
+    // Splits every year up to throughYear out of the catch-all partition
+    private void ensurePartitions(String table, int throughYear) {
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?",
+            String.class, table);
+        String statement = reorganizeStatement(table, partitions, throughYear);
+        if (statement != null) {
+            jdbcTemplate.execute(statement);
+            log.info("Added yearly partitions to {} through {}", table, throughYear);
+        }
+    }
+    
+    /**
+     * The ALTER that splits the missing years up to {@code throughYear} out of
+     * pmax, or null when they already exist or the table is not partitioned.
+     */
+    static String reorganizeStatement(String table, List<String> partitions, int throughYear) {
+        TreeSet<Integer> years = new TreeSet<>();
+        for (String partition : partitions) {
+            if (partition != null && partition.matches("p\\d{4}")) {
+                years.add(Integer.parseInt(partition.substring(1)));
+            }
+        }
+        if (!partitions.contains("pmax") || years.isEmpty() || years.last() >= throughYear) {
+            return null;
+        }
+        StringBuilder statement = new StringBuilder("ALTER TABLE ").append(table).append(" REORGANIZE PARTITION pmax INTO (");
+        for (int year = years.last() + 1; year <= throughYear; year++) {
+            statement.append("PARTITION p").append(year).append(" VALUES LESS THAN (").append(year + 1).append("), ");
+        }
+        return statement.append("PARTITION pmax VALUES LESS THAN MAXVALUE)").toString();
+    }
+    
+    private static String inList(int size) {
+        return "(" + String.join(", ", Collections.nCopies(size, "?")) + ")";
+    }
+    
+    private static Object[] withArchivedAt(List<Long> ids) {
+        Object[] args = new Object[ids.size() + 1];
+        args[0] = LocalDateTime.now();
+        for (int i = 0; i < ids.size(); i++) {
+            args[i + 1] = ids.get(i);
+        }
+        return args;
+    }
+}
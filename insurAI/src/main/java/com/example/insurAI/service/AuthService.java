@@ -5,31 +5,72 @@ import com.example.insurAI.dto.LoginRequest;
 import com.example.insurAI.dto.RegisterRequest;
 import com.example.insurAI.dto.ResetPasswordRequest;
 import com.example.insurAI.dto.ValidateResetCodeRequest;
+import com.example.insurAI.entity.OneTimeCodePurpose;
+import com.example.insurAI.entity.Role;
 import com.example.insurAI.entity.User;
+import com.example.insurAI.event.AgentDirectoryChangedEvent;
+import com.example.insurAI.event.UserActivityChangedEvent;
 import com.example.insurAI.repository.UserRepository;
 import com.example.insurAI.util.PasswordValidator;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
 public class AuthService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final JwtService jwtService;
+    private final PasswordHashingService passwordHashingService;
+    private final OneTimeCodeService oneTimeCodeService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final RefreshTokenService refreshTokenService;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final Duration CODE_TTL = Duration.ofMinutes(10);
 
     @Autowired
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, 
-                      EmailService emailService, JwtService jwtService) {
+    public AuthService(UserRepository userRepository, EmailService emailService, JwtService jwtService,
+                      PasswordHashingService passwordHashingService, OneTimeCodeService oneTimeCodeService,
+                      LoginRateLimiter loginRateLimiter, PlatformTransactionManager transactionManager,
+                      RefreshTokenService refreshTokenService, AccessTokenRevocationService accessTokenRevocationService,
+                      ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
         this.jwtService = jwtService;
+        this.passwordHashingService = passwordHashingService;
+        this.oneTimeCodeService = oneTimeCodeService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.refreshTokenService = refreshTokenService;
+        this.accessTokenRevocationService = accessTokenRevocationService;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Public sign-up, limited to customer and agent accounts.
+     */
     public AuthResponse register(RegisterRequest request) {
+        Role role = request.getRole() != null ? request.getRole() : Role.CUSTOMER;
+        if (role != Role.CUSTOMER && role != Role.AGENT) {
+            throw new RuntimeException("Only customer and agent accounts can be registered");
+        }
+        return createAccount(request, role);
+    }
+
+    public AuthResponse registerAdmin(RegisterRequest request) {
+        return createAccount(request, Role.ADMIN);
+    }
+
+    private AuthResponse createAccount(RegisterRequest request, Role role) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new RuntimeException("Email already exists");
         }
@@ -44,20 +85,26 @@ public class AuthService {
 
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setFullName(request.getFullName());
-        user.setRole(request.getRole());
-        String verificationCode = String.format("%06d", (int)(Math.random() * 1000000));
-        user.setVerificationCode(verificationCode);
-        user.setVerificationCodeExpiry(LocalDateTime.now().plusMinutes(10));
+        user.setRole(role);
         
-        userRepository.save(user);
-        emailService.sendVerificationEmail(user.getEmail(), verificationCode);
+        // Hash outside the transaction; user, code and outbox email commit together
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.save(user);
+            String verificationCode = oneTimeCodeService.issue(user.getId(), OneTimeCodePurpose.EMAIL_VERIFICATION, CODE_TTL);
+            emailService.sendVerificationEmail(user.getEmail(), verificationCode);
+        });
+        if (user.getRole() == Role.AGENT) {
+            eventPublisher.publishEvent(new AgentDirectoryChangedEvent(user.getId()));
+        }
         
         return new AuthResponse(null, "Registration successful. Check console for verification link.");
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginRateLimiter.checkLoginAllowed(request.getEmail(), clientIp);
+
         User user = userRepository.findByEmail(request.getEmail())
             .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
@@ -68,7 +115,7 @@ public class AuthService {
             throw new RuntimeException("Your account has been suspended by admin. Please contact administrator.");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
@@ -76,37 +123,78 @@ public class AuthService {
             throw new RuntimeException("Please verify your email first");
         }
 
-        String token = jwtService.generateToken(user.getEmail());
-        return new AuthResponse(token, "Login successful", user.getRole(), user.getId(), user.getFullName(), user.getEmail());
+        // Transparently move the stored hash to the currently configured cost factor
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            userRepository.save(user);
+        }
+
+        return issueTokens(user, refreshTokenService.issue(user.getId()), "Login successful");
+    }
+
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        User user = userRepository.findById(rotation.userId())
+            .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        if (!user.isActive()) {
+            refreshTokenService.revokeAllForUser(user.getId());
+            throw new RuntimeException("Your account has been suspended by admin. Please contact administrator.");
+        }
+        return issueTokens(user, rotation.refreshToken(), "Token refreshed");
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtService.extractClaims(accessToken);
+                accessTokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+            } catch (Exception e) {
+                // Already invalid or expired - nothing to revoke
+            }
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+    private AuthResponse issueTokens(User user, String refreshToken, String message) {
+        String token = jwtService.generateToken(user);
+        AuthResponse response = new AuthResponse(token, message, user.getRole(), user.getId(), user.getFullName(), user.getEmail());
+        response.setRefreshToken(refreshToken);
+        return response;
     }
 
     public String verifyEmail(String code) {
         System.out.println("Verifying code: " + code);
         
-        User user = userRepository.findByVerificationCode(code)
+        OneTimeCodeService.CodeEntry entry = oneTimeCodeService.find(code, OneTimeCodePurpose.EMAIL_VERIFICATION)
             .orElseThrow(() -> {
                 System.out.println("No user found with verification code: " + code);
                 return new RuntimeException("Invalid verification code");
             });
 
-        System.out.println("Found user: " + user.getEmail());
-        System.out.println("Code expiry: " + user.getVerificationCodeExpiry());
-        System.out.println("Current time: " + LocalDateTime.now());
+        System.out.println("Code expiry: " + entry.expiresAt());
         
-        if (user.getVerificationCodeExpiry().isBefore(LocalDateTime.now())) {
+        if (entry.isExpired(LocalDateTime.now())) {
             System.out.println("Code expired");
             throw new RuntimeException("Verification code expired");
         }
 
+        if (!oneTimeCodeService.consume(code, OneTimeCodePurpose.EMAIL_VERIFICATION)) {
+            throw new RuntimeException("Invalid verification code");
+        }
+
+        User user = userRepository.findById(entry.userId())
+            .orElseThrow(() -> new RuntimeException("Invalid verification code"));
         user.setEmailVerified(true);
-        user.setVerificationCode(null);
-        user.setVerificationCodeExpiry(null);
         userRepository.save(user);
         
         System.out.println("Email verified successfully for: " + user.getEmail());
         return "Email verified successfully";
     }
 
+    @Transactional
     public String resendVerificationCode(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("Email not found"));
@@ -115,10 +203,7 @@ public class AuthService {
             throw new RuntimeException("Email already verified");
         }
 
-        String verificationCode = String.format("%06d", (int)(Math.random() * 1000000));
-        user.setVerificationCode(verificationCode);
-        user.setVerificationCodeExpiry(LocalDateTime.now().plusMinutes(10));
-        userRepository.save(user);
+        String verificationCode = oneTimeCodeService.issue(user.getId(), OneTimeCodePurpose.EMAIL_VERIFICATION, CODE_TTL);
 
         System.out.println("Resent verification code: " + verificationCode + " for email: " + email);
         
@@ -126,14 +211,12 @@ public class AuthService {
         return "Verification code resent successfully";
     }
 
+    @Transactional
     public String resetPassword(String email) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("Email not found"));
 
-        String resetCode = String.format("%06d", (int)(Math.random() * 1000000));
-        user.setResetToken(resetCode);
-        user.setResetTokenExpiry(LocalDateTime.now().plusMinutes(10));
-        userRepository.save(user);
+        String resetCode = oneTimeCodeService.issue(user.getId(), OneTimeCodePurpose.PASSWORD_RESET, CODE_TTL);
 
         System.out.println("Generated reset code: " + resetCode + " for email: " + email);
         
@@ -144,17 +227,15 @@ public class AuthService {
     public String validateResetCode(ValidateResetCodeRequest request) {
         System.out.println("Validating reset code: " + request.getCode());
         
-        User user = userRepository.findByResetToken(request.getCode())
+        OneTimeCodeService.CodeEntry entry = oneTimeCodeService.find(request.getCode(), OneTimeCodePurpose.PASSWORD_RESET)
             .orElseThrow(() -> {
                 System.out.println("No user found with reset token: " + request.getCode());
                 return new RuntimeException("Invalid reset code");
             });
 
-        System.out.println("Found user: " + user.getEmail());
-        System.out.println("Token expiry: " + user.getResetTokenExpiry());
-        System.out.println("Current time: " + LocalDateTime.now());
+        System.out.println("Token expiry: " + entry.expiresAt());
         
-        if (user.getResetTokenExpiry().isBefore(LocalDateTime.now())) {
+        if (entry.isExpired(LocalDateTime.now())) {
             System.out.println("Reset code expired");
             throw new RuntimeException("Reset code expired");
         }
@@ -164,10 +245,10 @@ public class AuthService {
     }
 
     public String confirmPasswordReset(ResetPasswordRequest request) {
-        User user = userRepository.findByResetToken(request.getCode())
+        OneTimeCodeService.CodeEntry entry = oneTimeCodeService.find(request.getCode(), OneTimeCodePurpose.PASSWORD_RESET)
             .orElseThrow(() -> new RuntimeException("Invalid reset code"));
 
-        if (user.getResetTokenExpiry().isBefore(LocalDateTime.now())) {
+        if (entry.isExpired(LocalDateTime.now())) {
             throw new RuntimeException("Reset code expired");
         }
 
@@ -179,9 +260,13 @@ public class AuthService {
             throw new RuntimeException("Passwords do not match");
         }
 
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
+        if (!oneTimeCodeService.consume(request.getCode(), OneTimeCodePurpose.PASSWORD_RESET)) {
+            throw new RuntimeException("Invalid reset code");
+        }
+
+        User user = userRepository.findById(entry.userId())
+            .orElseThrow(() -> new RuntimeException("Invalid reset code"));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         userRepository.save(user);
 
         return "Password reset successful";
@@ -204,5 +289,9 @@ public class AuthService {
         }
         
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserActivityChangedEvent(userId));
+        if (user.getRole() == Role.AGENT) {
+            eventPublisher.publishEvent(new AgentDirectoryChangedEvent(userId));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.repository.AgentAvailabilityRepository;
+import com.example.insurAI.repository.AvailabilityRuleRepository;
+import com.example.insurAI.repository.AvailabilityTimeOffRepository;
+import com.example.insurAI.util.AvailabilityIndex;
+import com.example.insurAI.util.KeyedLocks;
+import com.example.insurAI.util.RecurringAvailability;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the open availability windows from today onwards in memory: one-off
+ * availability rows plus weekly rules expanded over a rolling horizon, less
+ * any time off. Loaded at startup, reloaded per agent after every committed
+ * change to its windows, and rolled forward each night.
+ */
+@Service
+public class AvailabilityIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityIndexService.class);
+
+    @Autowired
+    private AgentAvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AvailabilityRuleRepository ruleRepository;
+
+    @Autowired
+    private AvailabilityTimeOffRepository timeOffRepository;
+
+    @Value("${availability.horizon-days:90}")
+    private int horizonDays;
+
+    private final AvailabilityIndex index = new AvailabilityIndex();
+
+    // A full rebuild excludes every reload; reloads of different agents run in parallel
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    // Loads and applies for one agent are serialized so an older read can never overwrite a newer one
+    private final KeyedLocks<Long> agentReloads = new KeyedLocks<>();
+
+    // One agent's stored availability, before expansion
+    private static final class Schedule {
+        final List<AvailabilityIndex.Window> windows = new ArrayList<>();
+        final List<RecurringAvailability.Rule> rules = new ArrayList<>();
+        final List<RecurringAvailability.TimeOff> timeOff = new ArrayList<>();
+
+        List<AvailabilityIndex.Window> expand(LocalDate from, LocalDate to) {
+            List<AvailabilityIndex.Window> all = new ArrayList<>(windows);
+            all.addAll(RecurringAvailability.expand(rules, from, to));
+            return RecurringAvailability.subtract(all, timeOff);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            reloadAll();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        if (!event.windowsChanged()) {
+            return;
+        }
+        if (event.agentId() == null) {
+            rebuild();
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            agentReloads.withLock(event.agentId(), () -> {
+                reloadAgent(event.agentId());
+                return null;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void reloadAll() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Schedule> schedules = new HashMap<>();
+        for (Object[] row : availabilityRepository.findOpenWindowsFrom(today.atStartOfDay())) {
+            schedules.computeIfAbsent((Long) row[1], id -> new Schedule()).windows.add(toWindow(row));
+        }
+        for (Object[] row : ruleRepository.findActiveRulesFrom(today)) {
+            schedules.computeIfAbsent((Long) row[1], id -> new Schedule()).rules.add(toRule(row));
+        }
+        for (Object[] row : timeOffRepository.findTimeOffFrom(today)) {
+            Schedule schedule = schedules.get((Long) row[0]);
+            if (schedule != null) {
+                schedule.timeOff.add(toTimeOff(row));
+            }
+        }
+        LocalDate last = horizonEnd(today);
+        index.clear();
+        schedules.forEach((agentId, schedule) -> index.replaceAgent(agentId, schedule.expand(today, last)));
+        log.info("Indexed {} open availability windows for {} agents", index.size(), schedules.size());
+    }
+
+    private void reloadAgent(Long agentId) {
+        LocalDate today = LocalDate.now();
+        Schedule schedule = new Schedule();
+        for (Object[] row : availabilityRepository.findOpenWindowsByAgentFrom(agentId, today.atStartOfDay())) {
+            schedule.windows.add(toWindow(row));
+        }
+        for (Object[] row : ruleRepository.findActiveRulesByAgentFrom(agentId, today)) {
+            schedule.rules.add(toRule(row));
+        }
+        for (Object[] row : timeOffRepository.findTimeOffByAgentFrom(agentId, today)) {
+            schedule.timeOff.add(toTimeOff(row));
+        }
+        index.replaceAgent(agentId, schedule.expand(today, horizonEnd(today)));
+    }
+
+    // Drops yesterday and expands rules onto the day that just entered the horizon
+    @Scheduled(cron = "${availability.index.roll-cron:0 5 0 * * *}")
+    public void rollHorizon() {
+        rebuild();
+    }
+
+    public long[] agentsFreeAt(LocalDate day, LocalTime time) {
+        return index.agentsFreeAt(day, time);
+    }
+
+    public List<AvailabilityIndex.Opening> openingsAt(LocalDate day, LocalTime time) {
+        return index.openingsAt(day, time);
+    }
+
+    public List<AvailabilityIndex.Opening> openingsBetween(LocalDate from, LocalDate to) {
+        return index.openingsBetween(from, to);
+    }
+
+    public Optional<AvailabilityIndex.FreeSlot> nextFreeSlot(Long agentId, LocalDateTime from) {
+        return index.nextFreeSlot(agentId, from);
+    }
+
+    public int[] windowBounds(Long agentId, LocalDate day) {
+        return index.windowBounds(agentId, day);
+    }
+
+    public int getIndexedWindowCount() {
+        return index.size();
+    }
+
+    private LocalDate horizonEnd(LocalDate today) {
+        return today.plusDays(Math.max(1, horizonDays) - 1);
+    }
+
+    private static AvailabilityIndex.Window toWindow(Object[] row) {
+        return new AvailabilityIndex.Window((Long) row[0], ((LocalDateTime) row[2]).toLocalDate(),
+            (LocalTime) row[3], (LocalTime) row[4]);
+    }
+
+    private static RecurringAvailability.Rule toRule(Object[] row) {
+        return new RecurringAvailability.Rule((Long) row[0], (Integer) row[2], (LocalTime) row[3], (LocalTime) row[4],
+            (LocalDate) row[5], (LocalDate) row[6]);
+    }
+
+    private static RecurringAvailability.TimeOff toTimeOff(Object[] row) {
+        return new RecurringAvailability.TimeOff((LocalDate) row[1], (LocalTime) row[2], (LocalTime) row[3]);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.AvailabilityRuleRequest;
+import com.example.insurAI.dto.TimeOffRequest;
+import com.example.insurAI.entity.AvailabilityRule;
+import com.example.insurAI.entity.AvailabilityTimeOff;
+import com.example.insurAI.event.AvailabilityChangedEvent;
+import com.example.insurAI.repository.AvailabilityRuleRepository;
+import com.example.insurAI.repository.AvailabilityTimeOffRepository;
+import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.RecurringAvailability;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Weekly availability rules and the time off carved out of them. Neither is
+ * expanded here; the availability index turns them into concrete windows.
+ */
+@Service
+public class AvailabilityRuleService {
+    
+    @Autowired
+    private AvailabilityRuleRepository ruleRepository;
+    
+    @Autowired
+    private AvailabilityTimeOffRepository timeOffRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    public AvailabilityRule createRule(Long agentId, AvailabilityRuleRequest request) {
+        if (request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty()) {
+            throw new RuntimeException("Select at least one day of the week");
+        }
+        checkTimes(request.getStartTime(), request.getEndTime());
+        LocalDate validFrom = request.getValidFrom() != null ? request.getValidFrom() : LocalDate.now();
+        if (request.getValidUntil() != null && request.getValidUntil().isBefore(validFrom)) {
+            throw new RuntimeException("Rule must end on or after its start date");
+        }
+        
+        AvailabilityRule rule = new AvailabilityRule();
+        rule.setAgent(userRepository.getReferenceById(agentId));
+        rule.setDaysOfWeek(RecurringAvailability.maskOf(request.getDaysOfWeek()));
+        rule.setStartTime(request.getStartTime());
+        rule.setEndTime(request.getEndTime());
+        rule.setValidFrom(validFrom);
+        rule.setValidUntil(request.getValidUntil());
+        
+        AvailabilityRule saved = ruleRepository.save(rule);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(agentId));
+        return saved;
+    }
+    
+    public List<AvailabilityRule> getRules(Long agentId) {
+        return ruleRepository.findByAgentIdOrderByValidFromAsc(agentId);
+    }
+    
+    public void deleteRule(Long agentId, Long ruleId) {
+        ruleRepository.findById(ruleId)
+            .filter(rule -> rule.getAgent().getId().equals(agentId))
+            .ifPresent(rule -> {
+                ruleRepository.delete(rule);
+                eventPublisher.publishEvent(new AvailabilityChangedEvent(rule.getAgent().getId()));
+            });
+    }
+    
+    public AvailabilityTimeOff addTimeOff(Long agentId, TimeOffRequest request) {
+        if (request.getDate() == null) {
+            throw new RuntimeException("Date is required");
+        }
+        if (request.getStartTime() != null || request.getEndTime() != null) {
+            checkTimes(request.getStartTime(), request.getEndTime());
+        }
+        
+        AvailabilityTimeOff timeOff = new AvailabilityTimeOff();
+        timeOff.setAgent(userRepository.getReferenceById(agentId));
+        timeOff.setDate(request.getDate());
+        timeOff.setStartTime(request.getStartTime());
+        timeOff.setEndTime(request.getEndTime());
+        timeOff.setReason(request.getReason());
+        
+        AvailabilityTimeOff saved = timeOffRepository.save(timeOff);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(agentId));
+        return saved;
+    }
+    
+    public List<AvailabilityTimeOff> getUpcomingTimeOff(Long agentId) {
+        return timeOffRepository.findByAgentIdAndDateGreaterThanEqualOrderByDateAsc(agentId, LocalDate.now());
+    }
+    
+    public void deleteTimeOff(Long agentId, Long timeOffId) {
+        timeOffRepository.findById(timeOffId)
+            .filter(timeOff -> timeOff.getAgent().getId().equals(agentId))
+            .ifPresent(timeOff -> {
+                timeOffRepository.delete(timeOff);
+                eventPublisher.publishEvent(new AvailabilityChangedEvent(timeOff.getAgent().getId()));
+            });
+    }
+    
+    // An end of midnight runs to the end of the day
+    private static void checkTimes(LocalTime start, LocalTime end) {
+        if (start == null || end == null) {
+            throw new RuntimeException("Start and end time are required");
+        }
+        if (!end.equals(LocalTime.MIDNIGHT) && !end.isAfter(start)) {
+            throw new RuntimeException("End time must be after start time");
+        }
+    }
+}
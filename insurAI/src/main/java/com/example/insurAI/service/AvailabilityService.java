@@ -1,81 +1,235 @@
 package com.example.insurAI.service;
 
+import com.example.insurAI.dto.AvailabilityBatchRequest;
+import com.example.insurAI.dto.AvailabilityBatchResult;
 import com.example.insurAI.dto.AvailabilityRequest;
 import com.example.insurAI.entity.AgentAvailability;
+import com.example.insurAI.entity.Role;
 import com.example.insurAI.entity.User;
+import com.example.insurAI.event.AvailabilityChangedEvent;
 import com.example.insurAI.repository.AgentAvailabilityRepository;
+import com.example.insurAI.repository.AppointmentRepository;
 import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.AvailabilityBatchValidator;
+import com.example.insurAI.util.AvailabilityIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AvailabilityService {
     
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityService.class);
+    
     @Autowired
     private AgentAvailabilityRepository availabilityRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private AvailabilityIndexService availabilityIndexService;
+    
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Value("${availability.listing-days:30}")
+    private int listingDays;
+    
+    @Value("${availability.batch.max-windows:10000}")
+    private int maxBatchWindows;
+    
+    // Flushing every JDBC batch keeps the persistence context small on large publishes
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+    
+    private static final int MAX_BATCH_ERRORS = 100;
+    
+    // Past this many agents one full index rebuild is cheaper than reloading each agent
+    private static final int PER_AGENT_RELOAD_LIMIT = 100;
+    
+    // Keeps the IN list of the existing-window lookup to a reasonable size
+    private static final int EXISTING_WINDOW_AGENT_CHUNK = 500;
+    
     public AgentAvailability setAvailability(Long agentId, AvailabilityRequest request) {
-        User agent = userRepository.findById(agentId)
-            .orElseThrow(() -> new RuntimeException("Agent not found"));
-        
         AgentAvailability availability = new AgentAvailability();
-        availability.setAgent(agent);
+        availability.setAgent(userRepository.getReferenceById(agentId));
         availability.setAvailableDate(request.getAvailableDate());
         availability.setStartTime(request.getStartTime());
         availability.setEndTime(request.getEndTime());
         availability.setAvailable(request.isAvailable());
         
-        return availabilityRepository.save(availability);
+        AgentAvailability saved = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(agentId));
+        return saved;
+    }
+    
+    /**
+     * Publishes many windows at once, for one agent ({@code agentId}) or for
+     * the agents named on each window. Invalid or overlapping windows are
+     * skipped and reported; the rest are inserted in JDBC batches.
+     */
+    @Transactional
+    public AvailabilityBatchResult publishBatch(Long agentId, List<AvailabilityBatchRequest.Window> windows) {
+        if (windows == null || windows.isEmpty()) {
+            throw new RuntimeException("No availability windows given");
+        }
+        if (windows.size() > maxBatchWindows) {
+            throw new RuntimeException("At most " + maxBatchWindows + " availability windows can be published at once");
+        }
+        
+        Set<Long> agentIds = new HashSet<>();
+        for (AvailabilityBatchRequest.Window window : windows) {
+            Long id = agentId != null ? agentId : window.getAgentId();
+            if (id != null) {
+                agentIds.add(id);
+            }
+        }
+        Map<Long, User> agents = new HashMap<>();
+        userRepository.findAllById(agentIds).forEach(agent -> {
+            if (agent.getRole() == Role.AGENT) {
+                agents.put(agent.getId(), agent);
+            }
+        });
+        
+        // Field checks first, then overlaps within the batch and against every window the agent has that day
+        LocalDate today = LocalDate.now();
+        String[] reasons = new String[windows.size()];
+        List<AvailabilityBatchValidator.Candidate> candidates = new ArrayList<>(windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            AvailabilityBatchRequest.Window window = windows.get(i);
+            Long id = agentId != null ? agentId : window.getAgentId();
+            if (id == null || !agents.containsKey(id)) {
+                reasons[i] = "Agent not found";
+            } else if (window.getAvailableDate() == null || window.getStartTime() == null || window.getEndTime() == null) {
+                reasons[i] = "Date, start and end time are required";
+            } else if (window.getAvailableDate().toLocalDate().isBefore(today)) {
+                reasons[i] = "Date is in the past";
+            }
+            candidates.add(reasons[i] != null ? null : new AvailabilityBatchValidator.Candidate(
+                id, window.getAvailableDate().toLocalDate(), window.getStartTime(), window.getEndTime()));
+        }
+        String[] overlaps = AvailabilityBatchValidator.validate(candidates, existingWindows(candidates));
+        
+        int created = 0;
+        List<String> errors = new ArrayList<>();
+        Set<Long> changedAgents = new HashSet<>();
+        for (int i = 0; i < windows.size(); i++) {
+            String reason = reasons[i] != null ? reasons[i] : overlaps[i];
+            if (reason != null) {
+                if (errors.size() < MAX_BATCH_ERRORS) {
+                    errors.add("windows[" + i + "]: " + reason);
+                }
+                continue;
+            }
+            AvailabilityBatchRequest.Window window = windows.get(i);
+            AgentAvailability availability = new AgentAvailability();
+            availability.setAgent(agents.get(candidates.get(i).agentId()));
+            availability.setAvailableDate(window.getAvailableDate().toLocalDate().atStartOfDay());
+            availability.setStartTime(window.getStartTime());
+            availability.setEndTime(window.getEndTime());
+            availability.setAvailable(window.isAvailable());
+            entityManager.persist(availability);
+            changedAgents.add(availability.getAgent().getId());
+            if (++created % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        
+        if (changedAgents.size() > PER_AGENT_RELOAD_LIMIT) {
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(null));
+        } else {
+            changedAgents.forEach(id -> eventPublisher.publishEvent(new AvailabilityChangedEvent(id)));
+        }
+        log.info("Published {} of {} availability windows for {} agents", created, windows.size(), changedAgents.size());
+        return new AvailabilityBatchResult(windows.size(), created, windows.size() - created, changedAgents.size(), errors);
+    }
+    
+    /**
+     * All stored windows, booked ones included, for the agents and days the
+     * batch touches. The availability index only holds open windows, so it
+     * cannot be used to rule out an overlap with a booked one.
+     */
+    private AvailabilityBatchValidator.ExistingWindows existingWindows(List<AvailabilityBatchValidator.Candidate> candidates) {
+        AvailabilityBatchValidator.ExistingWindowSet existing = new AvailabilityBatchValidator.ExistingWindowSet();
+        Set<Long> agentIds = new HashSet<>();
+        LocalDate first = null;
+        LocalDate last = null;
+        for (AvailabilityBatchValidator.Candidate candidate : candidates) {
+            if (candidate == null) {
+                continue;
+            }
+            agentIds.add(candidate.agentId());
+            first = first == null || candidate.day().isBefore(first) ? candidate.day() : first;
+            last = last == null || candidate.day().isAfter(last) ? candidate.day() : last;
+        }
+        if (agentIds.isEmpty()) {
+            return existing;
+        }
+        
+        List<Long> ids = new ArrayList<>(agentIds);
+        for (int from = 0; from < ids.size(); from += EXISTING_WINDOW_AGENT_CHUNK) {
+            List<Object[]> rows = availabilityRepository.findWindowsByAgentsBetween(
+                ids.subList(from, Math.min(from + EXISTING_WINDOW_AGENT_CHUNK, ids.size())),
+                first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+            for (Object[] row : rows) {
+                existing.add((Long) row[0], ((LocalDateTime) row[1]).toLocalDate(), (LocalTime) row[2], (LocalTime) row[3]);
+            }
+        }
+        return existing;
     }
     
     public List<AgentAvailability> getAgentAvailability(Long agentId) {
-        User agent = userRepository.findById(agentId)
-            .orElseThrow(() -> new RuntimeException("Agent not found"));
-        return availabilityRepository.findByAgentAndIsAvailableTrue(agent);
+        return availabilityRepository.findOpenByAgentFrom(agentId, LocalDate.now().atStartOfDay());
     }
     
     public List<AgentAvailability> getAvailableSlots(LocalDateTime startDate, LocalDateTime endDate) {
-        List<AgentAvailability> allSlots = availabilityRepository.findByIsAvailableTrue();
-        System.out.println("Total available slots in DB: " + allSlots.size());
-        List<AgentAvailability> filteredSlots = availabilityRepository.findAllAvailableSlotsByDateRange(startDate, endDate);
-        System.out.println("Filtered slots: " + filteredSlots.size());
-        return filteredSlots;
+        return toAvailability(
+            availabilityIndexService.openingsBetween(startDate.toLocalDate(), endDate.toLocalDate()), LocalDateTime.now());
     }
     
     public List<AgentAvailability> searchAgentsByDateTime(LocalDateTime searchDate, LocalTime searchTime) {
-        System.out.println("Searching for date: " + searchDate + ", time: " + searchTime);
-        List<AgentAvailability> results = availabilityRepository.findAvailableAgentsByDateTime(searchDate, searchTime);
-        
-        // Filter out expired slots
-        LocalDateTime now = LocalDateTime.now();
-        results = results.stream()
-            .filter(slot -> {
-                LocalDateTime slotDateTime = LocalDateTime.of(slot.getAvailableDate().toLocalDate(), slot.getStartTime());
-                return slotDateTime.isAfter(now);
-            })
-            .collect(java.util.stream.Collectors.toList());
-        
-        System.out.println("Found " + results.size() + " available slots after filtering expired ones");
-        return results;
+        return toAvailability(
+            availabilityIndexService.openingsAt(searchDate.toLocalDate(), searchTime), LocalDateTime.now());
     }
     
-    public void markSlotAsBooked(Long availabilityId) {
-        AgentAvailability availability = availabilityRepository.findById(availabilityId)
-            .orElseThrow(() -> new RuntimeException("Availability slot not found"));
-        availability.setAvailable(false);
-        availability.setUpdatedAt(LocalDateTime.now());
-        availabilityRepository.save(availability);
+    @Transactional
+    public void markSlotAsBooked(Long availabilityId, Long agentId) {
+        // Compare-and-set, so two bookings can never both claim the window
+        if (availabilityRepository.markBookedIfAvailable(availabilityId, agentId, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Availability slot not found or already booked");
+        }
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(agentId));
     }
     
-    public AgentAvailability updateAvailability(Long availabilityId, AvailabilityRequest request) {
+    public AgentAvailability updateAvailability(Long agentId, Long availabilityId, AvailabilityRequest request) {
         AgentAvailability availability = availabilityRepository.findById(availabilityId)
+            .filter(found -> found.getAgent().getId().equals(agentId))
             .orElseThrow(() -> new RuntimeException("Availability not found"));
         
         availability.setAvailableDate(request.getAvailableDate());
@@ -84,23 +238,78 @@ public class AvailabilityService {
         availability.setAvailable(request.isAvailable());
         availability.setUpdatedAt(LocalDateTime.now());
         
-        return availabilityRepository.save(availability);
+        AgentAvailability saved = availabilityRepository.save(availability);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(availability.getAgent().getId()));
+        return saved;
+    }
+    
+    public void deleteAvailability(Long agentId, Long availabilityId) {
+        availabilityRepository.findById(availabilityId)
+            .filter(availability -> availability.getAgent().getId().equals(agentId))
+            .ifPresent(availability -> {
+                availabilityRepository.delete(availability);
+                eventPublisher.publishEvent(new AvailabilityChangedEvent(availability.getAgent().getId()));
+            });
     }
     
-    public void deleteAvailability(Long availabilityId) {
-        availabilityRepository.deleteById(availabilityId);
+    public Optional<AvailabilityIndex.FreeSlot> getNextFreeSlot(Long agentId) {
+        return availabilityIndexService.nextFreeSlot(agentId, LocalDateTime.now());
     }
     
     public List<AgentAvailability> getAllAvailableSlots() {
-        List<AgentAvailability> slots = availabilityRepository.findByIsAvailableTrue();
+        LocalDate today = LocalDate.now();
+        return toAvailability(availabilityIndexService.openingsBetween(today, today.plusDays(listingDays - 1)), LocalDateTime.now());
+    }
+    
+    /**
+     * Index openings as availability entries, soonest first. Openings expanded
+     * from a rule have no stored row, so they carry no id, and one whose start
+     * is already booked is left out the way a booked row would be.
+     */
+    private List<AgentAvailability> toAvailability(List<AvailabilityIndex.Opening> openings, LocalDateTime now) {
+        List<AvailabilityIndex.Opening> upcoming = new ArrayList<>();
+        Set<Long> agentIds = new HashSet<>();
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (AvailabilityIndex.Opening opening : openings) {
+            LocalDateTime start = opening.day().atTime(opening.start());
+            if (start.isAfter(now)) {
+                upcoming.add(opening);
+                agentIds.add(opening.agentId());
+                first = first == null || start.isBefore(first) ? start : first;
+                last = last == null || start.isAfter(last) ? start : last;
+            }
+        }
+        if (upcoming.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Set<String> reserved = new HashSet<>();
+        for (Object[] row : appointmentRepository.findReservedSlots(agentIds, first, last.plusMinutes(1))) {
+            reserved.add(row[0] + "@" + row[1]);
+        }
+        Map<Long, User> agents = new HashMap<>();
+        userRepository.findAllById(agentIds).forEach(agent -> agents.put(agent.getId(), agent));
         
-        // Filter out expired slots
-        LocalDateTime now = LocalDateTime.now();
-        return slots.stream()
-            .filter(slot -> {
-                LocalDateTime slotDateTime = LocalDateTime.of(slot.getAvailableDate().toLocalDate(), slot.getStartTime());
-                return slotDateTime.isAfter(now);
-            })
-            .collect(java.util.stream.Collectors.toList());
+        List<AgentAvailability> slots = new ArrayList<>();
+        for (AvailabilityIndex.Opening opening : upcoming) {
+            LocalDateTime start = opening.day().atTime(opening.start());
+            User agent = agents.get(opening.agentId());
+            if (agent == null || (opening.windowId() < 0 && reserved.contains(opening.agentId() + "@" + start))) {
+                continue;
+            }
+            AgentAvailability slot = new AgentAvailability();
+            slot.setId(opening.windowId() > 0 ? opening.windowId() : null);
+            slot.setAgent(agent);
+            slot.setAvailableDate(opening.day().atStartOfDay());
+            slot.setStartTime(opening.start());
+            slot.setEndTime(opening.end());
+            slot.setAvailable(true);
+            slots.add(slot);
+        }
+        slots.sort(Comparator.comparing(AgentAvailability::getAvailableDate)
+            .thenComparing(AgentAvailability::getStartTime)
+            .thenComparing(slot -> slot.getAgent().getId()));
+        return slots;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,208 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.util.MinHash;
+import com.example.insurAI.util.TextTokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Bounded LRU cache of model answers. Questions are normalized (case,
+ * punctuation, stop words, plural endings) and looked up exactly first; near
+ * duplicates are then found through MinHash signatures over word and bigram
+ * shingles, indexed with LSH bands. Entries are scoped by the prompt context
+ * and the policy catalog version, and dropped when the catalog changes.
+ */
+@Service
+public class ChatAnswerCache {
+
+    private static final int HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = HASHES / BANDS;
+
+    private final MinHash minHash = new MinHash(HASHES, 0x5EEDL);
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final double similarityThreshold;
+
+    private final Map<String, Entry> entries;
+    private final Map<String, Set<Entry>> bandIndex = new HashMap<>();
+    private volatile long catalogVersion;
+
+    private final Counter hits;
+    private final Counter nearHits;
+    private final Counter misses;
+
+    /**
+     * Identifies one cacheable question. Obtain it before calling the model so a
+     * catalog change during the call prevents the stale answer from being stored.
+     */
+    public record Key(String scope, String normalized, long[] signature, long catalogVersion) {
+    }
+
+    private record Entry(String id, String scope, long[] signature, String answer, long expiresAt) {
+    }
+
+    public ChatAnswerCache(MeterRegistry meterRegistry,
+                           @Value("${chatbot.answer-cache.max-entries:5000}") int maxEntries,
+                           @Value("${chatbot.answer-cache.ttl-seconds:3600}") long ttlSeconds,
+                           @Value("${chatbot.answer-cache.similarity:0.8}") double similarityThreshold) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.similarityThreshold = similarityThreshold;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ChatAnswerCache.this.maxEntries) {
+                    unindex(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.hits = Counter.builder("chatbot.answer.cache").tag("result", "hit").register(meterRegistry);
+        this.nearHits = Counter.builder("chatbot.answer.cache").tag("result", "near_hit").register(meterRegistry);
+        this.misses = Counter.builder("chatbot.answer.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("chatbot.answer.cache.size", this, ChatAnswerCache::size).register(meterRegistry);
+        Gauge.builder("chatbot.answer.cache.hit.ratio", this, ChatAnswerCache::getHitRate).register(meterRegistry);
+    }
+
+    /**
+     * Returns the cache key for a question, or null if nothing meaningful is left after normalization.
+     */
+    public Key keyFor(String scope, String question) {
+        List<String> tokens = TextTokens.tokenize(question);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        return new Key(scope, String.join(" ", tokens), minHash.signature(shingles(tokens)), catalogVersion);
+    }
+
+    public synchronized Optional<String> get(Key key) {
+        if (key == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        String id = id(key.scope(), key.normalized());
+        Entry exact = entries.get(id);
+        if (exact != null) {
+            if (exact.expiresAt() > now) {
+                hits.increment();
+                return Optional.of(exact.answer());
+            }
+            remove(exact);
+        }
+
+        Entry best = null;
+        double bestSimilarity = 0;
+        for (int band = 0; band < BANDS; band++) {
+            Set<Entry> candidates = bandIndex.get(bandKey(key.scope(), key.signature(), band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry candidate : candidates) {
+                if (candidate.expiresAt() <= now) {
+                    continue;
+                }
+                double similarity = MinHash.similarity(key.signature(), candidate.signature());
+                if (similarity > bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        if (best != null && bestSimilarity >= similarityThreshold) {
+            entries.get(best.id()); // refresh LRU position
+            nearHits.increment();
+            return Optional.of(best.answer());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public synchronized void put(Key key, String answer) {
+        if (key == null || answer == null || key.catalogVersion() != catalogVersion) {
+            return;
+        }
+        String id = id(key.scope(), key.normalized());
+        Entry previous = entries.get(id);
+        if (previous != null) {
+            remove(previous);
+        }
+        Entry entry = new Entry(id, key.scope(), key.signature(), answer, System.currentTimeMillis() + ttlMillis);
+        for (int band = 0; band < BANDS; band++) {
+            bandIndex.computeIfAbsent(bandKey(entry.scope(), entry.signature(), band), k -> new HashSet<>()).add(entry);
+        }
+        entries.put(id, entry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPolicyCatalogChanged(PolicyCatalogChangedEvent event) {
+        catalogVersion++;
+        entries.clear();
+        bandIndex.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public double getHitRate() {
+        double found = hits.count() + nearHits.count();
+        double total = found + misses.count();
+        return total == 0 ? 0 : found / total;
+    }
+
+    private static List<String> shingles(List<String> tokens) {
+        List<String> shingles = new ArrayList<>(tokens);
+        for (int i = 1; i < tokens.size(); i++) {
+            shingles.add(tokens.get(i - 1) + ' ' + tokens.get(i));
+        }
+        return shingles;
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.id());
+        unindex(entry);
+    }
+
+    private void unindex(Entry entry) {
+        for (int band = 0; band < BANDS; band++) {
+            String bandKey = bandKey(entry.scope(), entry.signature(), band);
+            Set<Entry> bucket = bandIndex.get(bandKey);
+            if (bucket != null) {
+                bucket.remove(entry);
+                if (bucket.isEmpty()) {
+                    bandIndex.remove(bandKey);
+                }
+            }
+        }
+    }
+
+    private static String id(String scope, String normalized) {
+        return scope + '\u0000' + normalized;
+    }
+
+    private static String bandKey(String scope, long[] signature, int band) {
+        long hash = band;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = hash * 31 + signature[row];
+        }
+        return scope + '\u0000' + band + ':' + hash;
+    }
+}
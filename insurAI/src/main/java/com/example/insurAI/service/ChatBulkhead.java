@@ -0,0 +1,176 @@
+package com.example.insurAI.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for chatbot work. Chat requests run on their own
+ * virtual-thread executor and need one of a fixed number of permits, handed
+ * out first come, first served. A request that cannot get a permit within
+ * the wait deadline, or that finds the wait queue full, gets the degraded
+ * answer straight away, so chat spikes cannot take over servlet threads or
+ * database connections that other endpoints need.
+ */
+@Service
+public class ChatBulkhead {
+
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Counter served;
+    private final Counter queued;
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public ChatBulkhead(MeterRegistry meterRegistry,
+                        @Value("${chatbot.bulkhead.max-in-flight:32}") int maxInFlight,
+                        @Value("${chatbot.bulkhead.max-queued:200}") int maxQueued,
+                        @Value("${chatbot.bulkhead.max-wait-ms:500}") long maxWaitMs) {
+        this.permits = new Semaphore(maxInFlight, true);
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.maxWaitMs = maxWaitMs;
+
+        this.served = Counter.builder("chatbot.bulkhead.requests").tag("outcome", "served").register(meterRegistry);
+        this.queued = Counter.builder("chatbot.bulkhead.requests").tag("outcome", "queued").register(meterRegistry);
+        this.rejected = Counter.builder("chatbot.bulkhead.requests").tag("outcome", "rejected").register(meterRegistry);
+        this.waitTimer = Timer.builder("chatbot.bulkhead.wait").register(meterRegistry);
+        Gauge.builder("chatbot.bulkhead.in_flight", this, ChatBulkhead::getInFlight).register(meterRegistry);
+        Gauge.builder("chatbot.bulkhead.waiting", waiting, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Runs asynchronous work under a permit that is held until the returned
+     * future completes. On overflow the degraded supplier answers instead.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> work, Supplier<T> degraded) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!admit(() -> {
+            CompletableFuture<T> pending;
+            try {
+                pending = work.get();
+            } catch (Throwable e) {
+                permits.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            pending.whenComplete((value, error) -> {
+                permits.release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        }, () -> completeDegraded(result, degraded))) {
+            completeDegraded(result, degraded);
+        }
+        return result;
+    }
+
+    /**
+     * Runs blocking work (such as a streamed reply) on a virtual thread under
+     * a permit held for its whole duration. On overflow {@code degraded} runs instead.
+     */
+    public void run(Runnable work, Runnable degraded) {
+        if (!admit(() -> {
+            try {
+                work.run();
+            } finally {
+                permits.release();
+            }
+        }, degraded)) {
+            executor.execute(degraded);
+        }
+    }
+
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedules {@code onPermit} (which must release the permit) or
+     * {@code onOverflow} on the executor. Returns false if the wait queue is
+     * already full, in which case nothing was scheduled.
+     */
+    private boolean admit(Runnable onPermit, Runnable onOverflow) {
+        if (tryAcquireInTurn()) {
+            served.increment();
+            executor.execute(onPermit);
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+
+        queued.increment();
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            } finally {
+                waiting.decrementAndGet();
+            }
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            if (acquired) {
+                served.increment();
+                onPermit.run();
+            } else {
+                rejected.increment();
+                onOverflow.run();
+            }
+        });
+        return true;
+    }
+
+    // The untimed tryAcquire() barges ahead of queued waiters even on a fair semaphore
+    private boolean tryAcquireInTurn() {
+        try {
+            return permits.tryAcquire(0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static <T> void completeDegraded(CompletableFuture<T> result, Supplier<T> degraded) {
+        try {
+            result.complete(degraded.get());
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.PolicyStatus;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.event.UserActivityChangedEvent;
+import com.example.insurAI.repository.AppointmentRepository;
+import com.example.insurAI.repository.PolicyApplicationRepository;
+import com.example.insurAI.repository.PolicyRepository;
+import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user chatbot context built from count queries and kept until the
+ * underlying data changes or the entry ages out.
+ */
+@Service
+public class ChatContextService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    @Autowired
+    private PolicyApplicationRepository applicationRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Value("${chatbot.context.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${chatbot.context.max-entries:10000}")
+    private int maxEntries;
+
+    // Invalidated per user, so one user's change does not discard other users' loads
+    private BoundedTtlCache<Long, ChatContext> contexts;
+
+    // Bumped on every catalog change so a count that raced with it is not cached
+    private final AtomicLong catalogGeneration = new AtomicLong();
+    private volatile CachedCount activePolicies;
+
+    public record ChatContext(String fullName, Role role, long applicationCount, long appointmentCount) {
+    }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        contexts = new BoundedTtlCache<>(maxEntries);
+    }
+
+    public Optional<ChatContext> getContext(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(contexts.getOrLoad(userId,
+            () -> userRepository.findById(userId)
+                .map(user -> new ChatContext(
+                    user.getFullName(),
+                    user.getRole(),
+                    applicationRepository.countByUserId(userId),
+                    appointmentRepository.countByCustomerId(userId)))
+                .orElse(null),
+            ttlSeconds * 1000));
+    }
+
+    public long getActivePolicyCount() {
+        long now = System.currentTimeMillis();
+        CachedCount cached = activePolicies;
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+
+        long generation = catalogGeneration.get();
+        long count = policyRepository.countByStatus(PolicyStatus.ACTIVE);
+        if (catalogGeneration.get() == generation) {
+            activePolicies = new CachedCount(count, now + ttlSeconds * 1000);
+        }
+        return count;
+    }
+
+    public int getCachedContextCount() {
+        return contexts.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserActivityChanged(UserActivityChangedEvent event) {
+        contexts.invalidate(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyCatalogChanged(PolicyCatalogChangedEvent event) {
+        catalogGeneration.incrementAndGet();
+        activePolicies = null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.AuthenticatedUser;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Streams chatbot replies as server-sent events. Each stream is produced on
+ * a virtual thread inside the chat bulkhead, so open streams cost no platform
+ * threads and a saturated bulkhead streams the keyword fallback instead. Sends are
+ * blocking writes to the client, which throttles how fast the upstream is
+ * read. A closed, failed or timed-out connection cancels the producer at once,
+ * even while it waits on the model, so its bulkhead permit is released.
+ */
+@Service
+public class ChatStreamService {
+
+    private final ChatbotService chatbotService;
+    private final ChatBulkhead chatBulkhead;
+    private final long timeoutMs;
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    public ChatStreamService(ChatbotService chatbotService,
+                             ChatBulkhead chatBulkhead,
+                             MeterRegistry meterRegistry,
+                             @Value("${chatbot.stream.timeout-ms:120000}") long timeoutMs) {
+        this.chatbotService = chatbotService;
+        this.chatBulkhead = chatBulkhead;
+        this.timeoutMs = timeoutMs;
+        Gauge.builder("chatbot.stream.open", openStreams, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter open(String message, AuthenticatedUser user) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        // Completed once the client can no longer be written to; doubles as the producer's cancellation
+        CompletableFuture<Void> closed = new CompletableFuture<>();
+        emitter.onCompletion(() -> closed.complete(null));
+        emitter.onError(e -> closed.complete(null));
+        emitter.onTimeout(() -> {
+            closed.complete(null);
+            emitter.complete();
+        });
+
+        Predicate<String> sink =
+            chunk -> send(emitter, closed, SseEmitter.event().name("chunk").data(Map.of("text", chunk)));
+        chatBulkhead.run(
+            () -> produce(emitter, closed, () -> chatbotService.streamUserMessage(message, user, sink, closed)),
+            () -> produce(emitter, closed, () -> chatbotService.streamDegradedReply(message, sink)));
+        return emitter;
+    }
+
+    public int getOpenStreamCount() {
+        return openStreams.get();
+    }
+
+    private void produce(SseEmitter emitter, CompletableFuture<Void> closed, Runnable producer) {
+        if (closed.isDone()) {
+            // The client left while this stream waited for a permit
+            return;
+        }
+        openStreams.incrementAndGet();
+        try {
+            producer.run();
+            if (send(emitter, closed, SseEmitter.event().name("done")
+                    .data(Map.of("success", true, "timestamp", LocalDateTime.now())))) {
+                emitter.complete();
+            }
+        } catch (Exception e) {
+            if (send(emitter, closed, SseEmitter.event().name("error")
+                    .data(Map.of("success", false, "message", "I'm sorry, I'm having trouble processing your request right now. Please try again.")))) {
+                emitter.complete();
+            }
+        } finally {
+            openStreams.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns false once the client has gone away so the producer stops.
+     */
+    private boolean send(SseEmitter emitter, CompletableFuture<Void> closed, SseEmitter.SseEventBuilder event) {
+        if (closed.isDone()) {
+            return false;
+        }
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            closed.complete(null);
+            return false;
+        }
+    }
+}
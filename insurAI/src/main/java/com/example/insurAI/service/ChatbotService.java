@@ -1,254 +1,385 @@
 package com.example.insurAI.service;
 
+import com.example.insurAI.client.LlmClient;
+import com.example.insurAI.client.LlmPrompt;
+import com.example.insurAI.dto.AgentSummary;
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.dto.PolicySearchResult;
+import com.example.insurAI.exception.LlmUnavailableException;
 import com.example.insurAI.entity.*;
 import com.example.insurAI.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 @Service
 public class ChatbotService {
     
+    private static final int STREAM_CHUNK_CHARS = 24;
+    
+    private static final Set<IntentEngine.Intent> SHARED_ANSWER_INTENTS = EnumSet.of(
+        IntentEngine.Intent.COMPARISON, IntentEngine.Intent.POLICIES, IntentEngine.Intent.HEALTH,
+        IntentEngine.Intent.VEHICLE, IntentEngine.Intent.LIFE, IntentEngine.Intent.CLAIMS,
+        IntentEngine.Intent.PREMIUM, IntentEngine.Intent.APPLICATION, IntentEngine.Intent.DOCUMENTS,
+        IntentEngine.Intent.BENEFITS, IntentEngine.Intent.CONTACT, IntentEngine.Intent.ELIGIBILITY,
+        IntentEngine.Intent.RENEWAL);
+    
+    private static final Set<IntentEngine.Intent> POLICY_MATCH_INTENTS = EnumSet.of(
+        IntentEngine.Intent.POLICIES, IntentEngine.Intent.HEALTH, IntentEngine.Intent.VEHICLE,
+        IntentEngine.Intent.LIFE, IntentEngine.Intent.PREMIUM, IntentEngine.Intent.BENEFITS);
+    
+    private static final int RELEVANT_POLICY_LIMIT = 3;
+    
+    private static final int AGENT_LIST_LIMIT = 5;
+    
+    @Autowired
+    private AgentDirectoryService agentDirectoryService;
+    
     @Autowired
-    private PolicyRepository policyRepository;
+    private IntentEngine intentEngine;
     
     @Autowired
-    private PolicyApplicationRepository applicationRepository;
+    private ChatContextService chatContextService;
     
     @Autowired
-    private AppointmentRepository appointmentRepository;
+    private LlmClient llmClient;
     
     @Autowired
-    private UserRepository userRepository;
+    private ChatAnswerCache answerCache;
+    
+    @Autowired
+    private ConversationMemory conversationMemory;
+    
+    @Autowired
+    private PolicySearchService policySearchService;
+    
+    @Autowired
+    private PolicyComparisonService policyComparisonService;
+    
+    @Autowired
+    private ChatBulkhead chatBulkhead;
     
     @Value("${openai.api.key:demo-key}")
     private String openaiApiKey;
     
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final String OPENAI_URL = "https://api.openai.com/v1/chat/completions";
+    @Value("${chatbot.llm.model:gpt-3.5-turbo}")
+    private String model;
     
-    public Map<String, Object> processUserMessage(String message, Long userId) {
-        Map<String, Object> response = new HashMap<>();
-        
+    @Value("${chatbot.llm.max-tokens:150}")
+    private int maxTokens;
+    
+    /**
+     * Answers a chat message. The returned future completes once the model (or
+     * the local fallback) has replied, so the request thread is not held meanwhile.
+     * Work runs inside the chat bulkhead; on overflow the keyword fallback answers.
+     * Context and conversation memory are keyed by the authenticated caller only.
+     */
+    public CompletableFuture<Map<String, Object>> processUserMessage(String message, AuthenticatedUser user) {
+        CompletableFuture<String> reply;
+        Long userId = user.id();
         try {
-            User user = userRepository.findById(userId).orElse(null);
-            String aiResponse = generateAIResponse(message.toLowerCase(), user);
-            
-            response.put("message", aiResponse);
-            response.put("timestamp", LocalDateTime.now());
-            response.put("success", true);
-            
+            String lowerMessage = message.toLowerCase();
+            reply = chatBulkhead.submit(() -> {
+                ChatContextService.ChatContext context = chatContextService.getContext(userId).orElse(null);
+                return generateAIResponse(lowerMessage, userId, context);
+            }, () -> getFallbackResponse(lowerMessage));
         } catch (Exception e) {
-            response.put("message", "I'm sorry, I'm having trouble processing your request right now. Please try again.");
-            response.put("success", false);
+            // A missing message gets the same error reply as a failed model call
+            reply = CompletableFuture.failedFuture(e);
         }
-        
-        return response;
+
+        return reply.handle((aiResponse, error) -> {
+            Map<String, Object> response = new HashMap<>();
+            if (error == null) {
+                conversationMemory.record(userId, message, aiResponse);
+                response.put("message", aiResponse);
+                response.put("timestamp", LocalDateTime.now());
+                response.put("success", true);
+            } else {
+                response.put("message", "I'm sorry, I'm having trouble processing your request right now. Please try again.");
+                response.put("success", false);
+            }
+            return response;
+        });
     }
     
-    private String generateAIResponse(String message, User user) {
+    /**
+     * Streams the reply to {@code sink} chunk by chunk, from the model when it
+     * is configured and from the local fallback otherwise. Blocks until the
+     * reply ends, the sink returns false or {@code cancellation} completes, so
+     * callers run it on a virtual thread.
+     */
+    public void streamUserMessage(String message, AuthenticatedUser user, Predicate<String> sink, CompletableFuture<?> cancellation) {
+        Long userId = user.id();
+        ChatContextService.ChatContext userContext = chatContextService.getContext(userId).orElse(null);
+        String lowerMessage = message.toLowerCase();
+        StringBuilder answer = new StringBuilder();
+        Predicate<String> recordingSink = chunk -> {
+            answer.append(chunk);
+            return sink.test(chunk);
+        };
+        
         try {
-            String context = buildUserContext(user);
-            return callOpenAI(message, context);
-        } catch (Exception e) {
-            return getFallbackResponse(message, user);
+            streamReply(lowerMessage, userId, userContext, recordingSink, cancellation);
+        } finally {
+            if (answer.length() > 0) {
+                conversationMemory.record(userId, message, answer.toString());
+            }
         }
     }
     
-    private String buildUserContext(User user) {
-        StringBuilder context = new StringBuilder("You are InsurAI, a helpful insurance assistant. ");
-        
-        if (user != null) {
-            List<Policy> allPolicies = policyRepository.findByStatus(PolicyStatus.ACTIVE);
-            List<PolicyApplication> userApplications = applicationRepository.findByUserId(user.getId());
-            List<Appointment> userAppointments = appointmentRepository.findByCustomerId(user.getId());
-            
-            context.append(String.format("User: %s (%s). ", user.getFullName(), user.getRole()));
-            context.append(String.format("Available policies: %d. ", allPolicies.size()));
-            context.append(String.format("User applications: %d. ", userApplications.size()));
-            context.append(String.format("User appointments: %d. ", userAppointments.size()));
-        }
-        
-        context.append("Help with insurance policies, claims, appointments, and applications.");
-        return context.toString();
+    /**
+     * Streams the keyword fallback answer, used when the chat bulkhead is saturated.
+     */
+    public void streamDegradedReply(String message, Predicate<String> sink) {
+        emitInChunks(getFallbackResponse(message.toLowerCase()), sink);
     }
     
-    private String callOpenAI(String message, String context) {
-        if ("demo-key".equals(openaiApiKey) || "your-openai-api-key-here".equals(openaiApiKey)) {
-            return "AI service not configured. Using demo mode.";
+    private void streamReply(String message, Long userId, ChatContextService.ChatContext userContext,
+                             Predicate<String> sink, CompletableFuture<?> cancellation) {
+        String offline = offlineReply(message);
+        if (offline != null) {
+            emitInChunks(offline, sink);
+            return;
         }
         
-        if (openaiApiKey == null || !openaiApiKey.startsWith("sk-")) {
-            System.err.println("Invalid OpenAI API key format: " + (openaiApiKey != null ? openaiApiKey.substring(0, Math.min(10, openaiApiKey.length())) + "..." : "null"));
-            return getFallbackResponse(message, null);
+        PromptPlan plan = planPrompt(message, userId, userContext);
+        Optional<String> cached = answerCache.get(plan.cacheKey());
+        if (cached.isPresent()) {
+            emitInChunks(cached.get(), sink);
+            return;
         }
         
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(openaiApiKey);
-        
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", "gpt-3.5-turbo");
-        requestBody.put("messages", List.of(
-            Map.of("role", "system", "content", context),
-            Map.of("role", "user", "content", message)
-        ));
-        requestBody.put("max_tokens", 150);
-        
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-        
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        StringBuilder answer = new StringBuilder();
         try {
-            @SuppressWarnings("unchecked")
-            ResponseEntity<Map<String, Object>> response = restTemplate.postForEntity(OPENAI_URL, entity, 
-                (Class<Map<String, Object>>) (Class<?>) Map.class);
-            Map<String, Object> responseBody = response.getBody();
-            
-            if (responseBody != null && responseBody.containsKey("choices")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> choices = (List<Map<String, Object>>) responseBody.get("choices");
-                if (!choices.isEmpty()) {
-                    Map<String, Object> firstChoice = choices.get(0);
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> messageObj = (Map<String, Object>) firstChoice.get("message");
-                    return (String) messageObj.get("content");
+            llmClient.stream(plan.prompt(), chunk -> {
+                started.set(true);
+                answer.append(chunk);
+                if (!sink.test(chunk)) {
+                    cancelled.set(true);
+                    return false;
                 }
+                return true;
+            }, cancellation);
+            if (!cancelled.get()) {
+                answerCache.put(plan.cacheKey(), answer.toString());
             }
-        } catch (Exception e) {
+        } catch (LlmUnavailableException e) {
             System.err.println("OpenAI API Error: " + e.getMessage());
-            return getFallbackResponse(message, null);
+            if (started.get()) {
+                // Part of the model's answer is already out; don't splice a different reply onto it
+                throw e;
+            }
+            emitInChunks(getFallbackResponse(message), sink);
         }
-        
-        return "I'm having trouble connecting to AI services. Please try again.";
     }
     
-    private String getFallbackResponse(String message, User user) {
-        List<Policy> allPolicies = policyRepository.findByStatus(PolicyStatus.ACTIVE);
-        return generateIntelligentResponse(message.toLowerCase(), allPolicies, user);
+    private void emitInChunks(String reply, Predicate<String> sink) {
+        int start = 0;
+        while (start < reply.length()) {
+            // Cut after whitespace so each chunk ends on a word boundary
+            int end = Math.min(start + STREAM_CHUNK_CHARS, reply.length());
+            while (end < reply.length() && !Character.isWhitespace(reply.charAt(end - 1))) {
+                end++;
+            }
+            if (!sink.test(reply.substring(start, end))) {
+                return;
+            }
+            start = end;
+        }
     }
     
-    private String generateIntelligentResponse(String message, List<Policy> policies, User user) {
-        String msg = message.toLowerCase();
-        
-        // Agents Information - Check first
-        if (msg.contains("agent") || msg.contains("available") || msg.contains("portal")) {
-            return generateAgentInformation();
-        }
-        
-        // Detect intent from any natural language question
-        if (message.matches(".*(compare|comparison|difference|vs|versus|better|which.*better|can you compare).*") ||
-            (message.contains("health") && message.contains("vehicle")) ||
-            (message.contains("health") && message.contains("life")) ||
-            (message.contains("vehicle") && message.contains("life"))) {
-            return generatePolicyComparison(policies, message);
-        }
-        
-        // Greetings
-        if (msg.contains("hello") || msg.contains("hi") || msg.contains("hey")) {
-            return String.format("Hello! I'm your InsurAI assistant. We have %d active policies available. How can I help you today?", policies.size());
-        }
-        
-        // Policies and Insurance
-        if (msg.contains("policies") || msg.contains("insurance") || msg.contains("available") || msg.contains("types") || msg.contains("plans")) {
-            return String.format("We offer %d insurance policies including Health, Vehicle, and Life insurance. You can browse policies, apply for coverage, or schedule appointments with our agents. What interests you?", policies.size());
-        }
-        
-        // Health Insurance
-        if (msg.contains("health") || msg.contains("medical") || msg.contains("hospital")) {
-            return "Our health insurance policies cover medical expenses, hospitalization, surgeries, and preventive care. Coverage ranges from ₹5,00,000 to ₹25,00,000. Would you like to see available health plans?";
+    private CompletableFuture<String> generateAIResponse(String message, Long userId, ChatContextService.ChatContext userContext) {
+        try {
+            return callOpenAI(message, userId, userContext);
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(getFallbackResponse(message));
         }
-        
-        // Vehicle Insurance
-        if (msg.contains("vehicle") || msg.contains("car") || msg.contains("bike") || msg.contains("auto")) {
-            return "Our vehicle insurance covers cars, bikes, and commercial vehicles. We offer comprehensive coverage including third-party liability, own damage, and theft protection. Interested in getting a quote?";
+    }
+    
+    private record PromptPlan(LlmPrompt prompt, ChatAnswerCache.Key cacheKey) {
+    }
+    
+    /**
+     * General product questions get a context without user details or history,
+     * so their answers can be cached once and shared by everyone. Other
+     * questions carry the user's context and recent turns, and are only cached
+     * when they open a conversation.
+     */
+    private PromptPlan planPrompt(String message, Long userId, ChatContextService.ChatContext userContext) {
+        boolean shared = SHARED_ANSWER_INTENTS.contains(intentEngine.classify(message));
+        String context = buildUserContext(shared ? null : userContext) + describeRelevantPolicies(message);
+        
+        List<LlmPrompt.Message> history = new ArrayList<>();
+        if (!shared) {
+            for (ConversationMemory.Turn turn : conversationMemory.history(userId)) {
+                history.add(new LlmPrompt.Message("user", turn.userMessage()));
+                history.add(new LlmPrompt.Message("assistant", turn.reply()));
+            }
         }
         
-        // Life Insurance
-        if (msg.contains("life") || msg.contains("term")) {
-            return "Our life insurance policies provide financial security for your family. We offer term life, whole life, and endowment plans with coverage up to ₹1 crore. Would you like to know more about our life insurance options?";
-        }
+        ChatAnswerCache.Key cacheKey = history.isEmpty() ? answerCache.keyFor(context, message) : null;
+        return new PromptPlan(new LlmPrompt(model, context, history, message, maxTokens), cacheKey);
+    }
+    
+    private String buildUserContext(ChatContextService.ChatContext userContext) {
+        StringBuilder context = new StringBuilder("You are InsurAI, a helpful insurance assistant. ");
         
-        // Appointments
-        if (msg.contains("appointment") || msg.contains("schedule") || msg.contains("meeting") || msg.contains("book")) {
-            return "I can help you schedule an appointment with one of our insurance agents. You can book appointments for policy consultations, claim processing, or general inquiries. Would you like to see available time slots?";
+        if (userContext != null) {
+            context.append(String.format("User: %s (%s). ", userContext.fullName(), userContext.role()));
+            context.append(String.format("Available policies: %d. ", chatContextService.getActivePolicyCount()));
+            context.append(String.format("User applications: %d. ", userContext.applicationCount()));
+            context.append(String.format("User appointments: %d. ", userContext.appointmentCount()));
         }
         
-        // Claims
-        if (msg.contains("claim") || msg.contains("file") || msg.contains("submit")) {
-            return "To file an insurance claim, you'll need your policy number and relevant documents. The process typically takes 7-14 days. I can guide you through the claims process. Do you have an active policy you'd like to file a claim for?";
+        context.append("Help with insurance policies, claims, appointments, and applications.");
+        return context.toString();
+    }
+    
+    /**
+     * Grounds the prompt with the policies that best match the question.
+     */
+    private String describeRelevantPolicies(String message) {
+        List<PolicySearchResult> matches = policySearchService.search(message, RELEVANT_POLICY_LIMIT);
+        if (matches.isEmpty()) {
+            return "";
         }
-        
-        // Premium and Pricing
-        if (msg.contains("premium") || msg.contains("price") || msg.contains("cost") || msg.contains("how much")) {
-            return "Insurance premiums vary based on coverage type, age, and risk factors. Health insurance starts from ₹5,000/year, Vehicle from ₹3,000/year, and Life insurance from ₹8,000/year. Would you like a personalized quote?";
+        StringBuilder description = new StringBuilder(" Relevant policies: ");
+        for (PolicySearchResult match : matches) {
+            description.append(String.format("%s (%s, premium ₹%,.0f, coverage: %s); ",
+                match.policyName(), match.policyType(), match.premium().doubleValue(),
+                match.coverage() != null ? match.coverage() : "Standard Coverage"));
         }
-        
-        // Applications
-        if (msg.contains("apply") || msg.contains("application") || msg.contains("how to")) {
-            return "To apply for insurance, you can browse our policies, select one that suits your needs, and fill out the application form. You'll need identity proof, address proof, and relevant documents. Shall I guide you through the application process?";
+        return description.toString();
+    }
+    
+    private CompletableFuture<String> callOpenAI(String message, Long userId, ChatContextService.ChatContext userContext) {
+        String offline = offlineReply(message);
+        if (offline != null) {
+            return CompletableFuture.completedFuture(offline);
         }
         
-        // Documents
-        if (msg.contains("document") || msg.contains("papers") || msg.contains("required")) {
-            return "Required documents typically include: ID proof (Aadhaar/PAN), address proof, income proof, medical reports (for health insurance), and vehicle registration (for auto insurance). What type of policy are you interested in?";
+        PromptPlan plan = planPrompt(message, userId, userContext);
+        Optional<String> cached = answerCache.get(plan.cacheKey());
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
         }
         
-        // Benefits
-        if (msg.contains("benefit") || msg.contains("coverage") || msg.contains("what does")) {
-            return "Our insurance policies offer comprehensive benefits including cashless treatment, 24/7 claim support, nationwide network, tax benefits under Section 80C/80D, and quick claim settlement. Which policy benefits interest you most?";
+        // Timeouts and an open circuit both surface as failures and fall back locally
+        return llmClient.complete(plan.prompt())
+            .thenApply(reply -> {
+                answerCache.put(plan.cacheKey(), reply);
+                return reply;
+            })
+            .exceptionally(e -> {
+                System.err.println("OpenAI API Error: " + e.getMessage());
+                return getFallbackResponse(message);
+            });
+    }
+    
+    /**
+     * Returns the reply to use when no model key is configured, or null when the model should be called.
+     */
+    private String offlineReply(String message) {
+        if ("demo-key".equals(openaiApiKey) || "your-openai-api-key-here".equals(openaiApiKey)) {
+            return "AI service not configured. Using demo mode.";
         }
         
-
-        
-        // Contact and Support
-        if (msg.contains("contact") || msg.contains("phone") || msg.contains("email") || msg.contains("support")) {
-            return "You can reach our support team 24/7. I'm here to assist you with: 📋 Browsing policies, 📝 Filing applications, 📅 Scheduling appointments, 💬 Answering questions, and 📞 Connecting you with agents. What would you like to do?";
+        if (openaiApiKey == null || !openaiApiKey.startsWith("sk-")) {
+            System.err.println("Invalid OpenAI API key format: " + (openaiApiKey != null ? openaiApiKey.substring(0, Math.min(10, openaiApiKey.length())) + "..." : "null"));
+            return getFallbackResponse(message);
         }
-        
-        // Age and Eligibility
-        if (msg.contains("age") || msg.contains("eligible") || msg.contains("qualify")) {
-            return "Eligibility varies by policy type. Health insurance: 18-65 years, Vehicle insurance: Valid license holders, Life insurance: 18-60 years. Pre-existing conditions and other factors may apply. Would you like to check eligibility for a specific policy?";
+        return null;
+    }
+    
+    private String getFallbackResponse(String message) {
+        IntentEngine.Intent intent = intentEngine.classify(message);
+        String reply = generateIntelligentResponse(message, intent, chatContextService.getActivePolicyCount());
+        if (!POLICY_MATCH_INTENTS.contains(intent)) {
+            return reply;
         }
         
-        // Renewal
-        if (msg.contains("renew") || msg.contains("renewal") || msg.contains("expire")) {
-            return "Policy renewal is easy! You can renew online or through our agents. We send renewal reminders 30 days before expiry. Continuous coverage ensures no waiting periods. Need help with renewal?";
+        List<PolicySearchResult> matches = policySearchService.search(message, RELEVANT_POLICY_LIMIT);
+        if (matches.isEmpty()) {
+            return reply;
         }
-        
-        // Policy Comparison
-        if (msg.contains("compare") || msg.contains("difference") || msg.contains("vs") || msg.contains("better") || 
-            (msg.contains("can you") && (msg.contains("health") || msg.contains("vehicle") || msg.contains("life"))) ||
-            (msg.contains("which") && msg.contains("policy"))) {
-            return generatePolicyComparison(policies, msg);
+        StringBuilder withMatches = new StringBuilder(reply).append("\n\nPolicies matching your question:\n");
+        for (PolicySearchResult match : matches) {
+            withMatches.append(String.format("• %s (%s) - Premium: ₹%,.0f\n",
+                match.policyName(), match.policyType(), match.premium().doubleValue()));
         }
-        
-        // General questions
-        if (msg.contains("what") || msg.contains("how") || msg.contains("why") || msg.contains("when") || msg.contains("?")) {
-            return "I'm here to help with all your insurance questions! I can assist with policy information, applications, claims, appointments, and general insurance guidance. Could you be more specific about what you'd like to know?";
+        return withMatches.toString();
+    }
+    
+    private String generateIntelligentResponse(String message, IntentEngine.Intent intent, long activePolicyCount) {
+        
+        switch (intent) {
+            case AGENTS:
+                return generateAgentInformation();
+            case COMPARISON:
+                return policyComparisonService.getChatReply();
+            case GREETING:
+                return String.format("Hello! I'm your InsurAI assistant. We have %d active policies available. How can I help you today?", activePolicyCount);
+            case POLICIES:
+                return String.format("We offer %d insurance policies including Health, Vehicle, and Life insurance. You can browse policies, apply for coverage, or schedule appointments with our agents. What interests you?", activePolicyCount);
+            case HEALTH:
+                return "Our health insurance policies cover medical expenses, hospitalization, surgeries, and preventive care. Coverage ranges from ₹5,00,000 to ₹25,00,000. Would you like to see available health plans?";
+            case VEHICLE:
+                return "Our vehicle insurance covers cars, bikes, and commercial vehicles. We offer comprehensive coverage including third-party liability, own damage, and theft protection. Interested in getting a quote?";
+            case LIFE:
+                return "Our life insurance policies provide financial security for your family. We offer term life, whole life, and endowment plans with coverage up to ₹1 crore. Would you like to know more about our life insurance options?";
+            case APPOINTMENT:
+                return "I can help you schedule an appointment with one of our insurance agents. You can book appointments for policy consultations, claim processing, or general inquiries. Would you like to see available time slots?";
+            case CLAIMS:
+                return "To file an insurance claim, you'll need your policy number and relevant documents. The process typically takes 7-14 days. I can guide you through the claims process. Do you have an active policy you'd like to file a claim for?";
+            case PREMIUM:
+                return "Insurance premiums vary based on coverage type, age, and risk factors. Health insurance starts from ₹5,000/year, Vehicle from ₹3,000/year, and Life insurance from ₹8,000/year. Would you like a personalized quote?";
+            case APPLICATION:
+                return "To apply for insurance, you can browse our policies, select one that suits your needs, and fill out the application form. You'll need identity proof, address proof, and relevant documents. Shall I guide you through the application process?";
+            case DOCUMENTS:
+                return "Required documents typically include: ID proof (Aadhaar/PAN), address proof, income proof, medical reports (for health insurance), and vehicle registration (for auto insurance). What type of policy are you interested in?";
+            case BENEFITS:
+                return "Our insurance policies offer comprehensive benefits including cashless treatment, 24/7 claim support, nationwide network, tax benefits under Section 80C/80D, and quick claim settlement. Which policy benefits interest you most?";
+            case CONTACT:
+                return "You can reach our support team 24/7. I'm here to assist you with: 📋 Browsing policies, 📝 Filing applications, 📅 Scheduling appointments, 💬 Answering questions, and 📞 Connecting you with agents. What would you like to do?";
+            case ELIGIBILITY:
+                return "Eligibility varies by policy type. Health insurance: 18-65 years, Vehicle insurance: Valid license holders, Life insurance: 18-60 years. Pre-existing conditions and other factors may apply. Would you like to check eligibility for a specific policy?";
+            case RENEWAL:
+                return "Policy renewal is easy! You can renew online or through our agents. We send renewal reminders 30 days before expiry. Continuous coverage ensures no waiting periods. Need help with renewal?";
+            case GENERAL_QUESTION:
+                return "I'm here to help with all your insurance questions! I can assist with policy information, applications, claims, appointments, and general insurance guidance. Could you be more specific about what you'd like to know?";
+            default:
+                // Smart default response - analyze the question
+                return generateSmartResponse(message, activePolicyCount, intent == IntentEngine.Intent.SMART_SUGGESTIONS);
         }
-        
-        // Smart default response - analyze the question
-        return generateSmartResponse(message, policies);
     }
     
-    private String generateSmartResponse(String message, List<Policy> policies) {
+    private String generateSmartResponse(String message, long activePolicyCount, boolean suggestTopics) {
         // Extract key topics from the question
         StringBuilder response = new StringBuilder();
         
-        if (message.contains("?")) {
+        if (message.indexOf('?') >= 0) {
             response.append("Great question! ");
         }
         
-        response.append("I'm your InsurAI assistant with access to ").append(policies.size()).append(" insurance policies. ");
+        response.append("I'm your InsurAI assistant with access to ").append(activePolicyCount).append(" insurance policies. ");
         
         // Suggest relevant topics based on the question
-        if (message.matches(".*(what|how|when|where|why|can|should|will).*")) {
+        if (suggestTopics) {
             response.append("\n\nI can help you with:\n");
             response.append("• 📋 Policy information and comparisons\n");
             response.append("• 💰 Premium costs and quotes\n");
@@ -264,77 +395,41 @@ public class ChatbotService {
         return response.toString();
     }
     
-    private String generatePolicyComparison(List<Policy> policies, String message) {
-        if (policies.isEmpty()) {
-            return "No policies available for comparison at the moment. Please check back later.";
-        }
-        
-        StringBuilder comparison = new StringBuilder("📊 **Policy Comparison Overview:**\n\n");
-        
-        // Group policies by type
-        Map<String, List<Policy>> policyGroups = policies.stream()
-            .collect(java.util.stream.Collectors.groupingBy(Policy::getPolicyType));
-        
-        for (Map.Entry<String, List<Policy>> entry : policyGroups.entrySet()) {
-            String type = entry.getKey();
-            List<Policy> typePolicies = entry.getValue();
-            
-            comparison.append(String.format("**%s Insurance (%d policies):**\n", type, typePolicies.size()));
-            
-            for (Policy policy : typePolicies.subList(0, Math.min(3, typePolicies.size()))) {
-                comparison.append(String.format(
-                    "• %s - Premium: ₹%,.0f, Coverage: %s\n",
-                    policy.getPolicyName(),
-                    policy.getPremium().doubleValue(),
-                    policy.getCoverage() != null ? policy.getCoverage() : "Standard Coverage"
-                ));
-            }
-            comparison.append("\n");
-        }
-        
-        comparison.append("💡 **Key Differences:**\n");
-        comparison.append("• Premium amounts vary based on coverage and risk\n");
-        comparison.append("• Coverage limits differ by policy type\n");
-        comparison.append("• Benefits and exclusions vary\n");
-        comparison.append("• Claim settlement processes may differ\n\n");
-        
-        comparison.append("Would you like detailed comparison of specific policies? Ask me about 'health vs life insurance' or 'compare vehicle policies'!");
-        
-        return comparison.toString();
-    }
-    
     private String generateAgentInformation() {
         try {
-            List<User> agents = userRepository.findByRole(Role.AGENT);
+            List<AgentSummary> agents = agentDirectoryService.top(AGENT_LIST_LIMIT);
             
             if (agents.isEmpty()) {
                 return "Currently, no agents are available in our system. Please check back later or contact our support team.";
             }
+            long totalAgents = agentDirectoryService.countAgents();
             
             StringBuilder agentInfo = new StringBuilder();
             agentInfo.append("👥 Available Insurance Agents\n");
             agentInfo.append("=".repeat(35)).append("\n\n");
             
-            for (int i = 0; i < Math.min(agents.size(), 5); i++) {
-                User agent = agents.get(i);
+            for (int i = 0; i < agents.size(); i++) {
+                AgentSummary agent = agents.get(i);
                 agentInfo.append(String.format(
                     "👨‍💼 Agent %d: %s\n" +
                     "   📧 Email: %s\n" +
                     "   🔄 Status: %s\n" +
+                    "   🗓️ Open slots: %d upcoming\n" +
                     "   💼 Specialization: Insurance Consultant\n\n",
                     i + 1,
-                    agent.getFullName(),
-                    agent.getEmail(),
-                    agent.isActive() ? "✅ Active & Available" : "❌ Currently Inactive"
+                    agent.fullName(),
+                    agent.email(),
+                    Boolean.TRUE.equals(agent.active()) ? "✅ Active & Available" : "❌ Currently Inactive",
+                    agent.upcomingFreeSlots()
                 ));
             }
             
-            if (agents.size() > 5) {
+            if (totalAgents > agents.size()) {
                 agentInfo.append(String.format("📈 Total: %d agents available (%d more not shown)\n\n", 
-                    agents.size(), agents.size() - 5));
+                    totalAgents, totalAgents - agents.size()));
             } else {
                 agentInfo.append(String.format("📈 Total: %d agent%s available\n\n", 
-                    agents.size(), agents.size() == 1 ? "" : "s"));
+                    totalAgents, totalAgents == 1 ? "" : "s"));
             }
             
             agentInfo.append("📅 How to Book an Appointment:\n");
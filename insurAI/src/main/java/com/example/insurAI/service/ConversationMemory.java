@@ -0,0 +1,163 @@
+package com.example.insurAI.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent chatbot turns per user, kept in memory only. Each conversation is a
+ * fixed-capacity ring buffer of capped-length turns, trimmed from the oldest
+ * end to stay within a token budget, so its footprint has a hard upper bound.
+ * The number of conversations is bounded too, and idle ones are evicted.
+ * Conversations are keyed by the authenticated user's id, never by an id
+ * taken from the request.
+ */
+@Service
+public class ConversationMemory {
+
+    public record Turn(String userMessage, String reply) {
+        int tokens() {
+            return estimateTokens(userMessage) + estimateTokens(reply);
+        }
+    }
+
+    private final int maxTurns;
+    private final int tokenBudget;
+    private final int maxTurnChars;
+    private final int maxConversations;
+    private final long idleMillis;
+
+    private final Map<Long, Conversation> conversations = new ConcurrentHashMap<>();
+
+    public ConversationMemory(MeterRegistry meterRegistry,
+                              @Value("${chatbot.memory.max-turns:8}") int maxTurns,
+                              @Value("${chatbot.memory.token-budget:600}") int tokenBudget,
+                              @Value("${chatbot.memory.max-turn-chars:1000}") int maxTurnChars,
+                              @Value("${chatbot.memory.max-conversations:10000}") int maxConversations,
+                              @Value("${chatbot.memory.idle-minutes:30}") long idleMinutes) {
+        this.maxTurns = maxTurns;
+        this.tokenBudget = tokenBudget;
+        this.maxTurnChars = maxTurnChars;
+        this.maxConversations = maxConversations;
+        this.idleMillis = idleMinutes * 60_000;
+        Gauge.builder("chatbot.memory.conversations", conversations, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the remembered turns for a user, oldest first.
+     */
+    public List<Turn> history(Long userId) {
+        Conversation conversation = userId != null ? conversations.get(userId) : null;
+        if (conversation == null) {
+            return List.of();
+        }
+        return conversation.snapshot(System.currentTimeMillis());
+    }
+
+    public void record(Long userId, String userMessage, String reply) {
+        if (userId == null || userMessage == null || reply == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Conversation conversation = conversations.get(userId);
+        if (conversation == null) {
+            makeRoom(now);
+            conversation = conversations.computeIfAbsent(userId, id -> new Conversation(maxTurns));
+        }
+        conversation.append(new Turn(truncate(userMessage), truncate(reply)), tokenBudget, now);
+    }
+
+    public void forget(Long userId) {
+        conversations.remove(userId);
+    }
+
+    public int getConversationCount() {
+        return conversations.size();
+    }
+
+    @Scheduled(fixedDelayString = "${chatbot.memory.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        conversations.values().removeIf(conversation -> conversation.lastAccess < cutoff);
+    }
+
+    static int estimateTokens(String text) {
+        // Roughly four characters per token for English text
+        return (text.length() + 3) / 4;
+    }
+
+    private void makeRoom(long now) {
+        if (conversations.size() < maxConversations) {
+            return;
+        }
+        evictIdle();
+        if (conversations.size() < maxConversations) {
+            return;
+        }
+        // Still full of active conversations - drop the least recently used one
+        Long oldestUser = null;
+        long oldestAccess = now;
+        for (Map.Entry<Long, Conversation> entry : conversations.entrySet()) {
+            if (entry.getValue().lastAccess <= oldestAccess) {
+                oldestAccess = entry.getValue().lastAccess;
+                oldestUser = entry.getKey();
+            }
+        }
+        if (oldestUser != null) {
+            conversations.remove(oldestUser);
+        }
+    }
+
+    private String truncate(String text) {
+        return text.length() <= maxTurnChars ? text : text.substring(0, maxTurnChars);
+    }
+
+    private static final class Conversation {
+        private final Turn[] ring;
+        private int head;
+        private int size;
+        private int tokens;
+        private volatile long lastAccess;
+
+        Conversation(int capacity) {
+            this.ring = new Turn[capacity];
+        }
+
+        synchronized void append(Turn turn, int tokenBudget, long now) {
+            lastAccess = now;
+            if (size == ring.length) {
+                dropOldest();
+            }
+            ring[(head + size) % ring.length] = turn;
+            size++;
+            tokens += turn.tokens();
+            // Keep at least the newest turn even if it alone exceeds the budget
+            while (tokens > tokenBudget && size > 1) {
+                dropOldest();
+            }
+        }
+
+        synchronized List<Turn> snapshot(long now) {
+            lastAccess = now;
+            List<Turn> turns = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                turns.add(ring[(head + i) % ring.length]);
+            }
+            return turns;
+        }
+
+        private void dropOldest() {
+            tokens -= ring[head].tokens();
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+            size--;
+        }
+    }
+}
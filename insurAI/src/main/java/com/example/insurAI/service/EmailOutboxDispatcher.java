@@ -0,0 +1,205 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.EmailOutbox;
+import com.example.insurAI.entity.EmailStatus;
+import com.example.insurAI.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the email outbox in batches. Each batch is sent through a single
+ * JavaMailSender call, which reuses one SMTP connection for all messages.
+ * Failed messages are retried with exponential backoff and dead-lettered
+ * after the configured number of attempts. Bodies carry one-time codes, so
+ * they are redacted once a row is sent or dead, and finished rows are purged
+ * after the retention period.
+ */
+@Service
+public class EmailOutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final String REDACTED_BODY = "[redacted]";
+    private static final int PURGE_BATCH_SIZE = 1000;
+    
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration retention;
+    
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter deadCounter;
+    private final Timer batchTimer;
+    
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.base-backoff-seconds:30}") long baseBackoffSeconds,
+                                 @Value("${email.outbox.retention-days:7}") long retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+        
+        this.sentCounter = Counter.builder("email.outbox.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("email.outbox.failed").register(meterRegistry);
+        this.deadCounter = Counter.builder("email.outbox.dead").register(meterRegistry);
+        this.batchTimer = Timer.builder("email.outbox.batch").register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        int claimed;
+        do {
+            claimed = dispatchBatch();
+        } while (claimed == batchSize);
+    }
+    
+    /**
+     * Claims, sends and records one batch.
+     *
+     * @return number of emails claimed
+     */
+    public int dispatchBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<SimpleMailMessage> messages = new ArrayList<>(batch.size());
+        for (EmailOutbox email : batch) {
+            messages.add(toMessage(email));
+        }
+        
+        Map<Object, Exception> failures = Map.of();
+        Exception batchFailure = null;
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        } finally {
+            sample.stop(batchTimer);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            Exception failure = batchFailure != null ? batchFailure : failures.get(messages.get(i));
+            if (failure == null) {
+                markSent(email, now);
+            } else {
+                markFailed(email, failure, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(batch));
+        return batch.size();
+    }
+    
+    /**
+     * Deletes sent and dead-lettered rows older than the retention period.
+     *
+     * @return number of rows deleted
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public int purgeFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = transactionTemplate.execute(status ->
+                outboxRepository.deleteFinishedBefore(cutoff, PURGE_BATCH_SIZE));
+            deleted = batch != null ? batch : 0;
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        
+        if (total > 0) {
+            log.info("Purged {} finished outbox emails created before {}", total, cutoff);
+        }
+        return total;
+    }
+    
+    private List<EmailOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = outboxRepository.findDue(EmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+        // Lease the rows so a crash mid-send makes them due again later
+        for (EmailOutbox email : due) {
+            email.setNextAttemptAt(now.plus(CLAIM_LEASE));
+        }
+        return outboxRepository.saveAll(due);
+    }
+    
+    private void markSent(EmailOutbox email, LocalDateTime now) {
+        email.setStatus(EmailStatus.SENT);
+        email.setSentAt(now);
+        email.setLastError(null);
+        email.setBody(REDACTED_BODY);
+        sentCounter.increment();
+    }
+    
+    private void markFailed(EmailOutbox email, Exception failure, LocalDateTime now) {
+        email.setAttempts(email.getAttempts() + 1);
+        String error = String.valueOf(failure.getMessage());
+        email.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        failedCounter.increment();
+        
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailStatus.DEAD);
+            email.setBody(REDACTED_BODY);
+            deadCounter.increment();
+            log.warn("Dead-lettered email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(), email.getAttempts(), error);
+            return;
+        }
+        
+        Duration backoff = baseBackoff.multipliedBy(1L << Math.min(email.getAttempts() - 1, 16));
+        if (backoff.compareTo(MAX_BACKOFF) > 0) {
+            backoff = MAX_BACKOFF;
+        }
+        email.setNextAttemptAt(now.plus(backoff));
+    }
+    
+    private static SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(email.getSender());
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+}
@@ -1,46 +1,44 @@
 package com.example.insurAI.service;
 
+import com.example.insurAI.entity.EmailOutbox;
+import com.example.insurAI.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+/**
+ * Queues outgoing mail in the email outbox. Rows are written in the caller's
+ * transaction and delivered later by {@link EmailOutboxDispatcher}, so no
+ * request ever waits on SMTP.
+ */
 @Service
 public class EmailService {
-    private final JavaMailSender mailSender;
+    private static final String SENDER = "mithunraj.m2005@gmail.com";
+
+    private final EmailOutboxRepository outboxRepository;
 
     @Autowired
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
     }
 
     public void sendVerificationEmail(String email, String code) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(email);
-            message.setSubject("Email Verification Code - InsurAI");
-            message.setText("Your verification code is: " + code + "\n\nThis code will expire in 10 minutes.");
-            message.setFrom("mithunraj.m2005@gmail.com");
-            mailSender.send(message);
-            System.out.println("Verification code sent to: " + email);
-        } catch (Exception e) {
-            System.out.println("Failed to send email: " + e.getMessage());
-            System.out.println("Verification code: " + code);
-        }
+        enqueue(email, "Email Verification Code - InsurAI",
+            "Your verification code is: " + code + "\n\nThis code will expire in 10 minutes.");
+        System.out.println("Verification code queued for: " + email);
     }
 
     public void sendPasswordResetEmail(String email, String code) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(email);
-            message.setSubject("Password Reset Code - InsurAI");
-            message.setText("Your password reset code is: " + code + "\n\nThis code will expire in 10 minutes.");
-            message.setFrom("mithunraj.m2005@gmail.com");
-            mailSender.send(message);
-            System.out.println("Password reset code sent to: " + email);
-        } catch (Exception e) {
-            System.out.println("Failed to send email: " + e.getMessage());
-            System.out.println("Reset code: " + code);
-        }
+        enqueue(email, "Password Reset Code - InsurAI",
+            "Your password reset code is: " + code + "\n\nThis code will expire in 10 minutes.");
+        System.out.println("Password reset code queued for: " + email);
+    }
+
+    private void enqueue(String recipient, String subject, String body) {
+        EmailOutbox email = new EmailOutbox();
+        email.setSender(SENDER);
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        outboxRepository.save(email);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.util.KeywordAutomaton;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classifies chatbot messages for the keyword fallback path. Intents are
+ * declared as an ordered rule table; every keyword in the table is compiled
+ * into one automaton so a message is scanned once, then rules are checked
+ * against the resulting bitset in priority order.
+ */
+@Service
+public class IntentEngine {
+    
+    public enum Intent {
+        AGENTS, COMPARISON, GREETING, POLICIES, HEALTH, VEHICLE, LIFE, APPOINTMENT, CLAIMS, PREMIUM,
+        APPLICATION, DOCUMENTS, BENEFITS, CONTACT, ELIGIBILITY, RENEWAL, GENERAL_QUESTION,
+        SMART_SUGGESTIONS, SMART_DEFAULT
+    }
+    
+    /**
+     * A rule fires when any of its conditions holds. A condition holds when
+     * every one of its keyword groups has at least one keyword present.
+     */
+    private record Rule(Intent intent, List<List<List<String>>> conditions) {
+    }
+    
+    // Order matters: the first matching rule wins
+    private static final List<Rule> RULES = List.of(
+        rule(Intent.AGENTS, any("agent", "available", "portal")),
+        rule(Intent.COMPARISON, any("compare", "comparison", "difference", "vs", "versus", "better"),
+            all(List.of("health"), List.of("vehicle")),
+            all(List.of("health"), List.of("life")),
+            all(List.of("vehicle"), List.of("life"))),
+        rule(Intent.GREETING, any("hello", "hi", "hey")),
+        rule(Intent.POLICIES, any("policies", "insurance", "available", "types", "plans")),
+        rule(Intent.HEALTH, any("health", "medical", "hospital")),
+        rule(Intent.VEHICLE, any("vehicle", "car", "bike", "auto")),
+        rule(Intent.LIFE, any("life", "term")),
+        rule(Intent.APPOINTMENT, any("appointment", "schedule", "meeting", "book")),
+        rule(Intent.CLAIMS, any("claim", "file", "submit")),
+        rule(Intent.PREMIUM, any("premium", "price", "cost", "how much")),
+        rule(Intent.APPLICATION, any("apply", "application", "how to")),
+        rule(Intent.DOCUMENTS, any("document", "papers", "required")),
+        rule(Intent.BENEFITS, any("benefit", "coverage", "what does")),
+        rule(Intent.CONTACT, any("contact", "phone", "email", "support")),
+        rule(Intent.ELIGIBILITY, any("age", "eligible", "qualify")),
+        rule(Intent.RENEWAL, any("renew", "renewal", "expire")),
+        rule(Intent.COMPARISON, any("compare", "difference", "vs", "better"),
+            all(List.of("can you"), List.of("health", "vehicle", "life")),
+            all(List.of("which"), List.of("policy"))),
+        rule(Intent.GENERAL_QUESTION, any("what", "how", "why", "when", "?")),
+        rule(Intent.SMART_SUGGESTIONS, any("what", "how", "when", "where", "why", "can", "should", "will"))
+    );
+    
+    private final KeywordAutomaton automaton;
+    private final int[][][][] compiledRules;
+    
+    public IntentEngine() {
+        Set<String> keywords = new LinkedHashSet<>();
+        for (Rule rule : RULES) {
+            rule.conditions().forEach(condition -> condition.forEach(keywords::addAll));
+        }
+        this.automaton = new KeywordAutomaton(new ArrayList<>(keywords));
+        
+        // rule -> condition -> group -> keyword index
+        this.compiledRules = new int[RULES.size()][][][];
+        for (int r = 0; r < RULES.size(); r++) {
+            List<List<List<String>>> conditions = RULES.get(r).conditions();
+            compiledRules[r] = new int[conditions.size()][][];
+            for (int c = 0; c < conditions.size(); c++) {
+                List<List<String>> groups = conditions.get(c);
+                compiledRules[r][c] = new int[groups.size()][];
+                for (int g = 0; g < groups.size(); g++) {
+                    compiledRules[r][c][g] = groups.get(g).stream().mapToInt(automaton::indexOf).toArray();
+                }
+            }
+        }
+    }
+    
+    public Intent classify(CharSequence message) {
+        long[] matched = automaton.scan(message);
+        for (int r = 0; r < compiledRules.length; r++) {
+            if (matches(compiledRules[r], matched)) {
+                return RULES.get(r).intent();
+            }
+        }
+        return Intent.SMART_DEFAULT;
+    }
+    
+    private static boolean matches(int[][][] conditions, long[] matched) {
+        for (int[][] condition : conditions) {
+            boolean allGroups = true;
+            for (int[] group : condition) {
+                if (!anyMatched(group, matched)) {
+                    allGroups = false;
+                    break;
+                }
+            }
+            if (allGroups) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean anyMatched(int[] group, long[] matched) {
+        for (int keyword : group) {
+            if (KeywordAutomaton.contains(matched, keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    @SafeVarargs
+    private static Rule rule(Intent intent, List<List<String>>... conditions) {
+        return new Rule(intent, List.of(conditions));
+    }
+    
+    private static List<List<String>> any(String... keywords) {
+        return List.of(List.of(keywords));
+    }
+    
+    @SafeVarargs
+    private static List<List<String>> all(List<String>... groups) {
+        return List.of(groups);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.exception.RateLimitExceededException;
+import com.example.insurAI.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+
+/**
+ * Throttles login attempts per email and per client IP before any BCrypt work
+ * is done, so credential stuffing cannot saturate the hashing pool.
+ */
+@Service
+public class LoginRateLimiter {
+    
+    private final TokenBucketRateLimiter emailLimiter;
+    private final TokenBucketRateLimiter ipLimiter;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+    
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.rate-limit.email.capacity:5}") int emailCapacity,
+                            @Value("${auth.rate-limit.email.refill-per-second:0.1}") double emailRefill,
+                            @Value("${auth.rate-limit.ip.capacity:30}") int ipCapacity,
+                            @Value("${auth.rate-limit.ip.refill-per-second:1.0}") double ipRefill,
+                            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this.emailLimiter = new TokenBucketRateLimiter(emailCapacity, emailRefill, maxKeys);
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipRefill, maxKeys);
+        this.emailRejections = Counter.builder("auth.login.throttled").tag("key", "email").register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled").tag("key", "ip").register(meterRegistry);
+        meterRegistry.gauge("auth.login.throttle.keys", this, limiter -> limiter.emailLimiter.size() + limiter.ipLimiter.size());
+    }
+    
+    public void checkLoginAllowed(String email, String clientIp) {
+        if (clientIp != null) {
+            long waitMillis = ipLimiter.tryAcquire(clientIp);
+            if (waitMillis > 0) {
+                ipRejections.increment();
+                throw tooManyAttempts(waitMillis);
+            }
+        }
+        
+        if (email != null) {
+            long waitMillis = emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (waitMillis > 0) {
+                emailRejections.increment();
+                throw tooManyAttempts(waitMillis);
+            }
+        }
+    }
+    
+    private static RateLimitExceededException tooManyAttempts(long waitMillis) {
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+        return new RateLimitExceededException(
+            "Too many login attempts. Please try again in " + retryAfterSeconds + " seconds.", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.OneTimeCode;
+import com.example.insurAI.entity.OneTimeCodePurpose;
+import com.example.insurAI.repository.OneTimeCodeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and consumes single-use verification and password reset codes.
+ * Codes live in their own table keyed by an HMAC of the code, mirrored in an
+ * in-memory TTL index so lookups never touch the users table. The index is
+ * only changed once the database change has committed.
+ */
+@Service
+public class OneTimeCodeService {
+    
+    private static final int MAX_ISSUE_ATTEMPTS = 20;
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    // codeHash -> live code
+    private final Map<String, CodeEntry> codesByHash = new ConcurrentHashMap<>();
+    
+    @Autowired
+    private OneTimeCodeRepository oneTimeCodeRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${auth.codes.sweep-batch-size:500}")
+    private int sweepBatchSize;
+    
+    // Six digits are easy to enumerate, so the stored hash is keyed by a server secret
+    @Value("${auth.codes.hmac-secret:${jwt.secret}}")
+    private String hmacSecret;
+    
+    public record CodeEntry(Long userId, OneTimeCodePurpose purpose, LocalDateTime expiresAt) {
+        public boolean isExpired(LocalDateTime now) {
+            return expiresAt.isBefore(now);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLiveCodes() {
+        for (OneTimeCode code : oneTimeCodeRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            codesByHash.put(code.getCodeHash(), new CodeEntry(code.getUserId(), code.getPurpose(), code.getExpiresAt()));
+        }
+        System.out.println("Loaded " + codesByHash.size() + " live one-time codes");
+    }
+    
+    /**
+     * Issues a fresh 6-digit code, replacing any earlier code of the same purpose for the user.
+     */
+    @Transactional
+    public String issue(Long userId, OneTimeCodePurpose purpose, Duration ttl) {
+        List<String> replacedHashes = new ArrayList<>();
+        for (OneTimeCode previous : oneTimeCodeRepository.findByUserIdAndPurpose(userId, purpose)) {
+            replacedHashes.add(previous.getCodeHash());
+            oneTimeCodeRepository.delete(previous);
+        }
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+        for (int attempt = 0; attempt < MAX_ISSUE_ATTEMPTS; attempt++) {
+            String code = String.format("%06d", random.nextInt(1_000_000));
+            String hash = hash(purpose, code);
+            
+            // The unique key on code_hash still rejects a clash with a concurrent issue
+            if (codesByHash.containsKey(hash) || oneTimeCodeRepository.findByCodeHash(hash).isPresent()) {
+                continue;
+            }
+            
+            OneTimeCode oneTimeCode = new OneTimeCode();
+            oneTimeCode.setCodeHash(hash);
+            oneTimeCode.setPurpose(purpose);
+            oneTimeCode.setUserId(userId);
+            oneTimeCode.setExpiresAt(expiresAt);
+            oneTimeCodeRepository.save(oneTimeCode);
+            
+            CodeEntry entry = new CodeEntry(userId, purpose, expiresAt);
+            afterCommit(() -> {
+                replacedHashes.forEach(codesByHash::remove);
+                codesByHash.put(hash, entry);
+            });
+            return code;
+        }
+        throw new RuntimeException("Could not generate a unique code. Please try again.");
+    }
+    
+    /**
+     * Looks up a code without consuming it. Expired codes are still returned so
+     * callers can tell "expired" from "invalid".
+     */
+    public Optional<CodeEntry> find(String code, OneTimeCodePurpose purpose) {
+        if (code == null) {
+            return Optional.empty();
+        }
+        String hash = hash(purpose, code);
+        CodeEntry entry = codesByHash.get(hash);
+        if (entry != null) {
+            return Optional.of(entry);
+        }
+        // Issued by another instance or before this one started
+        return oneTimeCodeRepository.findByCodeHash(hash)
+            .filter(stored -> stored.getPurpose() == purpose)
+            .map(stored -> new CodeEntry(stored.getUserId(), stored.getPurpose(), stored.getExpiresAt()));
+    }
+    
+    /**
+     * Removes the code so it cannot be used again. The delete is conditional,
+     * so of two requests racing on one code only the one that removed the row
+     * gets true; an expired code is never consumed.
+     */
+    @Transactional
+    public boolean consume(String code, OneTimeCodePurpose purpose) {
+        if (code == null) {
+            return false;
+        }
+        String hash = hash(purpose, code);
+        int deleted = oneTimeCodeRepository.deleteLiveCode(hash, purpose, LocalDateTime.now());
+        afterCommit(() -> codesByHash.remove(hash));
+        return deleted == 1;
+    }
+    
+    @Scheduled(fixedDelayString = "${auth.codes.sweep-interval-ms:300000}")
+    public void sweepExpiredCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        codesByHash.values().removeIf(entry -> entry.isExpired(now));
+        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = transactionTemplate.execute(status ->
+                oneTimeCodeRepository.deleteExpiredBatch(now, sweepBatchSize));
+            deleted = batch != null ? batch : 0;
+            total += deleted;
+        } while (deleted == sweepBatchSize);
+        
+        if (total > 0) {
+            System.out.println("Swept " + total + " expired one-time codes");
+        }
+    }
+    
+    String hash(OneTimeCodePurpose purpose, String code) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            byte[] digest = mac.doFinal((purpose.name() + ":" + code).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", e);
+        }
+    }
+    
+    // Outside a transaction there is nothing to wait for
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
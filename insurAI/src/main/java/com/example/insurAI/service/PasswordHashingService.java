@@ -0,0 +1,126 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, core-count-sized pool
+ * so a login storm cannot occupy every servlet thread. The queue holds only a
+ * couple of hashes per core - far fewer than the servlet pool has threads - so
+ * when it is full callers are rejected immediately instead of piling up.
+ */
+@Service
+public class PasswordHashingService {
+    
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    
+    // Queued hashes per core when no capacity is configured
+    static final int QUEUE_PER_CORE = 2;
+    
+    private final PasswordEncoder passwordEncoder;
+    private final int configuredStrength;
+    private final long waitTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+    
+    private final Timer encodeTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+    
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.password.bcrypt-strength:10}") int configuredStrength,
+                                  @Value("${security.password.hash-queue-capacity:0}") int queueCapacity,
+                                  @Value("${security.password.hash-timeout-ms:5000}") long waitTimeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.configuredStrength = configuredStrength;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity > 0 ? queueCapacity : threads * QUEUE_PER_CORE),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        
+        this.encodeTimer = Timer.builder("auth.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.verifyTimer = Timer.builder("auth.password.hash").tag("operation", "verify").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected").register(meterRegistry);
+        meterRegistry.gauge("auth.password.queue.depth", executor, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.password.active", executor, ThreadPoolExecutor::getActiveCount);
+    }
+    
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(rawPassword)));
+    }
+    
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matched = submit(() -> verifyTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+        return Boolean.TRUE.equals(matched);
+    }
+    
+    /**
+     * True when the stored hash was produced with a different cost factor than
+     * the one currently configured, so it should be replaced on next login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != configuredStrength;
+    }
+    
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many sign-in requests right now. Please try again shortly.", 1);
+        }
+        
+        try {
+            return future.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many sign-in requests right now. Please try again shortly.", 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Password hashing failed", cause);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
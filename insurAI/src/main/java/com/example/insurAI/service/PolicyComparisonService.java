@@ -0,0 +1,125 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.PolicyComparison;
+import com.example.insurAI.entity.Policy;
+import com.example.insurAI.entity.PolicyStatus;
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.repository.PolicyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps an immutable comparison of the active catalog and swaps in a new one
+ * whenever the catalog changes, so readers only ever dereference a field.
+ * The chatbot reply is rendered once per snapshot as well.
+ */
+@Service
+public class PolicyComparisonService {
+
+    private static final int TOP_PICKS = 3;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(
+        new PolicyComparison(LocalDateTime.now(), 0, List.of()), renderReply(List.of()));
+
+    private record Snapshot(PolicyComparison comparison, String chatReply) {
+    }
+
+    public PolicyComparison getComparison() {
+        return snapshot.comparison();
+    }
+
+    public String getChatReply() {
+        return snapshot.chatReply();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyCatalogChanged(PolicyCatalogChangedEvent event) {
+        rebuild();
+    }
+
+    // Serialized so a slow rebuild cannot overwrite a newer one
+    synchronized void rebuild() {
+        List<Policy> active = policyRepository.findByStatus(PolicyStatus.ACTIVE);
+
+        Map<String, List<Policy>> byType = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Policy policy : active) {
+            byType.computeIfAbsent(policy.getPolicyType(), type -> new ArrayList<>()).add(policy);
+        }
+
+        List<PolicyComparison.TypeSummary> types = new ArrayList<>(byType.size());
+        for (Map.Entry<String, List<Policy>> group : byType.entrySet()) {
+            List<Policy> policies = group.getValue();
+            policies.sort(Comparator.comparing(Policy::getPremium));
+
+            List<PolicyComparison.Pick> picks = policies.stream()
+                .limit(TOP_PICKS)
+                .map(policy -> new PolicyComparison.Pick(policy.getId(), policy.getPolicyName(), policy.getPremium(),
+                    policy.getCoverage() != null ? policy.getCoverage() : "Standard Coverage"))
+                .toList();
+
+            types.add(new PolicyComparison.TypeSummary(group.getKey(), policies.size(),
+                policies.get(0).getPremium(), median(policies), policies.get(policies.size() - 1).getPremium(), picks));
+        }
+
+        List<PolicyComparison.TypeSummary> immutableTypes = List.copyOf(types);
+        snapshot = new Snapshot(new PolicyComparison(LocalDateTime.now(), active.size(), immutableTypes),
+            renderReply(immutableTypes));
+    }
+
+    private static BigDecimal median(List<Policy> sortedByPremium) {
+        int size = sortedByPremium.size();
+        BigDecimal middle = sortedByPremium.get(size / 2).getPremium();
+        if (size % 2 == 1) {
+            return middle;
+        }
+        return middle.add(sortedByPremium.get(size / 2 - 1).getPremium())
+            .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+    }
+
+    private static String renderReply(List<PolicyComparison.TypeSummary> types) {
+        if (types.isEmpty()) {
+            return "No policies available for comparison at the moment. Please check back later.";
+        }
+
+        StringBuilder comparison = new StringBuilder("📊 **Policy Comparison Overview:**\n\n");
+        for (PolicyComparison.TypeSummary type : types) {
+            comparison.append(String.format("**%s Insurance (%d policies):**\n", type.policyType(), type.policyCount()));
+            comparison.append(String.format("Premiums: ₹%,.0f - ₹%,.0f (median ₹%,.0f)\n",
+                type.minPremium().doubleValue(), type.maxPremium().doubleValue(), type.medianPremium().doubleValue()));
+            for (PolicyComparison.Pick pick : type.topPicks()) {
+                comparison.append(String.format("• %s - Premium: ₹%,.0f, Coverage: %s\n",
+                    pick.policyName(), pick.premium().doubleValue(), pick.coverage()));
+            }
+            comparison.append("\n");
+        }
+
+        comparison.append("💡 **Key Differences:**\n");
+        comparison.append("• Premium amounts vary based on coverage and risk\n");
+        comparison.append("• Coverage limits differ by policy type\n");
+        comparison.append("• Benefits and exclusions vary\n");
+        comparison.append("• Claim settlement processes may differ\n\n");
+
+        comparison.append("Would you like detailed comparison of specific policies? Ask me about 'health vs life insurance' or 'compare vehicle policies'!");
+        return comparison.toString();
+    }
+}
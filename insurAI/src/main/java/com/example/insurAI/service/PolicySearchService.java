@@ -0,0 +1,109 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.PolicySearchResult;
+import com.example.insurAI.entity.Policy;
+import com.example.insurAI.entity.PolicyStatus;
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.repository.PolicyRepository;
+import com.example.insurAI.util.Bm25Index;
+import com.example.insurAI.util.TextTokens;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text search over active policies, served entirely from memory. The
+ * index is built at startup and then updated one policy at a time when the
+ * catalog changes.
+ */
+@Service
+public class PolicySearchService {
+
+    // Name and type matches count for more than a mention deep in the terms
+    private static final int NAME_WEIGHT = 3;
+    private static final int TYPE_WEIGHT = 2;
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private PolicyRepository policyRepository;
+
+    private final Bm25Index index = new Bm25Index();
+    private final Map<Long, IndexedPolicy> policies = new ConcurrentHashMap<>();
+
+    private record IndexedPolicy(Long id, String name, String type, BigDecimal premium, String coverage) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Policy> active = policyRepository.findByStatus(PolicyStatus.ACTIVE);
+        index.clear();
+        policies.clear();
+        active.forEach(this::add);
+        System.out.println("Indexed " + active.size() + " active policies for search");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPolicyCatalogChanged(PolicyCatalogChangedEvent event) {
+        if (event.policyId() == null) {
+            rebuild();
+            return;
+        }
+        policyRepository.findById(event.policyId())
+            .filter(policy -> policy.getStatus() == PolicyStatus.ACTIVE)
+            .ifPresentOrElse(this::add, () -> remove(event.policyId()));
+    }
+
+    public List<PolicySearchResult> search(String query, int limit) {
+        List<Bm25Index.Hit> hits = index.search(TextTokens.tokenize(query), Math.min(limit, MAX_LIMIT));
+        if (hits.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PolicySearchResult> results = new ArrayList<>(hits.size());
+        for (Bm25Index.Hit hit : hits) {
+            IndexedPolicy policy = policies.get(hit.id());
+            if (policy != null) {
+                results.add(new PolicySearchResult(policy.id(), policy.name(), policy.type(), policy.premium(),
+                    policy.coverage(), hit.score()));
+            }
+        }
+        return results;
+    }
+
+    public int getIndexedPolicyCount() {
+        return index.size();
+    }
+
+    private void add(Policy policy) {
+        List<String> tokens = new ArrayList<>();
+        List<String> nameTokens = TextTokens.tokenize(policy.getPolicyName());
+        List<String> typeTokens = TextTokens.tokenize(policy.getPolicyType());
+        for (int i = 0; i < NAME_WEIGHT; i++) {
+            tokens.addAll(nameTokens);
+        }
+        for (int i = 0; i < TYPE_WEIGHT; i++) {
+            tokens.addAll(typeTokens);
+        }
+        tokens.addAll(TextTokens.tokenize(policy.getCoverage()));
+        tokens.addAll(TextTokens.tokenize(policy.getBenefits()));
+        tokens.addAll(TextTokens.tokenize(policy.getTerms()));
+        tokens.addAll(TextTokens.tokenize(policy.getConditions()));
+
+        policies.put(policy.getId(), new IndexedPolicy(policy.getId(), policy.getPolicyName(), policy.getPolicyType(),
+            policy.getPremium(), policy.getCoverage()));
+        index.put(policy.getId(), tokens);
+    }
+
+    private void remove(Long policyId) {
+        index.remove(policyId);
+        policies.remove(policyId);
+    }
+}
@@ -3,8 +3,11 @@ package com.example.insurAI.service;
 import com.example.insurAI.dto.PolicyRequest;
 import com.example.insurAI.dto.PolicyApplicationRequest;
 import com.example.insurAI.entity.*;
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.event.UserActivityChangedEvent;
 import com.example.insurAI.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -22,10 +25,10 @@ public class PolicyService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public Policy createPolicy(PolicyRequest request, Long agentId) {
-        User agent = userRepository.findById(agentId)
-            .orElseThrow(() -> new RuntimeException("Agent not found"));
-        
         Policy policy = new Policy();
         policy.setPolicyName(request.getPolicyName());
         policy.setPremium(request.getPremium());
@@ -34,9 +37,11 @@ public class PolicyService {
         policy.setBenefits(request.getBenefits());
         policy.setTerms(request.getTerms());
         policy.setConditions(request.getConditions());
-        policy.setAgent(agent);
+        policy.setAgent(userRepository.getReferenceById(agentId));
         
-        return policyRepository.save(policy);
+        Policy saved = policyRepository.save(policy);
+        eventPublisher.publishEvent(new PolicyCatalogChangedEvent(saved.getId()));
+        return saved;
     }
     
     public List<Policy> getActivePolicies() {
@@ -48,18 +53,18 @@ public class PolicyService {
     }
     
     public PolicyApplication applyForPolicy(PolicyApplicationRequest request, Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
         Policy policy = policyRepository.findById(request.getPolicyId())
             .orElseThrow(() -> new RuntimeException("Policy not found"));
         
         PolicyApplication application = new PolicyApplication();
-        application.setUser(user);
+        application.setUser(userRepository.getReferenceById(userId));
         application.setPolicy(policy);
         application.setDocuments(request.getDocuments());
         application.setAdditionalDetails(request.getAdditionalDetails());
         
-        return applicationRepository.save(application);
+        PolicyApplication saved = applicationRepository.save(application);
+        eventPublisher.publishEvent(new UserActivityChangedEvent(userId));
+        return saved;
     }
     
     public List<PolicyApplication> getUserApplications(Long userId) {
@@ -76,7 +81,7 @@ public class PolicyService {
         
         application.setStatus(status);
         application.setProcessedAt(LocalDateTime.now());
-        application.setProcessedBy(userRepository.findById(processedBy).orElse(null));
+        application.setProcessedBy(userRepository.getReferenceById(processedBy));
         
         if (status == ApplicationStatus.REJECTED) {
             application.setRejectionReason(reason);
@@ -99,7 +104,9 @@ public class PolicyService {
         }
         
         policy.setStatus(PolicyStatus.ACTIVE);
-        return policyRepository.save(policy);
+        Policy saved = policyRepository.save(policy);
+        eventPublisher.publishEvent(new PolicyCatalogChangedEvent(policyId));
+        return saved;
     }
     
     public Policy rejectPolicy(Long policyId, Long adminId, String reason) {
@@ -111,7 +118,9 @@ public class PolicyService {
         }
         
         policy.setStatus(PolicyStatus.INACTIVE);
-        return policyRepository.save(policy);
+        Policy saved = policyRepository.save(policy);
+        eventPublisher.publishEvent(new PolicyCatalogChangedEvent(policyId));
+        return saved;
     }
     
     public List<Policy> getAllPolicies() {
@@ -0,0 +1,119 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.RefreshToken;
+import com.example.insurAI.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. Only a hash is stored. Presenting a token
+ * that was already rotated revokes its whole family, since that means the
+ * token was copied.
+ */
+@Service
+public class RefreshTokenService {
+    
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private final SecureRandom random = new SecureRandom();
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Value("${jwt.refresh-expiration:1209600000}")
+    private long refreshExpiration;
+    
+    public record Rotation(Long userId, String refreshToken) {
+    }
+    
+    @Transactional
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Exchanges a refresh token for a new one in the same family. The token is
+     * retired with a conditional update, so when two requests present it at
+     * once only one wins and the other is treated as reuse.
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        
+        if (current.isRevoked()) {
+            throw reuseDetected(current);
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Refresh token expired");
+        }
+        if (refreshTokenRepository.markRotated(current.getId()) == 0) {
+            throw reuseDetected(current);
+        }
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+    
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+    
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweep-interval-ms:3600000}")
+    @Transactional
+    public void sweepExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+    
+    private RuntimeException reuseDetected(RefreshToken token) {
+        refreshTokenRepository.revokeFamily(token.getFamilyId());
+        log.warn("Refresh token reuse detected for user {} - family revoked", token.getUserId());
+        return new RuntimeException("Invalid refresh token");
+    }
+    
+    private String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(rawToken));
+        token.setUserId(userId);
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+    
+    private static String hash(String rawToken) {
+        if (rawToken == null) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -26,13 +26,8 @@ public class ScheduledNotificationService {
         LocalDateTime reminderTime = now.plusHours(24); // 24 hours before appointment
         
         // Find appointments that are 24 hours away and confirmed
-        List<Appointment> upcomingAppointments = appointmentRepository.findAll().stream()
-            .filter(appointment -> 
-                appointment.getStatus() == AppointmentStatus.APPROVED &&
-                appointment.getAppointmentDateTime().isAfter(now) &&
-                appointment.getAppointmentDateTime().isBefore(reminderTime)
-            )
-            .collect(java.util.stream.Collectors.toList());
+        List<Appointment> upcomingAppointments = appointmentRepository.findByStatusAndAppointmentDateTimeBetween(
+            AppointmentStatus.APPROVED, now, reminderTime);
         
         for (Appointment appointment : upcomingAppointments) {
             notificationService.sendAppointmentReminderNotification(appointment);
@@ -0,0 +1,340 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.event.AgentDirectoryChangedEvent;
+import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.PasswordValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Imports users from a CSV or NDJSON stream chunk by chunk. Each chunk is
+ * checked against existing emails with one query, hashed in parallel and
+ * written with a JDBC batch insert in its own transaction, so a chunk that
+ * fails is rolled back whole before its rows are retried one by one. Only
+ * failed rows and a final summary are written to the report stream. Admin
+ * accounts cannot be imported.
+ */
+@Service
+public class UserImportService {
+    
+    public enum Format { CSV, NDJSON }
+    
+    private static final String INSERT_USER_SQL =
+        "INSERT INTO users (email, password, full_name, role, email_verified, active, token_version, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${users.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    // Separate from the login hashing pool so an import never starves sign-ins of queue slots
+    private final ForkJoinPool hashingPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    
+    private static class ImportRow {
+        final int line;
+        String email;
+        String password;
+        String fullName;
+        Role role;
+        String passwordHash;
+        
+        ImportRow(int line) {
+            this.line = line;
+        }
+    }
+    
+    private static class ImportStats {
+        int total;
+        int created;
+        int failed;
+    }
+    
+    public void importUsers(InputStream input, Format format, OutputStream report) throws IOException {
+        ImportStats stats = new ImportStats();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String[] csvHeader = null;
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvHeader == null) {
+                csvHeader = parseCsvLine(line).toArray(new String[0]);
+                continue;
+            }
+            
+            stats.total++;
+            ImportRow row = new ImportRow(lineNumber);
+            try {
+                if (format == Format.CSV) {
+                    fillFromCsv(row, csvHeader, parseCsvLine(line));
+                } else {
+                    fillFromJson(row, objectMapper.readTree(line));
+                }
+                validate(row);
+                chunk.add(row);
+            } catch (RuntimeException | IOException e) {
+                reportFailure(report, stats, row, e.getMessage());
+            }
+            
+            if (chunk.size() >= chunkSize) {
+                processChunk(chunk, report, stats);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, report, stats);
+        }
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("summary", true);
+        summary.put("total", stats.total);
+        summary.put("created", stats.created);
+        summary.put("failed", stats.failed);
+        writeLine(report, summary);
+        if (stats.created > 0) {
+            // Imported rows may include agents; one broad invalidation instead of one per row
+            eventPublisher.publishEvent(new AgentDirectoryChangedEvent(null));
+        }
+        System.out.println("User import finished: " + stats.created + " created, " + stats.failed + " failed");
+    }
+    
+    private void processChunk(List<ImportRow> chunk, OutputStream report, ImportStats stats) throws IOException {
+        // Dedupe within the chunk, then against the database with a single IN query
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (seen.add(row.email.toLowerCase(Locale.ROOT))) {
+                candidates.add(row);
+            } else {
+                reportFailure(report, stats, row, "Duplicate email in upload");
+            }
+        }
+        
+        Set<String> existing = new HashSet<>();
+        for (String email : userRepository.findExistingEmails(candidates.stream().map(row -> row.email).toList())) {
+            existing.add(email.toLowerCase(Locale.ROOT));
+        }
+        
+        List<ImportRow> toInsert = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            if (existing.contains(row.email.toLowerCase(Locale.ROOT))) {
+                reportFailure(report, stats, row, "Email already exists");
+            } else {
+                toInsert.add(row);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+        
+        hashPasswords(toInsert);
+        
+        try {
+            batchInsert(toInsert);
+            stats.created += toInsert.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration or one bad row failed the batch - retry row by row
+            for (ImportRow row : toInsert) {
+                try {
+                    batchInsert(List.of(row));
+                    stats.created++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    reportFailure(report, stats, row, insertFailureReason(row, rowFailure));
+                }
+            }
+        }
+        report.flush();
+    }
+    
+    // Only a duplicate key on an email that now exists means a registration got there first
+    private String insertFailureReason(ImportRow row, DataIntegrityViolationException failure) {
+        if (failure instanceof DuplicateKeyException
+                && !userRepository.findExistingEmails(List.of(row.email)).isEmpty()) {
+            return "Email already exists";
+        }
+        return "Could not insert user: " + failure.getMostSpecificCause().getMessage();
+    }
+    
+    private void hashPasswords(List<ImportRow> rows) {
+        try {
+            hashingPool.submit(() -> rows.parallelStream()
+                .forEach(row -> row.passwordHash = passwordEncoder.encode(row.password))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("User import interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Password hashing failed during import", e.getCause());
+        }
+    }
+    
+    private void batchInsert(List<ImportRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(), (statement, row) -> {
+                statement.setString(1, row.email);
+                statement.setString(2, row.passwordHash);
+                statement.setString(3, row.fullName);
+                statement.setString(4, row.role.name());
+                statement.setBoolean(5, true);
+                statement.setBoolean(6, true);
+                statement.setLong(7, 0L);
+                statement.setTimestamp(8, now);
+            }));
+    }
+    
+    private static void fillFromCsv(ImportRow row, String[] header, List<String> values) {
+        for (int i = 0; i < header.length && i < values.size(); i++) {
+            String value = values.get(i);
+            switch (header[i].trim().toLowerCase(Locale.ROOT)) {
+                case "email" -> row.email = value;
+                case "password" -> row.password = value;
+                case "fullname", "full_name", "name" -> row.fullName = value;
+                case "role" -> row.role = parseRole(value);
+                default -> { }
+            }
+        }
+    }
+    
+    private static void fillFromJson(ImportRow row, JsonNode node) {
+        row.email = text(node, "email");
+        row.password = text(node, "password");
+        row.fullName = text(node, "fullName");
+        row.role = parseRole(text(node, "role"));
+    }
+    
+    private static void validate(ImportRow row) {
+        if (row.email == null || row.email.isBlank() || !row.email.contains("@")) {
+            throw new RuntimeException("Invalid email");
+        }
+        row.email = row.email.trim();
+        if (row.fullName == null || row.fullName.isBlank()) {
+            throw new RuntimeException("Full name is required");
+        }
+        if (row.password == null || !PasswordValidator.isValid(row.password)) {
+            throw new RuntimeException(PasswordValidator.getRequirements());
+        }
+        if (row.role == null) {
+            row.role = Role.CUSTOMER;
+        }
+        if (row.role == Role.ADMIN) {
+            throw new RuntimeException("Admin accounts cannot be imported");
+        }
+    }
+    
+    private static Role parseRole(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Role.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown role: " + value);
+        }
+    }
+    
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+    
+    // Minimal RFC 4180 parsing for single-line records
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+    
+    private void reportFailure(OutputStream report, ImportStats stats, ImportRow row, String error) throws IOException {
+        stats.failed++;
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("line", row.line);
+        entry.put("email", row.email);
+        entry.put("error", error);
+        writeLine(report, entry);
+    }
+    
+    private void writeLine(OutputStream report, Map<String, Object> entry) throws IOException {
+        report.write(objectMapper.writeValueAsBytes(entry));
+        report.write('\n');
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of which users may still use their tokens, so the JWT filter
+ * never has to hit the users table. Holds only suspended users and users whose
+ * token version has been bumped - a small set compared to all users.
+ */
+@Service
+public class UserRevocationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserRevocationService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private final Set<Long> suspendedUsers = ConcurrentHashMap.newKeySet();
+    
+    // Tokens carrying a version below this are rejected
+    private final Map<Long, Long> minimumTokenVersions = new ConcurrentHashMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        suspendedUsers.addAll(userRepository.findInactiveUserIds());
+        for (Object[] row : userRepository.findUserTokenVersions()) {
+            minimumTokenVersions.merge((Long) row[0], (Long) row[1], Math::max);
+        }
+        log.info("Loaded {} suspended users and {} token version stamps",
+            suspendedUsers.size(), minimumTokenVersions.size());
+    }
+    
+    public boolean isRevoked(Long userId, long tokenVersion) {
+        if (suspendedUsers.contains(userId)) {
+            return true;
+        }
+        Long minimum = minimumTokenVersions.get(userId);
+        return minimum != null && tokenVersion < minimum;
+    }
+    
+    public void suspend(Long userId, long newTokenVersion) {
+        suspendedUsers.add(userId);
+        minimumTokenVersions.merge(userId, newTokenVersion, Math::max);
+    }
+    
+    public void reactivate(Long userId) {
+        suspendedUsers.remove(userId);
+    }
+    
+    public void forget(Long userId) {
+        // Deleted users keep a suspended marker so stray tokens stay dead
+        suspendedUsers.add(userId);
+    }
+}
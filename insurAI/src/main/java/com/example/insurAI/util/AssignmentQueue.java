@@ -0,0 +1,120 @@
+package com.example.insurAI.util;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * The agents bookable on one day, ordered by their next free slot start, then
+ * by how many bookings they already have that day, then by how long ago they
+ * were last assigned, so equally free agents take turns. Claiming the head
+ * and putting the agent back at its next slot are O(log n); a claimed slot is
+ * gone from the queue until it is released or the agent is put again.
+ */
+public class AssignmentQueue {
+
+    public record Claim(long agentId, int minute) {
+    }
+
+    // Fields that affect ordering only change while the entry is out of the set
+    private static final class Entry {
+        final long agentId;
+        int[] starts;
+        int next;
+        int load;
+        long lastAssigned;
+
+        Entry(long agentId) {
+            this.agentId = agentId;
+        }
+
+        int head() {
+            return starts[next];
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::head)
+        .thenComparingInt(entry -> entry.load)
+        .thenComparingLong(entry -> entry.lastAssigned)
+        .thenComparingLong(entry -> entry.agentId);
+
+    private final TreeSet<Entry> queue = new TreeSet<>(ORDER);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long assignments;
+
+    /**
+     * Replaces the agent's free slot starts (sorted minutes of the day) and booking count.
+     */
+    public synchronized void put(long agentId, int[] starts, int load) {
+        Entry entry = entries.computeIfAbsent(agentId, Entry::new);
+        unlink(entry);
+        entry.starts = starts;
+        entry.next = 0;
+        entry.load = load;
+        link(entry);
+    }
+
+    public synchronized void remove(long agentId) {
+        Entry entry = entries.remove(agentId);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Takes the earliest slot starting at or after {@code notBefore}, from the
+     * least loaded and least recently assigned agent among those free then.
+     */
+    public synchronized Optional<Claim> claim(int notBefore) {
+        while (!queue.isEmpty()) {
+            Entry entry = queue.pollFirst();
+            if (entry.head() < notBefore) {
+                // Skip the starts that have already gone by
+                while (entry.next < entry.starts.length && entry.starts[entry.next] < notBefore) {
+                    entry.next++;
+                }
+                link(entry);
+                continue;
+            }
+            int minute = entry.starts[entry.next++];
+            entry.load++;
+            entry.lastAssigned = ++assignments;
+            link(entry);
+            return Optional.of(new Claim(entry.agentId, minute));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gives back a claim that was never booked, unless the agent has been put again since.
+     */
+    public synchronized void release(Claim claim) {
+        Entry entry = entries.get(claim.agentId());
+        if (entry == null || entry.next == 0 || entry.starts[entry.next - 1] != claim.minute()) {
+            return;
+        }
+        unlink(entry);
+        entry.next--;
+        entry.load--;
+        link(entry);
+    }
+
+    // Agents with a slot left
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    private void link(Entry entry) {
+        if (entry.next < entry.starts.length) {
+            queue.add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.starts != null && entry.next < entry.starts.length) {
+            queue.remove(entry);
+        }
+    }
+}
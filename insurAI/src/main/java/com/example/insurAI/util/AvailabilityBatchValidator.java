@@ -0,0 +1,130 @@
+package com.example.insurAI.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a batch of new availability windows in memory before anything is
+ * written. Windows are sorted by agent, day and start, then swept once: a
+ * window is rejected if it overlaps an earlier accepted window in the batch
+ * or one the agent already has that day. An end time of midnight means the
+ * end of the day.
+ */
+public final class AvailabilityBatchValidator {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    public record Candidate(long agentId, LocalDate day, LocalTime start, LocalTime end) {
+    }
+
+    // Start/end minute pairs the agent already has on the day, ordered by start
+    public interface ExistingWindows {
+        int[] bounds(long agentId, LocalDate day);
+    }
+
+    /**
+     * Existing windows loaded up front, such as every stored row for the
+     * agent-days a batch touches. Windows may overlap each other.
+     */
+    public static final class ExistingWindowSet implements ExistingWindows {
+
+        private record AgentDay(long agentId, LocalDate day) {
+        }
+
+        private final Map<AgentDay, List<int[]>> windows = new HashMap<>();
+
+        public void add(long agentId, LocalDate day, LocalTime start, LocalTime end) {
+            windows.computeIfAbsent(new AgentDay(agentId, day), key -> new ArrayList<>())
+                .add(new int[] {startMinute(start), endMinute(end)});
+        }
+
+        @Override
+        public int[] bounds(long agentId, LocalDate day) {
+            List<int[]> dayWindows = windows.get(new AgentDay(agentId, day));
+            if (dayWindows == null) {
+                return new int[0];
+            }
+            dayWindows.sort(Comparator.comparingInt(window -> window[0]));
+            int[] bounds = new int[dayWindows.size() * 2];
+            for (int w = 0; w < dayWindows.size(); w++) {
+                bounds[2 * w] = dayWindows.get(w)[0];
+                bounds[2 * w + 1] = dayWindows.get(w)[1];
+            }
+            return bounds;
+        }
+    }
+
+    private AvailabilityBatchValidator() {
+    }
+
+    /**
+     * One rejection reason per candidate, null where it is accepted. Null
+     * candidates were rejected earlier and are skipped.
+     */
+    public static String[] validate(List<Candidate> candidates, ExistingWindows existing) {
+        String[] reasons = new String[candidates.size()];
+        Integer[] order = new Integer[candidates.size()];
+        int count = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (candidates.get(i) != null) {
+                order[count++] = i;
+            }
+        }
+        order = Arrays.copyOf(order, count);
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> candidates.get(i).agentId())
+            .thenComparing(i -> candidates.get(i).day())
+            .thenComparingInt(i -> startMinute(candidates.get(i).start())));
+
+        Candidate group = null;
+        int[] existingBounds = null;
+        int acceptedEnd = -1;
+        int acceptedIndex = -1;
+        for (int index : order) {
+            Candidate candidate = candidates.get(index);
+            int start = startMinute(candidate.start());
+            int end = endMinute(candidate.end());
+            if (end <= start) {
+                reasons[index] = "End time must be after start time";
+                continue;
+            }
+            if (group == null || group.agentId() != candidate.agentId() || !group.day().equals(candidate.day())) {
+                group = candidate;
+                existingBounds = existing.bounds(candidate.agentId(), candidate.day());
+                acceptedEnd = -1;
+            }
+            // Accepted windows never overlap, so the latest one accepted ends last
+            if (start < acceptedEnd) {
+                reasons[index] = "Overlaps window " + acceptedIndex + " in this batch";
+            } else if (overlaps(existingBounds, start, end)) {
+                reasons[index] = "Overlaps existing availability";
+            } else {
+                acceptedEnd = end;
+                acceptedIndex = index;
+            }
+        }
+        return reasons;
+    }
+
+    private static boolean overlaps(int[] bounds, int start, int end) {
+        for (int b = 0; b < bounds.length && bounds[b] < end; b += 2) {
+            if (bounds[b + 1] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int startMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int endMinute(LocalTime time) {
+        return time.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : startMinute(time);
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.insurAI.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of open availability windows, kept from two sides: per
+ * agent as a day-ordered array (for "next free slot") and per day as a dense
+ * column of agent rows with quarter-hour bitsets (for "who is free at this
+ * time"). Window bounds are held as minute-of-day shorts and answers stay
+ * exact to the minute. An agent's windows are always replaced as a whole; an
+ * end time of midnight means the end of the day.
+ */
+public class AvailabilityIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final AgentDay[] NO_DAYS = new AgentDay[0];
+
+    public record Window(long id, LocalDate day, LocalTime start, LocalTime end) {
+    }
+
+    public record FreeSlot(long agentId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    // One indexed window, read back with its agent
+    public record Opening(long windowId, long agentId, LocalDate day, LocalTime start, LocalTime end) {
+    }
+
+    // One agent's windows on one day, sorted by start
+    private static final class AgentDay {
+        final long agentId;
+        final int day;
+        final long[] windowIds;
+        final short[] bounds;
+        int row;
+
+        AgentDay(long agentId, int day, long[] windowIds, short[] bounds) {
+            this.agentId = agentId;
+            this.day = day;
+            this.windowIds = windowIds;
+            this.bounds = bounds;
+        }
+
+        boolean covers(int minute) {
+            for (int i = 0; i < bounds.length; i += 2) {
+                if (bounds[i] > minute) {
+                    return false;
+                }
+                if (bounds[i + 1] > minute) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Every agent with windows on one day, as dense rows that are swap-removed. For each
+    // quarter hour the column keeps a bitset of rows free for all of it and of rows free
+    // for part of it, so a lookup reads one bitset and checks only the partial rows exactly.
+    private static final class DayColumn {
+        static final int GRANULE_MINUTES = 15;
+        static final int GRANULES = MINUTES_PER_DAY / GRANULE_MINUTES;
+
+        AgentDay[] rows = new AgentDay[64];
+        long[] agentIds = new long[64];
+        long[][] full = new long[GRANULES][1];
+        long[][] partial = new long[GRANULES][1];
+        int size;
+
+        void add(AgentDay agentDay) {
+            if (size == rows.length) {
+                grow();
+            }
+            int row = size++;
+            agentDay.row = row;
+            rows[row] = agentDay;
+            agentIds[row] = agentDay.agentId;
+            short[] bounds = agentDay.bounds;
+            for (int w = 0; w < bounds.length; w += 2) {
+                int start = bounds[w];
+                int end = bounds[w + 1];
+                for (int g = start / GRANULE_MINUTES; g <= (end - 1) / GRANULE_MINUTES; g++) {
+                    boolean whole = start <= g * GRANULE_MINUTES && end >= (g + 1) * GRANULE_MINUTES;
+                    set(whole ? full[g] : partial[g], row, true);
+                }
+            }
+        }
+
+        void remove(AgentDay agentDay) {
+            int row = agentDay.row;
+            int last = --size;
+            rows[row] = rows[last];
+            rows[row].row = row;
+            agentIds[row] = agentIds[last];
+            rows[last] = null;
+            for (int g = 0; g < GRANULES; g++) {
+                set(full[g], row, get(full[g], last));
+                set(partial[g], row, get(partial[g], last));
+                set(full[g], last, false);
+                set(partial[g], last, false);
+            }
+        }
+
+        // Row numbers free at the minute, ascending
+        int[] freeRows(int minute) {
+            int g = minute / GRANULE_MINUTES;
+            long[] fullWords = full[g];
+            long[] partialWords = partial[g];
+            int[] found = new int[size];
+            int count = 0;
+            int words = (size + 63) >>> 6;
+            for (int w = 0; w < words; w++) {
+                long bits = fullWords[w];
+                long maybe = partialWords[w] & ~bits;
+                while (maybe != 0) {
+                    int bit = Long.numberOfTrailingZeros(maybe);
+                    if (rows[(w << 6) + bit].covers(minute)) {
+                        bits |= 1L << bit;
+                    }
+                    maybe &= maybe - 1;
+                }
+                while (bits != 0) {
+                    found[count++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        private void grow() {
+            int capacity = rows.length * 2;
+            rows = Arrays.copyOf(rows, capacity);
+            agentIds = Arrays.copyOf(agentIds, capacity);
+            for (int g = 0; g < GRANULES; g++) {
+                full[g] = Arrays.copyOf(full[g], capacity >>> 6);
+                partial[g] = Arrays.copyOf(partial[g], capacity >>> 6);
+            }
+        }
+
+        private static boolean get(long[] words, int row) {
+            return (words[row >>> 6] & (1L << row)) != 0;
+        }
+
+        private static void set(long[] words, int row, boolean value) {
+            if (value) {
+                words[row >>> 6] |= 1L << row;
+            } else {
+                words[row >>> 6] &= ~(1L << row);
+            }
+        }
+    }
+
+    private final Map<Long, AgentDay[]> byAgent = new HashMap<>();
+    private final Map<Integer, DayColumn> byDay = new HashMap<>();
+    private int windowCount;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Replaces everything known about the agent with the given open windows.
+     */
+    public void replaceAgent(long agentId, Collection<Window> windows) {
+        AgentDay[] days = build(agentId, windows);
+
+        lock.writeLock().lock();
+        try {
+            AgentDay[] previous = byAgent.remove(agentId);
+            if (previous != null) {
+                unlink(previous);
+            }
+            if (days.length > 0) {
+                for (AgentDay agentDay : days) {
+                    byDay.computeIfAbsent(agentDay.day, d -> new DayColumn()).add(agentDay);
+                    windowCount += agentDay.windowIds.length;
+                }
+                byAgent.put(agentId, days);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            byAgent.clear();
+            byDay.clear();
+            windowCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the agents with an open window covering the given time.
+     */
+    public long[] agentsFreeAt(LocalDate day, LocalTime time) {
+        int minute = minuteOf(time);
+        lock.readLock().lock();
+        try {
+            DayColumn column = byDay.get((int) day.toEpochDay());
+            if (column == null) {
+                return new long[0];
+            }
+            int[] rows = column.freeRows(minute);
+            long[] found = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                found[i] = column.agentIds[rows[i]];
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The individual windows covering the given time, across all agents.
+     */
+    public List<Opening> openingsAt(LocalDate day, LocalTime time) {
+        int minute = minuteOf(time);
+        lock.readLock().lock();
+        try {
+            DayColumn column = byDay.get((int) day.toEpochDay());
+            List<Opening> found = new ArrayList<>();
+            if (column == null) {
+                return found;
+            }
+            for (int row : column.freeRows(minute)) {
+                AgentDay agentDay = column.rows[row];
+                short[] bounds = agentDay.bounds;
+                for (int w = 0; w < agentDay.windowIds.length && bounds[2 * w] <= minute; w++) {
+                    if (bounds[2 * w + 1] > minute) {
+                        found.add(openingOf(agentDay, w));
+                    }
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every window on the days from {@code from} to {@code to}, both inclusive.
+     */
+    public List<Opening> openingsBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            List<Opening> found = new ArrayList<>();
+            for (int day = (int) from.toEpochDay(); day <= to.toEpochDay(); day++) {
+                DayColumn column = byDay.get(day);
+                if (column == null) {
+                    continue;
+                }
+                for (int row = 0; row < column.size; row++) {
+                    AgentDay agentDay = column.rows[row];
+                    for (int w = 0; w < agentDay.windowIds.length; w++) {
+                        found.add(openingOf(agentDay, w));
+                    }
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The first free stretch for the agent at or after {@code from}. Touching
+     * or overlapping windows are reported as one stretch.
+     */
+    public Optional<FreeSlot> nextFreeSlot(long agentId, LocalDateTime from) {
+        int fromDay = (int) from.toLocalDate().toEpochDay();
+        int fromMinute = minuteOf(from.toLocalTime());
+        lock.readLock().lock();
+        try {
+            AgentDay[] days = byAgent.getOrDefault(agentId, NO_DAYS);
+            for (int i = firstDayAtOrAfter(days, fromDay); i < days.length; i++) {
+                AgentDay agentDay = days[i];
+                int notBefore = agentDay.day == fromDay ? fromMinute : 0;
+                short[] bounds = agentDay.bounds;
+                int w = 0;
+                while (w < bounds.length) {
+                    int start = bounds[w];
+                    int end = bounds[w + 1];
+                    w += 2;
+                    while (w < bounds.length && bounds[w] <= end) {
+                        end = Math.max(end, bounds[w + 1]);
+                        w += 2;
+                    }
+                    if (end > notBefore) {
+                        return Optional.of(new FreeSlot(agentId, toDateTime(agentDay.day, Math.max(start, notBefore)),
+                            toDateTime(agentDay.day, end)));
+                    }
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The agent's open windows on the day as start/end minute pairs, sorted by start.
+     */
+    public int[] windowBounds(long agentId, LocalDate day) {
+        int epochDay = (int) day.toEpochDay();
+        lock.readLock().lock();
+        try {
+            AgentDay[] days = byAgent.getOrDefault(agentId, NO_DAYS);
+            int i = firstDayAtOrAfter(days, epochDay);
+            if (i == days.length || days[i].day != epochDay) {
+                return new int[0];
+            }
+            short[] bounds = days[i].bounds;
+            int[] copy = new int[bounds.length];
+            for (int b = 0; b < bounds.length; b++) {
+                copy[b] = bounds[b];
+            }
+            return copy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return windowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unlink(AgentDay[] days) {
+        for (AgentDay agentDay : days) {
+            DayColumn column = byDay.get(agentDay.day);
+            column.remove(agentDay);
+            if (column.size == 0) {
+                byDay.remove(agentDay.day);
+            }
+            windowCount -= agentDay.windowIds.length;
+        }
+    }
+
+    private static AgentDay[] build(long agentId, Collection<Window> windows) {
+        TreeMap<Integer, List<Window>> windowsByDay = new TreeMap<>();
+        for (Window window : windows) {
+            if (endMinuteOf(window.end()) > minuteOf(window.start())) {
+                windowsByDay.computeIfAbsent((int) window.day().toEpochDay(), d -> new ArrayList<>()).add(window);
+            }
+        }
+        if (windowsByDay.isEmpty()) {
+            return NO_DAYS;
+        }
+
+        AgentDay[] days = new AgentDay[windowsByDay.size()];
+        int i = 0;
+        for (Map.Entry<Integer, List<Window>> entry : windowsByDay.entrySet()) {
+            List<Window> dayWindows = entry.getValue();
+            dayWindows.sort(Comparator.comparing(Window::start));
+            long[] ids = new long[dayWindows.size()];
+            short[] bounds = new short[dayWindows.size() * 2];
+            for (int w = 0; w < ids.length; w++) {
+                Window window = dayWindows.get(w);
+                ids[w] = window.id();
+                bounds[2 * w] = (short) minuteOf(window.start());
+                bounds[2 * w + 1] = (short) endMinuteOf(window.end());
+            }
+            days[i++] = new AgentDay(agentId, entry.getKey(), ids, bounds);
+        }
+        return days;
+    }
+
+    private static int firstDayAtOrAfter(AgentDay[] days, int day) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid].day < day) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int endMinuteOf(LocalTime time) {
+        return time.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : minuteOf(time);
+    }
+
+    private static Opening openingOf(AgentDay agentDay, int w) {
+        return new Opening(agentDay.windowIds[w], agentDay.agentId, LocalDate.ofEpochDay(agentDay.day),
+            timeOf(agentDay.bounds[2 * w]), timeOf(agentDay.bounds[2 * w + 1]));
+    }
+
+    private static LocalTime timeOf(int minute) {
+        return minute >= MINUTES_PER_DAY ? LocalTime.MIDNIGHT : LocalTime.of(minute / 60, minute % 60);
+    }
+
+    private static LocalDateTime toDateTime(int day, int minute) {
+        return LocalDate.ofEpochDay(day).atStartOfDay().plusMinutes(minute);
+    }
+}
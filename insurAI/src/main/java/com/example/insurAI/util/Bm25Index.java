@@ -0,0 +1,210 @@
+package com.example.insurAI.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with Okapi BM25 ranking. Documents are mapped to
+ * dense int slots and postings are kept in primitive arrays, so scoring a
+ * query walks flat arrays without boxing. Documents are added, replaced and
+ * removed one at a time; searches take a read lock and never block each other.
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    public record Hit(long id, double score) {
+    }
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] ids = new long[16];
+    private int[] lengths = new int[16];
+    private String[][] terms = new String[16][];
+    private int slotCount;
+    private long totalLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long id, List<String> tokens) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+            int slot = allocateSlot();
+            slotsById.put(id, slot);
+            ids[slot] = id;
+            lengths[slot] = tokens.size();
+            terms[slot] = frequencies.keySet().toArray(new String[0]);
+            totalLength += tokens.size();
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new PostingList()).add(slot, tf));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            slotsById.clear();
+            freeSlots.clear();
+            Arrays.fill(terms, null);
+            slotCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} documents matching any query term, best first.
+     */
+    public List<Hit> search(List<String> queryTokens, int limit) {
+        if (limit <= 0 || queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1,
+            (a, b) -> a.score() != b.score() ? Double.compare(a.score(), b.score()) : Long.compare(b.id(), a.id()));
+
+        lock.readLock().lock();
+        try {
+            int documentCount = slotsById.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+            double[] scores = new double[slotCount];
+            int[] touched = new int[slotCount];
+            int touchedCount = 0;
+            for (String term : new LinkedHashSet<>(queryTokens)) {
+                PostingList list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int slot = list.slots[i];
+                    int tf = list.frequencies[i];
+                    double norm = K1 * (1 - B + B * lengths[slot] / averageLength);
+                    if (scores[slot] == 0) {
+                        touched[touchedCount++] = slot;
+                    }
+                    scores[slot] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            // Keep only the best `limit` hits in a min-heap
+            for (int i = 0; i < touchedCount; i++) {
+                int slot = touched[i];
+                if (top.size() < limit || scores[slot] > top.peek().score()) {
+                    top.add(new Hit(ids[slot], scores[slot]));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            hits.add(top.poll());
+        }
+        return hits.reversed();
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void unlink(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        totalLength -= lengths[slot];
+        for (String term : terms[slot]) {
+            PostingList list = postings.get(term);
+            list.remove(slot);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        terms[slot] = null;
+        lengths[slot] = 0;
+        freeSlots.push(slot);
+    }
+
+    private static final class PostingList {
+        private int[] slots = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int slot, int tf) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = tf;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    // Order does not matter for scoring, so swap in the last posting
+                    size--;
+                    slots[i] = slots[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
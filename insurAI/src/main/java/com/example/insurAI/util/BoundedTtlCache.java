@@ -0,0 +1,121 @@
+package com.example.insurAI.util;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Map of entries that expire at a fixed time, capped at a maximum size. Entries
+ * are kept in access order and adding one to a full cache evicts the least
+ * recently used, so every operation is O(1) and a cache full of live entries
+ * keeps serving its hottest keys.
+ * <p>
+ * Each load registers a marker for its key, and invalidating the key drops the
+ * marker, so a load that raced with a change to that key is returned to its
+ * caller but not cached. Loads of other keys are unaffected. Loaders run
+ * outside the lock.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final LongSupplier clock;
+
+    // Guarded by this; access-ordered so the eldest entry is the least recently used
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Keys with a load in flight - only as large as the number of concurrent loads
+    private final Map<K, Object> loading = new HashMap<>();
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    public BoundedTtlCache(int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    public BoundedTtlCache(int maxEntries, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive");
+        }
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the cached value, or null when absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() > clock.getAsLong()) {
+            return entry.value();
+        }
+        entries.remove(key);
+        return null;
+    }
+
+    /**
+     * Returns the cached value or loads it, caching the result for {@code ttlMillis}
+     * unless the key was invalidated while loading. A null result is returned
+     * as-is and not cached.
+     */
+    public V getOrLoad(K key, Supplier<V> loader, long ttlMillis) {
+        Object marker = new Object();
+        synchronized (this) {
+            V cached = get(key);
+            if (cached != null) {
+                return cached;
+            }
+            loading.put(key, marker);
+        }
+
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            release(key, marker);
+            throw e;
+        }
+
+        synchronized (this) {
+            // Only stored if no invalidation dropped the marker while loading
+            if (loading.remove(key, marker) && value != null) {
+                entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Caches the value until {@code expiresAt} (epoch millis), evicting the
+     * least recently used entry if the cache is full.
+     */
+    public synchronized void put(K key, V value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public synchronized void invalidate(K key) {
+        loading.remove(key);
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        loading.clear();
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void release(K key, Object marker) {
+        loading.remove(key, marker);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.insurAI.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures
+ * in a row calls are rejected for {@code openMillis}; then a single trial call
+ * is let through and its outcome closes or re-opens the circuit.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final long CLOSED = -1;
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private final LongSupplier clock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+    private volatile long openedAt = CLOSED;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::currentTimeMillis);
+    }
+
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns true if the caller may attempt the call. Every permitted call
+     * must be followed by {@link #onSuccess()}, {@link #onFailure()} or
+     * {@link #onCancelled()}.
+     */
+    public boolean tryAcquire() {
+        long opened = openedAt;
+        if (opened == CLOSED) {
+            return true;
+        }
+        if (clock.getAsLong() - opened < openMillis) {
+            return false;
+        }
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt = CLOSED;
+        trialInFlight.set(false);
+    }
+
+    public void onFailure() {
+        if (openedAt != CLOSED) {
+            // Failed trial (or a straggler from before the trip) - stay open for another period
+            openedAt = clock.getAsLong();
+            trialInFlight.set(false);
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt = clock.getAsLong();
+        }
+    }
+
+    /**
+     * The caller abandoned the call, which says nothing about the upstream;
+     * only frees the trial slot if this was the trial.
+     */
+    public void onCancelled() {
+        trialInFlight.set(false);
+    }
+
+    public State getState() {
+        long opened = openedAt;
+        if (opened == CLOSED) {
+            return State.CLOSED;
+        }
+        return clock.getAsLong() - opened < openMillis ? State.OPEN : State.HALF_OPEN;
+    }
+}
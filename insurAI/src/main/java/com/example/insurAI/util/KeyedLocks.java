@@ -0,0 +1,41 @@
+package com.example.insurAI.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One lock per key, created on first use and dropped once nobody holds or
+ * waits for it. Work for different keys never contends, unlike a fixed
+ * array of striped locks where unrelated keys can share a stripe.
+ */
+public class KeyedLocks<K> {
+
+    private static final class Entry {
+        final ReentrantLock lock = new ReentrantLock();
+        int users;
+    }
+
+    private final Map<K, Entry> locks = new ConcurrentHashMap<>();
+
+    public <T> T withLock(K key, Supplier<T> action) {
+        // Reference counts only change inside compute, which is atomic per key
+        Entry entry = locks.compute(key, (k, existing) -> {
+            Entry e = existing != null ? existing : new Entry();
+            e.users++;
+            return e;
+        });
+        entry.lock.lock();
+        try {
+            return action.get();
+        } finally {
+            entry.lock.unlock();
+            locks.compute(key, (k, e) -> --e.users == 0 ? null : e);
+        }
+    }
+
+    public int size() {
+        return locks.size();
+    }
+}
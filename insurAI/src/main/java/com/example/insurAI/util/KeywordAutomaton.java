@@ -0,0 +1,133 @@
+package com.example.insurAI.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over lowercase ASCII keywords, compiled to a dense
+ * transition table. A scan lowercases on the fly and reports every keyword
+ * occurring anywhere in the text in a single pass.
+ */
+public class KeywordAutomaton {
+
+    private static final int ALPHABET = 128;
+
+    private final List<String> keywords;
+    private final int[][] transitions;
+    private final long[][] outputs;
+    private final int words;
+
+    public KeywordAutomaton(List<String> keywords) {
+        this.keywords = List.copyOf(keywords);
+        this.words = (keywords.size() + 63) / 64;
+
+        List<int[]> gotoTable = new ArrayList<>();
+        List<long[]> outputTable = new ArrayList<>();
+        gotoTable.add(newRow());
+        outputTable.add(new long[words]);
+
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= ALPHABET || Character.toLowerCase(c) != c) {
+                    throw new IllegalArgumentException("Keywords must be lowercase ASCII: " + keyword);
+                }
+                if (gotoTable.get(state)[c] < 0) {
+                    gotoTable.get(state)[c] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    outputTable.add(new long[words]);
+                }
+                state = gotoTable.get(state)[c];
+            }
+            outputTable.get(state)[id >>> 6] |= 1L << (id & 63);
+        }
+
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.outputs = outputTable.toArray(new long[0][]);
+        buildFailureLinks();
+    }
+
+    public int size() {
+        return keywords.size();
+    }
+
+    public int indexOf(String keyword) {
+        int index = keywords.indexOf(keyword);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown keyword: " + keyword);
+        }
+        return index;
+    }
+
+    /**
+     * @return bitset of matched keyword indexes, {@code words()} longs long
+     */
+    public long[] scan(CharSequence text) {
+        long[] matched = new long[words];
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c >= ALPHABET) {
+                state = 0;
+                continue;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            state = transitions[state][c];
+            long[] out = outputs[state];
+            for (int w = 0; w < words; w++) {
+                matched[w] |= out[w];
+            }
+        }
+        return matched;
+    }
+
+    public static boolean contains(long[] matched, int index) {
+        return (matched[index >>> 6] & (1L << (index & 63))) != 0;
+    }
+
+    private void buildFailureLinks() {
+        int[] failure = new int[transitions.length];
+        Queue<Integer> queue = new ArrayDeque<>();
+
+        for (int c = 0; c < ALPHABET; c++) {
+            int next = transitions[0][c];
+            if (next < 0) {
+                transitions[0][c] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+
+        // Breadth-first so every failure target is final before it is used
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            long[] inherited = outputs[failure[state]];
+            for (int w = 0; w < words; w++) {
+                outputs[state][w] |= inherited[w];
+            }
+            for (int c = 0; c < ALPHABET; c++) {
+                int next = transitions[state][c];
+                if (next < 0) {
+                    transitions[state][c] = transitions[failure[state]][c];
+                } else {
+                    failure[next] = transitions[failure[state]][c];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
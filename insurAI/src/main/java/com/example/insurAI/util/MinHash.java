@@ -0,0 +1,74 @@
+package com.example.insurAI.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * MinHash signatures over string shingles. The fraction of equal positions in
+ * two signatures estimates the Jaccard similarity of the underlying sets.
+ */
+public class MinHash {
+
+    private final long[] seeds;
+
+    public MinHash(int numHashes, long seed) {
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException("Number of hashes must be positive");
+        }
+        this.seeds = new long[numHashes];
+        long state = seed;
+        for (int i = 0; i < numHashes; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            seeds[i] = mix(state);
+        }
+    }
+
+    public int size() {
+        return seeds.length;
+    }
+
+    public long[] signature(Collection<String> shingles) {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            long base = fnv1a(shingle);
+            for (int i = 0; i < seeds.length; i++) {
+                long h = mix(base ^ seeds[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double similarity(long[] a, long[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Signatures have different lengths");
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
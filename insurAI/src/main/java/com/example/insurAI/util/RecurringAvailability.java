@@ -0,0 +1,141 @@
+package com.example.insurAI.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Expands weekly availability rules into concrete windows for a date range
+ * and cuts time off out of them. A rule is only a weekday mask, a time window
+ * and a validity range, so nothing is stored per day.
+ */
+public final class RecurringAvailability {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    public record Rule(long id, int daysOfWeek, LocalTime start, LocalTime end, LocalDate validFrom, LocalDate validUntil) {
+
+        public boolean occursOn(LocalDate day) {
+            return (daysOfWeek & maskOf(day.getDayOfWeek())) != 0
+                && !day.isBefore(validFrom)
+                && (validUntil == null || !day.isAfter(validUntil));
+        }
+    }
+
+    // A null start and end means the whole day is off
+    public record TimeOff(LocalDate day, LocalTime start, LocalTime end) {
+    }
+
+    private RecurringAvailability() {
+    }
+
+    public static int maskOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public static int maskOf(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= maskOf(day);
+        }
+        return mask;
+    }
+
+    public static Set<DayOfWeek> daysOf(int mask) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & maskOf(day)) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Window id used for a rule's occurrences; negated so it never collides with a stored window id.
+     */
+    public static long windowIdOf(long ruleId) {
+        return -ruleId;
+    }
+
+    /**
+     * Every occurrence of the rules between {@code from} and {@code to}, both inclusive.
+     */
+    public static List<AvailabilityIndex.Window> expand(Collection<Rule> rules, LocalDate from, LocalDate to) {
+        List<AvailabilityIndex.Window> windows = new ArrayList<>();
+        if (rules.isEmpty()) {
+            return windows;
+        }
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            for (Rule rule : rules) {
+                if (rule.occursOn(day)) {
+                    windows.add(new AvailabilityIndex.Window(windowIdOf(rule.id()), day, rule.start(), rule.end()));
+                }
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * The windows with any time off removed; a window split by time off keeps its id on both parts.
+     */
+    public static List<AvailabilityIndex.Window> subtract(List<AvailabilityIndex.Window> windows, Collection<TimeOff> timeOff) {
+        if (timeOff.isEmpty()) {
+            return windows;
+        }
+        Map<LocalDate, List<TimeOff>> offByDay = new HashMap<>();
+        for (TimeOff off : timeOff) {
+            offByDay.computeIfAbsent(off.day(), d -> new ArrayList<>()).add(off);
+        }
+
+        List<AvailabilityIndex.Window> result = new ArrayList<>(windows.size());
+        for (AvailabilityIndex.Window window : windows) {
+            List<TimeOff> dayOff = offByDay.get(window.day());
+            if (dayOff == null) {
+                result.add(window);
+                continue;
+            }
+            List<int[]> pieces = new ArrayList<>();
+            pieces.add(new int[] {startMinute(window.start()), endMinute(window.end())});
+            for (TimeOff off : dayOff) {
+                int offStart = off.start() != null ? startMinute(off.start()) : 0;
+                int offEnd = off.end() != null ? endMinute(off.end()) : MINUTES_PER_DAY;
+                List<int[]> remaining = new ArrayList<>();
+                for (int[] piece : pieces) {
+                    if (offStart > piece[0]) {
+                        remaining.add(new int[] {piece[0], Math.min(piece[1], offStart)});
+                    }
+                    if (offEnd < piece[1]) {
+                        remaining.add(new int[] {Math.max(piece[0], offEnd), piece[1]});
+                    }
+                }
+                pieces = remaining;
+            }
+            for (int[] piece : pieces) {
+                if (piece[1] > piece[0]) {
+                    result.add(new AvailabilityIndex.Window(window.id(), window.day(), timeOf(piece[0]), timeOf(piece[1])));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int startMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int endMinute(LocalTime time) {
+        return time.equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY : startMinute(time);
+    }
+
+    private static LocalTime timeOf(int minute) {
+        return minute >= MINUTES_PER_DAY ? LocalTime.MIDNIGHT : LocalTime.of(minute / 60, minute % 60);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.insurAI.util;
+
+import java.util.Arrays;
+
+/**
+ * Works out bookable slot start times for one agent on one day. Open windows
+ * and booked slots are swept as a single sorted run of open/close events, so
+ * overlapping windows merge and every booking (widened by the buffer) is cut
+ * out in one pass. All values are minutes of the day.
+ */
+public final class SlotCalculator {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int WINDOW_OPEN = 0;
+    private static final int WINDOW_CLOSE = 1;
+    private static final int BUSY_OPEN = 2;
+    private static final int BUSY_CLOSE = 3;
+
+    private SlotCalculator() {
+    }
+
+    /**
+     * @param windows       start/end pairs of open windows, in any order and possibly overlapping
+     * @param bookedStarts  start minutes of existing bookings, each taking {@code slotMinutes}
+     * @param slotMinutes   length of one slot
+     * @param bufferMinutes gap kept free around every booking and between consecutive slots
+     * @return start minutes of the bookable slots, ascending
+     */
+    public static int[] bookableStarts(int[] windows, int[] bookedStarts, int slotMinutes, int bufferMinutes) {
+        int[] events = new int[windows.length + bookedStarts.length * 2];
+        int count = 0;
+        for (int i = 0; i + 1 < windows.length; i += 2) {
+            if (windows[i + 1] > windows[i]) {
+                events[count++] = event(windows[i], WINDOW_OPEN);
+                events[count++] = event(windows[i + 1], WINDOW_CLOSE);
+            }
+        }
+        for (int booked : bookedStarts) {
+            events[count++] = event(clamp(booked - bufferMinutes), BUSY_OPEN);
+            events[count++] = event(clamp(booked + slotMinutes + bufferMinutes), BUSY_CLOSE);
+        }
+        Arrays.sort(events, 0, count);
+
+        int[] starts = new int[16];
+        int found = 0;
+        int openWindows = 0;
+        int openBusy = 0;
+        int freeFrom = -1;
+        int i = 0;
+        while (i < count) {
+            // Apply every event at this minute before looking at the state, so touching intervals merge
+            int minute = events[i] >> 2;
+            while (i < count && events[i] >> 2 == minute) {
+                switch (events[i] & 3) {
+                    case WINDOW_OPEN -> openWindows++;
+                    case WINDOW_CLOSE -> openWindows--;
+                    case BUSY_OPEN -> openBusy++;
+                    default -> openBusy--;
+                }
+                i++;
+            }
+
+            boolean free = openWindows > 0 && openBusy == 0;
+            if (free && freeFrom < 0) {
+                freeFrom = minute;
+            } else if (!free && freeFrom >= 0) {
+                for (int start = freeFrom; start + slotMinutes <= minute; start += slotMinutes + bufferMinutes) {
+                    if (found == starts.length) {
+                        starts = Arrays.copyOf(starts, found * 2);
+                    }
+                    starts[found++] = start;
+                }
+                freeFrom = -1;
+            }
+        }
+        return Arrays.copyOf(starts, found);
+    }
+
+    private static int event(int minute, int kind) {
+        return minute << 2 | kind;
+    }
+
+    private static int clamp(int minute) {
+        return Math.max(0, Math.min(MINUTES_PER_DAY, minute));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.insurAI.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Word tokenizer shared by the text indexes: lowercases, splits on anything
+ * that is not a letter or digit, drops common stop words and folds plural endings.
+ */
+public final class TextTokens {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "the", "is", "are", "am", "was", "be", "i", "me", "my", "you", "your", "we", "us", "our",
+        "it", "its", "this", "that", "these", "those", "to", "of", "for", "in", "on", "at", "and", "or",
+        "do", "does", "did", "can", "could", "would", "please", "about", "with", "tell", "some", "any", "just");
+
+    private TextTokens() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            tokens.add(stem(word));
+        }
+        return tokens;
+    }
+
+    private static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
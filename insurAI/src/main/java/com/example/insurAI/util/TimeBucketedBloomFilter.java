@@ -0,0 +1,96 @@
+package com.example.insurAI.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filters partitioned by expiry time. Entries are added to the bucket
+ * covering their expiry, so once a bucket's window has passed the whole
+ * bucket can be dropped without rebuilding anything. Lookups touch one bucket.
+ */
+public class TimeBucketedBloomFilter {
+
+    private final long bucketWidthMillis;
+    private final int bitsPerBucket;
+    private final int hashFunctions;
+    private final ConcurrentMap<Long, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param bucketWidthMillis  width of each expiry window
+     * @param expectedPerBucket  expected entries per window, used to size the filter
+     * @param falsePositiveRate  target false positive probability per lookup
+     */
+    public TimeBucketedBloomFilter(long bucketWidthMillis, int expectedPerBucket, double falsePositiveRate) {
+        this.bucketWidthMillis = bucketWidthMillis;
+        double bits = -expectedPerBucket * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitsPerBucket = (int) Math.max(64, Math.ceil(bits / 64) * 64);
+        this.hashFunctions = (int) Math.max(1, Math.round(bitsPerBucket / (double) expectedPerBucket * Math.log(2)));
+    }
+
+    public void put(String key, long expiresAtMillis) {
+        AtomicLongArray bits = buckets.computeIfAbsent(bucketOf(expiresAtMillis),
+            bucket -> new AtomicLongArray(bitsPerBucket / 64));
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitsPerBucket);
+            long mask = 1L << (bit & 63);
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String key, long expiresAtMillis) {
+        AtomicLongArray bits = buckets.get(bucketOf(expiresAtMillis));
+        if (bits == null) {
+            return false;
+        }
+        long hash = hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashFunctions; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitsPerBucket);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops every bucket whose whole window lies before the given time.
+     */
+    public void expireBefore(long nowMillis) {
+        long current = bucketOf(nowMillis);
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    private long bucketOf(long millis) {
+        return millis / bucketWidthMillis;
+    }
+
+    // FNV-1a followed by a murmur3 finalizer for well-mixed high and low halves
+    private static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
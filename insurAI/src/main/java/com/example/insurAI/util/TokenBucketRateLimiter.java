@@ -0,0 +1,129 @@
+package com.example.insurAI.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token buckets updated with a single CAS on a packed long, so callers
+ * never block each other. The number of tracked keys is bounded: idle buckets
+ * (already refilled to capacity) are dropped first since a fresh bucket is
+ * equivalent. If the map is still over its limit, the buckets holding the most
+ * tokens go next, least recently used first, so spraying new keys cannot
+ * reset a key that is currently being throttled.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int TOKEN_BITS = 22;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    private final long capacityMilli;
+    private final double refillMilliPerMs;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final long baseMillis;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxKeys) {
+        this(capacity, refillPerSecond, maxKeys, System::currentTimeMillis);
+    }
+
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, int maxKeys, LongSupplier clock) {
+        if (capacity <= 0 || capacity * MILLI > TOKEN_MASK) {
+            throw new IllegalArgumentException("Capacity must be between 1 and " + (TOKEN_MASK / MILLI));
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Refill rate must be positive");
+        }
+        this.capacityMilli = capacity * MILLI;
+        this.refillMilliPerMs = refillPerSecond;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.baseMillis = clock.getAsLong();
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 when allowed, otherwise milliseconds until a token becomes available
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong() - baseMillis;
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacityMilli)));
+            if (buckets.size() > maxKeys) {
+                evict(now);
+            }
+        }
+
+        while (true) {
+            long state = bucket.get();
+            long tokens = refilled(state, now);
+            // Keep the old timestamp while a partial token is still accruing
+            long timestamp = tokens == (state & TOKEN_MASK) && tokens < capacityMilli ? timestampOf(state) : now;
+
+            if (tokens < MILLI) {
+                return (long) Math.ceil((MILLI - tokens) / refillMilliPerMs);
+            }
+            if (bucket.compareAndSet(state, pack(timestamp, tokens - MILLI))) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private long refilled(long state, long now) {
+        long tokens = state & TOKEN_MASK;
+        long elapsed = now - timestampOf(state);
+        if (elapsed <= 0 || tokens >= capacityMilli) {
+            return tokens;
+        }
+        long added = (long) (elapsed * refillMilliPerMs);
+        return Math.min(capacityMilli, tokens + added);
+    }
+
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> refilled(bucket.get(), now) >= capacityMilli);
+
+            int target = maxKeys - maxKeys / 10;
+            int excess = buckets.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            // Dropping a nearly full bucket forgives the least, so those go first
+            List<Map.Entry<String, Long>> snapshot = new ArrayList<>(buckets.size());
+            buckets.forEach((key, bucket) -> snapshot.add(Map.entry(key, bucket.get())));
+            snapshot.sort(Comparator.<Map.Entry<String, Long>>comparingLong(entry -> -refilled(entry.getValue(), now))
+                .thenComparingLong(entry -> timestampOf(entry.getValue())));
+            for (int i = 0; i < excess && i < snapshot.size(); i++) {
+                buckets.remove(snapshot.get(i).getKey());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static long pack(long timestamp, long tokens) {
+        return (timestamp << TOKEN_BITS) | tokens;
+    }
+
+    private static long timestampOf(long state) {
+        return state >>> TOKEN_BITS;
+    }
+}
@@ -0,0 +1,4 @@
+-- Lets each instance pick up tokens revoked elsewhere since its last refresh
+ALTER TABLE revoked_access_tokens
+    ADD COLUMN revoked_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    ADD KEY idx_revoked_access_tokens_revoked_at (revoked_at);
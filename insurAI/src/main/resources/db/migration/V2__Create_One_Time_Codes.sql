@@ -0,0 +1,21 @@
+-- Move verification and reset codes out of the users table into an indexed, hashed store.
+-- Codes are stored as an HMAC keyed by auth.codes.hmac-secret, which SQL cannot compute,
+-- so outstanding legacy codes are dropped rather than copied; users request a new one.
+CREATE TABLE IF NOT EXISTS one_time_codes (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    code_hash VARCHAR(64) NOT NULL,
+    purpose VARCHAR(32) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_one_time_codes_code_hash (code_hash),
+    KEY idx_one_time_codes_user_purpose (user_id, purpose),
+    KEY idx_one_time_codes_expires_at (expires_at)
+);
+
+ALTER TABLE users
+    DROP COLUMN verification_code,
+    DROP COLUMN verification_code_expiry,
+    DROP COLUMN reset_token,
+    DROP COLUMN reset_token_expiry;
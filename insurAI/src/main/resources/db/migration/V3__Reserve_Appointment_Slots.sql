@@ -0,0 +1,18 @@
+-- At most one live appointment per agent and time: reserved_slot mirrors the
+-- appointment time until the appointment is rejected, and is unique per agent
+ALTER TABLE appointments ADD COLUMN reserved_slot DATETIME(6) NULL;
+
+-- Existing double bookings keep only their earliest appointment on the slot
+UPDATE appointments a
+JOIN (
+    SELECT MIN(id) AS id
+    FROM appointments
+    WHERE status <> 'REJECTED'
+    GROUP BY agent_id, appointment_date_time
+) holder ON holder.id = a.id
+SET a.reserved_slot = a.appointment_date_time;
+
+ALTER TABLE appointments ADD UNIQUE KEY uk_appointments_agent_reserved_slot (agent_id, reserved_slot);
+
+-- Optimistic locking for availability windows
+ALTER TABLE agent_availability ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
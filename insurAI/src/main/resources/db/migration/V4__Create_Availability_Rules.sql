@@ -0,0 +1,29 @@
+-- Weekly availability stored as rules instead of one agent_availability row per day
+CREATE TABLE IF NOT EXISTS availability_rules (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    agent_id BIGINT NOT NULL,
+    days_of_week INT NOT NULL,
+    start_time TIME(6) NOT NULL,
+    end_time TIME(6) NOT NULL,
+    valid_from DATE NOT NULL,
+    valid_until DATE,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_availability_rules_agent (agent_id),
+    KEY idx_availability_rules_valid_until (valid_until),
+    CONSTRAINT fk_availability_rules_agent FOREIGN KEY (agent_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Days or hours an agent is away, cut out of both rules and one-off windows
+CREATE TABLE IF NOT EXISTS availability_time_off (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    agent_id BIGINT NOT NULL,
+    off_date DATE NOT NULL,
+    start_time TIME(6),
+    end_time TIME(6),
+    reason VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_availability_time_off_agent_date (agent_id, off_date),
+    CONSTRAINT fk_availability_time_off_agent FOREIGN KEY (agent_id) REFERENCES users (id) ON DELETE CASCADE
+);
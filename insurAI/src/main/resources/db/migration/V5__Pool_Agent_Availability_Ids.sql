@@ -0,0 +1,9 @@
+-- MySQL has no sequences, so Hibernate keeps the agent_availability id
+-- sequence in a single-row table and reserves 50 ids per read. It starts
+-- past every existing id.
+CREATE TABLE IF NOT EXISTS agent_availability_seq (
+    next_val BIGINT NOT NULL
+);
+
+INSERT INTO agent_availability_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM agent_availability;
@@ -0,0 +1,51 @@
+-- History moved out of the hot tables by the nightly archival job. Both
+-- archives are partitioned by year; the job splits the next year out of
+-- pmax ahead of time, so old years can be dropped or moved as a unit.
+-- Partitioned tables cannot have foreign keys, so ids are kept as plain values.
+CREATE TABLE IF NOT EXISTS agent_availability_archive (
+    id BIGINT NOT NULL,
+    agent_id BIGINT NOT NULL,
+    available_date DATETIME(6) NOT NULL,
+    start_time TIME(6) NOT NULL,
+    end_time TIME(6) NOT NULL,
+    is_available BIT NOT NULL,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, available_date),
+    KEY idx_availability_archive_agent_date (agent_id, available_date)
+)
+PARTITION BY RANGE (YEAR(available_date)) (
+    PARTITION p2024 VALUES LESS THAN (2025),
+    PARTITION p2025 VALUES LESS THAN (2026),
+    PARTITION p2026 VALUES LESS THAN (2027),
+    PARTITION p2027 VALUES LESS THAN (2028),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+CREATE TABLE IF NOT EXISTS appointments_archive (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    agent_id BIGINT NOT NULL,
+    appointment_date_time DATETIME(6) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    reason VARCHAR(255),
+    notes VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, appointment_date_time),
+    KEY idx_appointments_archive_customer (customer_id, appointment_date_time),
+    KEY idx_appointments_archive_agent (agent_id, appointment_date_time)
+)
+PARTITION BY RANGE (YEAR(appointment_date_time)) (
+    PARTITION p2024 VALUES LESS THAN (2025),
+    PARTITION p2025 VALUES LESS THAN (2026),
+    PARTITION p2026 VALUES LESS THAN (2027),
+    PARTITION p2027 VALUES LESS THAN (2028),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- The job and the hot-path queries select on these ranges
+CREATE INDEX idx_agent_availability_date ON agent_availability (available_date);
+CREATE INDEX idx_appointments_status_date ON appointments (status, appointment_date_time);
@@ -0,0 +1,43 @@
+-- Emails are queued in the same transaction as the change that triggers them
+-- and sent by the outbox dispatcher
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    sender VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at DATETIME(6),
+    sent_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_email_outbox_status_next_attempt (status, next_attempt_at)
+);
+
+-- Refresh tokens are stored as hashes; rotating one login keeps its family id
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    user_id BIGINT NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked BIT(1) NOT NULL DEFAULT 0,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_refresh_tokens_token_hash (token_hash),
+    KEY idx_refresh_tokens_user (user_id),
+    KEY idx_refresh_tokens_family (family_id)
+);
+
+-- Access tokens revoked before they expire, by JWT id
+CREATE TABLE IF NOT EXISTS revoked_access_tokens (
+    jti VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (jti),
+    KEY idx_revoked_access_tokens_expires_at (expires_at)
+);
+
+-- Tokens carrying an older version are rejected
+ALTER TABLE users ADD COLUMN token_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- V3 gave each double-booked slot to its earliest appointment and left the
+-- later ones live but without a reserved_slot. Any later save of such a row
+-- re-derives reserved_slot and collides with the holder on the unique key, so
+-- reject them now: after this, only rejected appointments have no reserved_slot
+UPDATE appointments
+SET status = 'REJECTED',
+    notes = CONCAT_WS(' ', notes, '[Rejected: slot was already booked]'),
+    updated_at = NOW(6)
+WHERE reserved_slot IS NULL AND status <> 'REJECTED';
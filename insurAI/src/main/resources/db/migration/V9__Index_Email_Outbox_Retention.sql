@@ -0,0 +1,2 @@
+-- Lets the retention sweep find finished outbox rows by age without scanning them all
+CREATE INDEX idx_email_outbox_status_created_at ON email_outbox (status, created_at);
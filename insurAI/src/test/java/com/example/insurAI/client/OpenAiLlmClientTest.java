@@ -0,0 +1,225 @@
+package com.example.insurAI.client;
+
+import com.example.insurAI.exception.LlmUnavailableException;
+import com.example.insurAI.util.CircuitBreaker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenAiLlmClientTest {
+
+    private static final LlmPrompt PROMPT = new LlmPrompt("test-model", "system", "hello", 50);
+
+    private StubLlmServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private OpenAiLlmClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubLlmServer();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new OpenAiLlmClient(new ObjectMapper(), meterRegistry, "sk-test", server.baseUrl(),
+            500, 300, 300, 3, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop();
+    }
+
+    @Test
+    void returnsCompletionContent() throws Exception {
+        server.respond(200, "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"Hi there\"}}]}", 0);
+
+        assertEquals("Hi there", client.complete(PROMPT).get(2, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("chatbot.llm.latency")
+            .tag("model", "test-model").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void slowUpstreamTimesOut() {
+        server.respond(200, "{}", 2_000);
+
+        long start = System.nanoTime();
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> client.complete(PROMPT).get(5, TimeUnit.SECONDS));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertInstanceOf(LlmUnavailableException.class, error.getCause());
+        assertTrue(elapsedMs < 1_500, "timeout took " + elapsedMs + " ms");
+        assertEquals(1, meterRegistry.get("chatbot.llm.failures")
+            .tag("model", "test-model").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndFailsFast() {
+        server.respond(500, "{\"error\":\"boom\"}", 0);
+
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<String> call = client.complete(PROMPT);
+            assertThrows(ExecutionException.class, () -> call.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertEquals(3, server.requestCount());
+
+        CompletableFuture<String> rejected = client.complete(PROMPT);
+        assertTrue(rejected.isCompletedExceptionally(), "open circuit should fail without I/O");
+        assertEquals(3, server.requestCount());
+        assertEquals(1, meterRegistry.get("chatbot.llm.failures")
+            .tag("model", "test-model").tag("reason", "circuit_open").counter().count());
+    }
+
+    @Test
+    void streamsDeltasUntilSinkStops() {
+        server.respond(200,
+            "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"lo\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\" world\"}}]}\n\n"
+                + "data: [DONE]\n\n", 0);
+
+        List<String> all = new ArrayList<>();
+        client.stream(PROMPT, all::add);
+        assertEquals(List.of("Hel", "lo", " world"), all);
+
+        List<String> firstOnly = new ArrayList<>();
+        client.stream(PROMPT, chunk -> {
+            firstOnly.add(chunk);
+            return false;
+        });
+        assertEquals(List.of("Hel"), firstOnly);
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void stalledStreamBodyTimesOutAfterTheIdleTimeout() {
+        server.respondThenStall("data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"}}]}\n\n", 5_000);
+
+        List<String> chunks = new ArrayList<>();
+        long start = System.nanoTime();
+        assertThrows(LlmUnavailableException.class, () -> client.stream(PROMPT, chunks::add));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(List.of("Hel"), chunks);
+        assertTrue(elapsedMs < 2_000, "idle timeout took " + elapsedMs + " ms");
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1, meterRegistry.get("chatbot.llm.failures")
+            .tag("model", "test-model").tag("reason", "timeout").counter().count());
+    }
+
+    @Test
+    void cancellationUnblocksAWaitingStreamWithoutCountingAFailure() throws Exception {
+        client.shutdown();
+        // No idle timeout in play, and a single failure would open the circuit
+        client = new OpenAiLlmClient(new ObjectMapper(), meterRegistry, "sk-test", server.baseUrl(),
+            500, 300, 60_000, 1, 60_000);
+        server.respondThenStall("data: {\"choices\":[{\"delta\":{\"content\":\"Hel\"}}]}\n\n", 5_000);
+
+        CompletableFuture<Void> cancellation = new CompletableFuture<>();
+        CompletableFuture<Throwable> outcome = CompletableFuture.supplyAsync(() -> {
+            try {
+                client.stream(PROMPT, chunk -> {
+                    cancellation.completeAsync(() -> null, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+                    return true;
+                }, cancellation);
+                return null;
+            } catch (Throwable e) {
+                return e;
+            }
+        });
+
+        assertInstanceOf(LlmUnavailableException.class, outcome.get(2, TimeUnit.SECONDS));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        assertTrue(meterRegistry.find("chatbot.llm.failures").counters().isEmpty());
+    }
+
+    /** Minimal OpenAI-compatible endpoint with a configurable status, body and delay. */
+    static class StubLlmServer {
+        private final HttpServer httpServer;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile int status = 200;
+        private volatile String body = "{}";
+        private volatile long delayMs;
+        private volatile long stallMs;
+
+        StubLlmServer() throws IOException {
+            httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            httpServer.createContext("/v1/chat/completions", this::handle);
+            httpServer.setExecutor(Executors.newCachedThreadPool());
+            httpServer.start();
+        }
+
+        void respond(int status, String body, long delayMs) {
+            this.status = status;
+            this.body = body;
+            this.delayMs = delayMs;
+            this.stallMs = 0;
+        }
+
+        /** Sends {@code body} as the start of a chunked response, then goes quiet. */
+        void respondThenStall(String body, long stallMs) {
+            respond(200, body, 0);
+            this.stallMs = stallMs;
+        }
+
+        String baseUrl() {
+            return "http://localhost:" + httpServer.getAddress().getPort();
+        }
+
+        int requestCount() {
+            return requests.get();
+        }
+
+        void stop() {
+            httpServer.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] payload = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            try {
+                exchange.sendResponseHeaders(status, stallMs > 0 ? 0 : payload.length);
+                exchange.getResponseBody().write(payload);
+                if (stallMs > 0) {
+                    exchange.getResponseBody().flush();
+                    Thread.sleep(stallMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                // Client already gave up
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.insurAI.config;
+
+import com.example.insurAI.controller.ChatbotController;
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.service.AccessTokenRevocationService;
+import com.example.insurAI.service.ChatStreamService;
+import com.example.insurAI.service.ChatbotService;
+import com.example.insurAI.service.JwtService;
+import com.example.insurAI.service.UserRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ChatbotController.class)
+@Import(SecurityConfig.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "signed.jwt.token";
+    private static final AuthenticatedUser USER = new AuthenticatedUser(42L, "customer@test.com", Role.CUSTOMER);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserRevocationService userRevocationService;
+
+    @MockBean
+    private AccessTokenRevocationService accessTokenRevocationService;
+
+    @MockBean
+    private ChatbotService chatbotService;
+
+    @MockBean
+    private ChatStreamService chatStreamService;
+
+    @BeforeEach
+    void setUp() {
+        Claims claims = Jwts.claims();
+        claims.setSubject(USER.email());
+        claims.setId("token-id");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtService.CLAIM_USER_ID, USER.id());
+        claims.put(JwtService.CLAIM_ROLE, USER.role().name());
+        when(jwtService.extractClaims(TOKEN)).thenReturn(claims);
+    }
+
+    @Test
+    void asyncDispatchOfAChatReplyStaysAuthenticated() throws Exception {
+        when(chatbotService.processUserMessage(eq("hello"), eq(USER)))
+            .thenReturn(CompletableFuture.completedFuture(Map.of("response", "hi there")));
+
+        MvcResult result = mockMvc.perform(post("/api/chatbot/chat")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"hello\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.response").value("hi there"));
+    }
+
+    @Test
+    void asyncDispatchOfAStreamStaysAuthenticated() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        when(chatStreamService.open(eq("hello"), any(AuthenticatedUser.class))).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(post("/api/chatbot/chat/stream")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"hello\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        sendAndComplete(emitter, "hi");
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("data:hi\n\n"));
+    }
+
+    @Test
+    void requestWithoutATokenIsRejected() throws Exception {
+        mockMvc.perform(post("/api/chatbot/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"hello\"}"))
+            .andExpect(status().isForbidden());
+    }
+
+    private static void sendAndComplete(SseEmitter emitter, String data) throws IOException {
+        emitter.send(data);
+        emitter.complete();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.RevokedAccessToken;
+import com.example.insurAI.repository.RevokedAccessTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccessTokenRevocationServiceTest {
+
+    private final Date expiresAt = new Date(System.currentTimeMillis() + 3_600_000);
+
+    private RevokedAccessTokenRepository repository;
+    private AccessTokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedAccessTokenRepository.class);
+        // Every token that reaches the table lookup is revoked there
+        when(repository.existsById(anyString())).thenReturn(true);
+
+        revocationService = new AccessTokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "revokedAccessTokenRepository", repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void picksUpTokensRevokedByAnotherInstanceOnRefresh() {
+        revocationService.refreshRevokedTokens();
+        assertFalse(revocationService.isRevoked("elsewhere", expiresAt));
+
+        when(repository.findByRevokedAtAfterAndExpiresAtAfter(any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(List.of(revoked("elsewhere")));
+        revocationService.refreshRevokedTokens();
+
+        assertTrue(revocationService.isRevoked("elsewhere", expiresAt));
+    }
+
+    @Test
+    void revocationReachesTheFilterOnlyOnceCommitted() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationService.revoke("signed-out", expiresAt);
+        assertFalse(revocationService.isRevoked("signed-out", expiresAt));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(revocationService.isRevoked("signed-out", expiresAt));
+    }
+
+    private RevokedAccessToken revoked(String jti) {
+        RevokedAccessToken token = new RevokedAccessToken();
+        token.setJti(jti);
+        token.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        return token;
+    }
+}
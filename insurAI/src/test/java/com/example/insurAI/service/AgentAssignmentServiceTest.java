@@ -0,0 +1,125 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.AppointmentRequest;
+import com.example.insurAI.dto.EarliestAppointmentRequest;
+import com.example.insurAI.entity.Appointment;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.entity.User;
+import com.example.insurAI.exception.SlotTakenException;
+import com.example.insurAI.repository.UserRepository;
+import com.example.insurAI.util.AvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgentAssignmentServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private AgentAssignmentService assignmentService;
+    private AppointmentService appointmentService;
+    private final List<AppointmentRequest> attempts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityIndexService indexService = mock(AvailabilityIndexService.class);
+        when(indexService.openingsBetween(any(), any())).thenReturn(List.of());
+        when(indexService.openingsBetween(DAY, DAY)).thenReturn(List.of(
+            new AvailabilityIndex.Opening(-1, 1, DAY, LocalTime.of(9, 0), LocalTime.of(12, 0)),
+            new AvailabilityIndex.Opening(-2, 2, DAY, LocalTime.of(10, 0), LocalTime.of(12, 0)),
+            new AvailabilityIndex.Opening(-3, 3, DAY, LocalTime.of(8, 0), LocalTime.of(12, 0))));
+
+        AppointmentSlotService slotService = mock(AppointmentSlotService.class);
+        when(slotService.slotsOn(any(), eq(DAY))).thenReturn(Map.of(
+            1L, new AppointmentSlotService.DaySlots(new int[] {9 * 60, 10 * 60, 11 * 60}, 0),
+            2L, new AppointmentSlotService.DaySlots(new int[] {10 * 60, 11 * 60}, 0)));
+
+        // Agent 3 has windows but is suspended
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllById(any())).thenReturn(List.of(agent(1, true), agent(2, true), agent(3, false)));
+
+        appointmentService = mock(AppointmentService.class);
+
+        assignmentService = new AgentAssignmentService();
+        ReflectionTestUtils.setField(assignmentService, "availabilityIndexService", indexService);
+        ReflectionTestUtils.setField(assignmentService, "appointmentSlotService", slotService);
+        ReflectionTestUtils.setField(assignmentService, "appointmentService", appointmentService);
+        ReflectionTestUtils.setField(assignmentService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(assignmentService, "searchDays", 3);
+        ReflectionTestUtils.setField(assignmentService, "maxAttempts", 20);
+    }
+
+    @Test
+    void movesOnWhenTheEarliestSlotWasTakenElsewhere() {
+        when(appointmentService.bookAppointment(anyLong(), any())).thenAnswer(invocation -> {
+            AppointmentRequest request = invocation.getArgument(1);
+            attempts.add(request);
+            if (attempts.size() == 1) {
+                throw new SlotTakenException();
+            }
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentDateTime(request.getAppointmentDateTime());
+            return appointment;
+        });
+
+        Appointment booked = assignmentService.bookEarliest(5L, request());
+
+        assertEquals(2, attempts.size());
+        assertEquals(1L, attempts.get(0).getAgentId());
+        assertEquals(DAY.atTime(9, 0), attempts.get(0).getAppointmentDateTime());
+        // Agents 1 and 2 are both free at ten; 2 has fewer assignments that day
+        assertEquals(2L, attempts.get(1).getAgentId());
+        assertEquals(DAY.atTime(10, 0), booked.getAppointmentDateTime());
+    }
+
+    @Test
+    void givesTheSlotBackWhenBookingFailsForAnotherReason() {
+        when(appointmentService.bookAppointment(eq(404L), any())).thenAnswer(invocation -> {
+            attempts.add(invocation.getArgument(1));
+            throw new RuntimeException("Customer not found");
+        });
+        when(appointmentService.bookAppointment(eq(5L), any())).thenAnswer(invocation -> {
+            AppointmentRequest request = invocation.getArgument(1);
+            attempts.add(request);
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentDateTime(request.getAppointmentDateTime());
+            return appointment;
+        });
+
+        assertThrows(RuntimeException.class, () -> assignmentService.bookEarliest(404L, request()));
+        LocalDateTime booked = assignmentService.bookEarliest(5L, request()).getAppointmentDateTime();
+
+        assertEquals(DAY.atTime(9, 0), booked);
+        assertEquals(1L, attempts.get(1).getAgentId());
+    }
+
+    private static EarliestAppointmentRequest request() {
+        EarliestAppointmentRequest request = new EarliestAppointmentRequest();
+        request.setFromDate(DAY);
+        request.setReason("Policy review");
+        return request;
+    }
+
+    private static User agent(long id, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(Role.AGENT);
+        user.setActive(active);
+        return user;
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.AppointmentRequest;
+import com.example.insurAI.dto.AuthenticatedUser;
+import com.example.insurAI.entity.Appointment;
+import com.example.insurAI.entity.AppointmentStatus;
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.entity.User;
+import com.example.insurAI.repository.AppointmentRepository;
+import com.example.insurAI.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 5, 6, 10, 0);
+    private static final long INSERT_MILLIS = 20;
+
+    private AppointmentService appointmentService;
+    private UserRepository userRepository;
+    private AppointmentRepository appointmentRepository;
+
+    // Stands in for the appointments table, without its unique key, so only the service guards it
+    private final Map<String, List<Appointment>> booked = new ConcurrentHashMap<>();
+
+    // Inserts in progress, overall and per agent, with the most ever seen at once
+    private final AtomicInteger inserting = new AtomicInteger();
+    private final AtomicInteger maxInserting = new AtomicInteger();
+    private final Map<Long, AtomicInteger> insertingPerAgent = new ConcurrentHashMap<>();
+    private final AtomicInteger maxInsertingPerAgent = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return Optional.of(user);
+        });
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.existsByAgentIdAndReservedSlot(anyLong(), any(LocalDateTime.class)))
+            .thenAnswer(invocation -> booked.containsKey(key(invocation.getArgument(0), invocation.getArgument(1))));
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            AtomicInteger agentInserting =
+                insertingPerAgent.computeIfAbsent(appointment.getAgent().getId(), id -> new AtomicInteger());
+            maxInserting.accumulateAndGet(inserting.incrementAndGet(), Math::max);
+            maxInsertingPerAgent.accumulateAndGet(agentInserting.incrementAndGet(), Math::max);
+            try {
+                // A slow insert widens the gap between the check and the write
+                Thread.sleep(INSERT_MILLIS);
+                booked.computeIfAbsent(key(appointment.getAgent().getId(), appointment.getAppointmentDateTime()),
+                    k -> new ArrayList<>()).add(appointment);
+                return appointment;
+            } finally {
+                agentInserting.decrementAndGet();
+                inserting.decrementAndGet();
+            }
+        });
+
+        // Every agent has hourly slots at 10:00, 11:00 and 12:00
+        AppointmentSlotService slotService = mock(AppointmentSlotService.class);
+        when(slotService.slotsOn(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> agentIds = invocation.getArgument(0);
+            return agentIds.stream().collect(Collectors.toMap(id -> id,
+                id -> new AppointmentSlotService.DaySlots(new int[] {10 * 60, 11 * 60, 12 * 60}, 0)));
+        });
+
+        appointmentService = new AppointmentService();
+        ReflectionTestUtils.setField(appointmentService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(appointmentService, "availabilityService", mock(AvailabilityService.class));
+        ReflectionTestUtils.setField(appointmentService, "appointmentSlotService", slotService);
+        ReflectionTestUtils.setField(appointmentService, "notificationService", mock(NotificationService.class));
+        ReflectionTestUtils.setField(appointmentService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(appointmentService, "transactionManager", mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotAdmitExactlyOne() throws Exception {
+        int attempts = 64;
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(attempts, i -> {
+            try {
+                appointmentService.bookAppointment(1000L + i, request(7L, SLOT));
+                succeeded.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("slot already booked"));
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, succeeded.get());
+        assertEquals(attempts - 1, rejected.get());
+        assertEquals(1, booked.get(key(7L, SLOT)).size());
+    }
+
+    @Test
+    void manySlotsAreEachBookedOnceAndDifferentAgentsDoNotSerialize() throws Exception {
+        int agents = 100;
+        int slotsPerAgent = 3;
+        int attemptsPerSlot = 3;
+        AtomicInteger succeeded = new AtomicInteger();
+
+        runConcurrently(agents * slotsPerAgent * attemptsPerSlot, i -> {
+            long agent = i % agents;
+            LocalDateTime slot = SLOT.plusHours(i / agents % slotsPerAgent);
+            try {
+                appointmentService.bookAppointment(5000L + i, request(agent, slot));
+                succeeded.incrementAndGet();
+            } catch (RuntimeException e) {
+                // Lost the race for this slot
+            }
+        });
+
+        assertEquals(agents * slotsPerAgent, succeeded.get());
+        booked.values().forEach(appointments -> assertEquals(1, appointments.size()));
+
+        // Bookings for one agent take turns, but inserts for different agents ran side by side
+        assertEquals(1, maxInsertingPerAgent.get());
+        assertTrue(maxInserting.get() > 1, "inserts never overlapped across agents");
+    }
+
+    @Test
+    void startsOffTheSlotGridAreRejected() {
+        RuntimeException offGrid = assertThrows(RuntimeException.class,
+            () -> appointmentService.bookAppointment(1000L, request(7L, SLOT.plusMinutes(30))));
+        assertEquals("Requested time is not one of the agent's open slots", offGrid.getMessage());
+        assertThrows(RuntimeException.class,
+            () -> appointmentService.bookAppointment(1000L, request(7L, SLOT.plusSeconds(1))));
+        assertThrows(RuntimeException.class,
+            () -> appointmentService.bookAppointment(1000L, request(7L, SLOT.plusHours(3))));
+        assertTrue(booked.isEmpty());
+
+        appointmentService.bookAppointment(1000L, request(7L, SLOT));
+        assertEquals(1, booked.get(key(7L, SLOT)).size());
+    }
+
+    @Test
+    void onlyTheAppointmentsAgentOrAnAdminCanChangeItsStatus() {
+        Appointment appointment = new Appointment();
+        appointment.setAgent(userRepository.getReferenceById(7L));
+        appointment.setStatus(AppointmentStatus.PENDING);
+        when(appointmentRepository.findById(99L)).thenReturn(Optional.of(appointment));
+
+        assertThrows(AccessDeniedException.class, () -> appointmentService.updateAppointmentStatus(99L, "CONFIRMED",
+            new AuthenticatedUser(1000L, "customer@test.com", Role.CUSTOMER)));
+        assertThrows(AccessDeniedException.class, () -> appointmentService.updateAppointmentStatus(99L, "CONFIRMED",
+            new AuthenticatedUser(8L, "other-agent@test.com", Role.AGENT)));
+        assertEquals(AppointmentStatus.PENDING, appointment.getStatus());
+
+        appointmentService.updateAppointmentStatus(99L, "CONFIRMED", new AuthenticatedUser(7L, "agent@test.com", Role.AGENT));
+        assertEquals(AppointmentStatus.APPROVED, appointment.getStatus());
+        appointmentService.updateAppointmentStatus(99L, "CANCELLED", new AuthenticatedUser(1L, "admin@test.com", Role.ADMIN));
+        assertEquals(AppointmentStatus.REJECTED, appointment.getStatus());
+    }
+
+    private interface Attempt {
+        void run(int index);
+    }
+
+    private static void runConcurrently(int count, Attempt attempt) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    attempt.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static AppointmentRequest request(long agentId, LocalDateTime dateTime) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setAgentId(agentId);
+        request.setAppointmentDateTime(dateTime);
+        request.setReason("Policy review");
+        return request;
+    }
+
+    private static String key(Long agentId, LocalDateTime dateTime) {
+        return agentId + "@" + dateTime;
+    }
+}
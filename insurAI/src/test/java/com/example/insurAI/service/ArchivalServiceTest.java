@@ -0,0 +1,58 @@
+package com.example.insurAI.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ArchivalServiceTest {
+
+    @Test
+    void splitsMissingYearsOutOfTheCatchAllPartition() {
+        assertEquals("ALTER TABLE appointments_archive REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p2028 VALUES LESS THAN (2029), PARTITION p2029 VALUES LESS THAN (2030), "
+                + "PARTITION pmax VALUES LESS THAN MAXVALUE)",
+            ArchivalService.reorganizeStatement("appointments_archive", List.of("p2026", "p2027", "pmax"), 2029));
+    }
+
+    @Test
+    void leavesPartitionsAloneWhenTheYearExistsOrTheTableIsNotPartitioned() {
+        assertNull(ArchivalService.reorganizeStatement("appointments_archive", List.of("p2027", "pmax"), 2027));
+        assertNull(ArchivalService.reorganizeStatement("appointments_archive", List.of("p2027"), 2029));
+        // information_schema lists an unpartitioned table with a null partition name
+        assertNull(ArchivalService.reorganizeStatement("appointments_archive", Arrays.asList((String) null), 2029));
+    }
+
+    @Test
+    void countsEveryCommittedBatchEvenWhenALaterOneFails() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any()))
+            .thenReturn(List.of(1L, 2L), List.of(3L, 4L))
+            .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        ArchivalService archivalService = new ArchivalService();
+        ReflectionTestUtils.setField(archivalService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(archivalService, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(archivalService, "batchSize", 2);
+
+        assertThrows(DataAccessResourceFailureException.class,
+            () -> archivalService.archiveAppointmentsBefore(LocalDateTime.now()));
+
+        // The first two batches committed before the third failed
+        assertEquals(4, archivalService.getArchivedAppointmentCount());
+    }
+}
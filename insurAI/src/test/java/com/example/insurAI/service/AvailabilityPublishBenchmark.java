@@ -0,0 +1,195 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.util.AvailabilityBatchValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second for publishing availability: a month of morning and
+ * afternoon windows for 100 agents (6,000 rows) per invocation.
+ *
+ * identityPerRow is the old path: IDENTITY keys and one auto-committed
+ * INSERT per window, as the one-window endpoint does. pooledBatch is the new
+ * one: ids reserved 50 at a time from the sequence table and the inserts sent
+ * as JDBC batches in one transaction. validateBatch is the in-memory overlap
+ * check run before either.
+ *
+ * The JDBC benchmarks create and drop their own tables in a scratch MySQL database:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.insurAI.service.AvailabilityPublishBenchmark
+ *     -Dbench.jdbc.url=jdbc:mysql://localhost:3306/insurai_bench -Dbench.jdbc.user=root -Dbench.jdbc.password=secret
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(AvailabilityPublishBenchmark.ROWS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityPublishBenchmark {
+
+    static final int AGENTS = 100;
+    static final int DAYS = 30;
+    static final int ROWS = AGENTS * DAYS * 2;
+    static final int BATCH_SIZE = 50;
+    static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private static final String INSERT_SQL = "INSERT INTO bench_availability "
+        + "(id, agent_id, available_date, start_time, end_time, is_available, version) VALUES (?, ?, ?, ?, ?, true, 0)";
+
+    @State(Scope.Benchmark)
+    public static class Database {
+        @Param("jdbc:mysql://localhost:3306/insurai_bench")
+        public String url;
+
+        Connection identity;
+        Connection batched;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            String user = System.getProperty("bench.jdbc.user", "root");
+            String password = System.getProperty("bench.jdbc.password", "");
+            identity = DriverManager.getConnection(url, user, password);
+            batched = DriverManager.getConnection(url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true", user, password);
+            try (Statement statement = identity.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS bench_availability");
+                statement.execute("DROP TABLE IF EXISTS bench_availability_seq");
+                statement.execute("CREATE TABLE bench_availability (id BIGINT NOT NULL AUTO_INCREMENT, agent_id BIGINT NOT NULL, "
+                    + "available_date DATETIME(6) NOT NULL, start_time TIME(6) NOT NULL, end_time TIME(6) NOT NULL, "
+                    + "is_available BIT NOT NULL, version BIGINT NOT NULL, PRIMARY KEY (id))");
+                statement.execute("CREATE TABLE bench_availability_seq (next_val BIGINT NOT NULL)");
+                statement.execute("INSERT INTO bench_availability_seq VALUES (1)");
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void truncate() throws SQLException {
+            try (Statement statement = identity.createStatement()) {
+                statement.execute("DELETE FROM bench_availability");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            try (Statement statement = identity.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS bench_availability");
+                statement.execute("DROP TABLE IF EXISTS bench_availability_seq");
+            }
+            identity.close();
+            batched.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+        List<AvailabilityBatchValidator.Candidate> candidates = new ArrayList<>(ROWS);
+
+        @Setup(Level.Trial)
+        public void build() {
+            for (long agent = 1; agent <= AGENTS; agent++) {
+                for (int d = 0; d < DAYS; d++) {
+                    LocalDate day = FIRST_DAY.plusDays(d);
+                    candidates.add(new AvailabilityBatchValidator.Candidate(agent, day, LocalTime.of(9, 0), LocalTime.of(12, 0)));
+                    candidates.add(new AvailabilityBatchValidator.Candidate(agent, day, LocalTime.of(14, 0), LocalTime.of(17, 0)));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public String[] validateBatch(Batch batch) {
+        return AvailabilityBatchValidator.validate(batch.candidates, (agentId, day) -> new int[0]);
+    }
+
+    @Benchmark
+    public long identityPerRow(Database database, Batch batch) throws SQLException {
+        String sql = "INSERT INTO bench_availability (agent_id, available_date, start_time, end_time, is_available, version) "
+            + "VALUES (?, ?, ?, ?, true, 0)";
+        long lastId = 0;
+        try (PreparedStatement insert = database.identity.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (AvailabilityBatchValidator.Candidate window : batch.candidates) {
+                bind(insert, 1, window);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        return lastId;
+    }
+
+    @Benchmark
+    public long pooledBatch(Database database, Batch batch) throws SQLException {
+        Connection connection = database.batched;
+        connection.setAutoCommit(false);
+        long nextId = 0;
+        long reservedUpTo = 0;
+        try (PreparedStatement reserve = connection.prepareStatement("UPDATE bench_availability_seq SET next_val = LAST_INSERT_ID(next_val + ?)");
+             PreparedStatement readReserved = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+             PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+            int pending = 0;
+            for (AvailabilityBatchValidator.Candidate window : batch.candidates) {
+                if (nextId == reservedUpTo) {
+                    reserve.setInt(1, BATCH_SIZE);
+                    reserve.executeUpdate();
+                    try (ResultSet reserved = readReserved.executeQuery()) {
+                        reserved.next();
+                        reservedUpTo = reserved.getLong(1);
+                    }
+                    nextId = reservedUpTo - BATCH_SIZE;
+                }
+                insert.setLong(1, nextId++);
+                bind(insert, 2, window);
+                insert.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return nextId;
+    }
+
+    private static void bind(PreparedStatement statement, int first, AvailabilityBatchValidator.Candidate window) throws SQLException {
+        statement.setLong(first, window.agentId());
+        statement.setTimestamp(first + 1, Timestamp.valueOf(LocalDateTime.of(window.day(), LocalTime.MIDNIGHT)));
+        statement.setTime(first + 2, Time.valueOf(window.start()));
+        statement.setTime(first + 3, Time.valueOf(window.end()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String url = System.getProperty("bench.jdbc.url");
+        OptionsBuilder options = new OptionsBuilder();
+        options.include(AvailabilityPublishBenchmark.class.getSimpleName()
+            + (url == null ? ".validateBatch" : ""));
+        if (url != null) {
+            options.param("url", url)
+                .jvmArgsAppend("-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "root"),
+                    "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", ""));
+        }
+        Options built = options.build();
+        new Runner(built).run();
+    }
+}
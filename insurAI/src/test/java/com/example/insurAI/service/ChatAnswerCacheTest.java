@@ -0,0 +1,68 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatAnswerCacheTest {
+
+    private static final String SCOPE = "You are InsurAI.";
+
+    private ChatAnswerCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChatAnswerCache(new SimpleMeterRegistry(), 100, 3600, 0.8);
+    }
+
+    @Test
+    void normalizedVariantsShareAnEntry() {
+        cache.put(cache.keyFor(SCOPE, "How do I file a claim?"), "answer");
+
+        assertEquals(Optional.of("answer"), cache.get(cache.keyFor(SCOPE, "how   do I file the claims")));
+        assertEquals(Optional.of("answer"), cache.get(cache.keyFor(SCOPE, "HOW TO FILE A CLAIM")));
+        assertEquals(Optional.empty(), cache.get(cache.keyFor(SCOPE, "how do I renew my policy")));
+        assertEquals(Optional.empty(), cache.get(cache.keyFor("other scope", "how do I file a claim")));
+    }
+
+    @Test
+    void nearDuplicateQuestionHitsThroughMinHash() {
+        cache.put(cache.keyFor(SCOPE, "what documents are required for health insurance application in india"),
+            "documents answer");
+
+        Optional<String> near = cache.get(cache.keyFor(SCOPE,
+            "what documents are required for health insurance application in india today"));
+        assertEquals(Optional.of("documents answer"), near);
+        assertTrue(cache.getHitRate() > 0);
+    }
+
+    @Test
+    void catalogChangeDropsEntriesAndRejectsStaleWrites() {
+        ChatAnswerCache.Key before = cache.keyFor(SCOPE, "compare health policies");
+        cache.put(before, "old comparison");
+
+        ChatAnswerCache.Key inFlight = cache.keyFor(SCOPE, "list vehicle policies");
+        cache.onPolicyCatalogChanged(new PolicyCatalogChangedEvent(1L));
+        cache.put(inFlight, "computed against the old catalog");
+
+        assertEquals(Optional.empty(), cache.get(cache.keyFor(SCOPE, "compare health policies")));
+        assertEquals(Optional.empty(), cache.get(cache.keyFor(SCOPE, "list vehicle policies")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void sizeIsBounded() {
+        for (int i = 0; i < 500; i++) {
+            cache.put(cache.keyFor(SCOPE, "question number " + i), "answer " + i);
+        }
+        assertEquals(100, cache.size());
+        assertNull(cache.keyFor(SCOPE, "the a of ?"));
+    }
+}
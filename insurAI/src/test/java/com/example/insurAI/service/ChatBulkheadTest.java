@@ -0,0 +1,81 @@
+package com.example.insurAI.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatBulkheadTest {
+
+    private ChatBulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.shutdown();
+    }
+
+    @Test
+    void neverExceedsPermitsAndDegradesOverflow() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkhead = new ChatBulkhead(registry, 4, 8, 100);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxObserved = new AtomicInteger();
+        CompletableFuture<Void> release = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> replies = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            replies.add(bulkhead.submit(() -> {
+                maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return release.thenApply(ignored -> {
+                    inFlight.decrementAndGet();
+                    return "model";
+                });
+            }, () -> "fallback"));
+        }
+
+        // The 8 queued requests time out after 100 ms; the other 38 overflow immediately
+        Thread.sleep(300);
+        release.complete(null);
+
+        int model = 0;
+        int fallback = 0;
+        for (CompletableFuture<String> reply : replies) {
+            if ("model".equals(reply.get(2, TimeUnit.SECONDS))) {
+                model++;
+            } else {
+                fallback++;
+            }
+        }
+        assertEquals(4, model);
+        assertEquals(46, fallback);
+        assertTrue(maxObserved.get() <= 4);
+        assertEquals(0, bulkhead.getInFlight());
+        assertEquals(46, registry.get("chatbot.bulkhead.requests").tag("outcome", "rejected").counter().count());
+        assertEquals(8, registry.get("chatbot.bulkhead.requests").tag("outcome", "queued").counter().count());
+    }
+
+    @Test
+    void queuedRequestsAreServedWhenPermitsFreeUpBeforeTheDeadline() throws Exception {
+        bulkhead = new ChatBulkhead(new SimpleMeterRegistry(), 2, 10, 2_000);
+
+        List<CompletableFuture<String>> replies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            replies.add(bulkhead.submit(
+                () -> CompletableFuture.supplyAsync(() -> "model",
+                    CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS)),
+                () -> "fallback"));
+        }
+        for (CompletableFuture<String> reply : replies) {
+            assertEquals("model", reply.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
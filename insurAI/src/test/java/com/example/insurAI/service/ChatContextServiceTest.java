@@ -0,0 +1,80 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.entity.User;
+import com.example.insurAI.event.UserActivityChangedEvent;
+import com.example.insurAI.repository.AppointmentRepository;
+import com.example.insurAI.repository.PolicyApplicationRepository;
+import com.example.insurAI.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatContextServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PolicyApplicationRepository applicationRepository = mock(PolicyApplicationRepository.class);
+    private ChatContextService contextService;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(user(invocation.getArgument(0))));
+
+        contextService = new ChatContextService();
+        ReflectionTestUtils.setField(contextService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(contextService, "applicationRepository", applicationRepository);
+        ReflectionTestUtils.setField(contextService, "appointmentRepository", mock(AppointmentRepository.class));
+        ReflectionTestUtils.setField(contextService, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(contextService, "maxEntries", 100);
+        contextService.init();
+    }
+
+    @Test
+    void servesRepeatLookupsFromTheCache() {
+        contextService.getContext(1L);
+        contextService.getContext(1L);
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void anotherUsersChangeDoesNotDiscardALoadInFlight() {
+        // User 2 changes while user 1's context is being counted
+        when(applicationRepository.countByUserId(1L)).thenAnswer(invocation -> {
+            contextService.onUserActivityChanged(new UserActivityChangedEvent(2L));
+            return 3L;
+        });
+
+        assertEquals(3L, contextService.getContext(1L).orElseThrow().applicationCount());
+        assertEquals(1, contextService.getCachedContextCount());
+    }
+
+    @Test
+    void aChangeDuringTheUsersOwnLoadKeepsTheResultOutOfTheCache() {
+        when(applicationRepository.countByUserId(1L)).thenAnswer(invocation -> {
+            contextService.onUserActivityChanged(new UserActivityChangedEvent(1L));
+            return 3L;
+        });
+
+        contextService.getContext(1L);
+
+        assertEquals(0, contextService.getCachedContextCount());
+    }
+
+    private static User user(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setFullName("User " + id);
+        user.setRole(Role.CUSTOMER);
+        return user;
+    }
+}
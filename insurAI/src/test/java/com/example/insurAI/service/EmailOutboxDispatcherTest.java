@@ -0,0 +1,219 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.EmailOutbox;
+import com.example.insurAI.entity.EmailStatus;
+import com.example.insurAI.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailOutboxDispatcherTest {
+
+    private FakeSmtpServer smtpServer;
+    private EmailOutboxRepository repository;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpServer = new FakeSmtpServer();
+        smtpServer.start();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpServer.getPort());
+
+        repository = mock(EmailOutboxRepository.class);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        dispatcher = new EmailOutboxDispatcher(repository, mailSender, mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 50, 3, 30, 7);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpServer.stop();
+    }
+
+    @Test
+    void sendsWholeBatchOverOneConnection() {
+        List<EmailOutbox> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            batch.add(outbox("user" + i + "@test.com"));
+        }
+        when(repository.findDue(eq(EmailStatus.PENDING), any(LocalDateTime.class), any())).thenReturn(batch);
+
+        assertEquals(5, dispatcher.dispatchBatch());
+
+        assertEquals(5, smtpServer.getDeliveredCount());
+        assertEquals(1, smtpServer.getConnectionCount());
+        batch.forEach(email -> {
+            assertEquals(EmailStatus.SENT, email.getStatus());
+            assertNotNull(email.getSentAt());
+            // The verification code is not kept once delivered
+            assertEquals("[redacted]", email.getBody());
+        });
+    }
+
+    @Test
+    void retriesRejectedRecipientWithBackoffThenDeadLetters() {
+        EmailOutbox good = outbox("ok@test.com");
+        EmailOutbox bad = outbox("reject@test.com");
+        when(repository.findDue(eq(EmailStatus.PENDING), any(LocalDateTime.class), any())).thenReturn(List.of(good, bad));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(EmailStatus.SENT, good.getStatus());
+        assertEquals(EmailStatus.PENDING, bad.getStatus());
+        assertEquals(1, bad.getAttempts());
+        assertTrue(bad.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+
+        when(repository.findDue(eq(EmailStatus.PENDING), any(LocalDateTime.class), any())).thenReturn(List.of(bad));
+        dispatcher.dispatchBatch();
+        dispatcher.dispatchBatch();
+
+        assertEquals(3, bad.getAttempts());
+        assertEquals(EmailStatus.DEAD, bad.getStatus());
+        assertEquals("[redacted]", bad.getBody());
+    }
+
+    @Test
+    void purgesFinishedRowsOlderThanTheRetentionInBatches() {
+        when(repository.deleteFinishedBefore(any(LocalDateTime.class), eq(1000))).thenReturn(1000, 1000, 17);
+
+        assertEquals(2017, dispatcher.purgeFinished());
+
+        verify(repository, times(3)).deleteFinishedBefore(argThat(cutoff ->
+            cutoff.isBefore(LocalDateTime.now().minusDays(7).plusMinutes(1))
+                && cutoff.isAfter(LocalDateTime.now().minusDays(7).minusMinutes(1))), eq(1000));
+    }
+
+    private static EmailOutbox outbox(String recipient) {
+        EmailOutbox email = new EmailOutbox();
+        email.setSender("noreply@insurai.test");
+        email.setRecipient(recipient);
+        email.setSubject("Email Verification Code - InsurAI");
+        email.setBody("Your verification code is: 123456");
+        return email;
+    }
+
+    /**
+     * Just enough SMTP to accept mail; recipients containing "reject" get a 550.
+     */
+    private static class FakeSmtpServer {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> delivered = new CopyOnWriteArrayList<>();
+        private Thread acceptThread;
+
+        FakeSmtpServer() throws IOException {
+            this.serverSocket = new ServerSocket(0);
+        }
+
+        void start() {
+            acceptThread = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        Thread session = new Thread(() -> handle(socket));
+                        session.setDaemon(true);
+                        session.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+        }
+
+        void stop() throws IOException {
+            serverSocket.close();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnectionCount() {
+            return connections.get();
+        }
+
+        int getDeliveredCount() {
+            return delivered.size();
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+                reply(out, "220 localhost fake SMTP");
+                String recipient = null;
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("MAIL FROM")) {
+                        recipient = null;
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("RCPT TO")) {
+                        if (line.contains("reject")) {
+                            reply(out, "550 Mailbox unavailable");
+                        } else {
+                            recipient = line;
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.startsWith("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard message body
+                        }
+                        delivered.add(recipient);
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+                // client went away
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.insurAI.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the original contains/matches chain with the single-pass
+ * IntentEngine over a mix of typical chatbot messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntentEngineBenchmark {
+
+    private static final List<String> MESSAGES = List.of(
+        "Can you compare health and life insurance for me?",
+        "How do I file a claim for my car accident last week",
+        "What documents are required to apply",
+        "I would like to book an appointment with someone tomorrow morning",
+        "ok thanks",
+        "Tell me about renewal of my existing cover please, it will expire soon"
+    );
+
+    private IntentEngine engine;
+
+    @Setup
+    public void setup() {
+        engine = new IntentEngine();
+    }
+
+    @Benchmark
+    public void legacyChain(Blackhole blackhole) {
+        for (String message : MESSAGES) {
+            blackhole.consume(LegacyIntentClassifier.classify(message));
+        }
+    }
+
+    @Benchmark
+    public void intentEngine(Blackhole blackhole) {
+        for (String message : MESSAGES) {
+            blackhole.consume(engine.classify(message));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(IntentEngineBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.service.IntentEngine.Intent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntentEngineTest {
+
+    private final IntentEngine engine = new IntentEngine();
+
+    // Golden set: expected intents as produced by the original keyword chain
+    private static final Map<String, Intent> GOLDEN = new LinkedHashMap<>();
+
+    static {
+        GOLDEN.put("Show me the available agents", Intent.AGENTS);
+        GOLDEN.put("agent portal", Intent.AGENTS);
+        GOLDEN.put("Compare health and life insurance", Intent.COMPARISON);
+        GOLDEN.put("health vs vehicle", Intent.COMPARISON);
+        GOLDEN.put("life versus term", Intent.COMPARISON);
+        GOLDEN.put("policy comparison", Intent.COMPARISON);
+        GOLDEN.put("what is the difference between plans", Intent.COMPARISON);
+        GOLDEN.put("hello", Intent.GREETING);
+        GOLDEN.put("Hey there", Intent.GREETING);
+        GOLDEN.put("which policy is right for me", Intent.GREETING);
+        GOLDEN.put("insurance", Intent.POLICIES);
+        GOLDEN.put("list your plans", Intent.POLICIES);
+        GOLDEN.put("health insurance", Intent.POLICIES);
+        GOLDEN.put("medical cover", Intent.HEALTH);
+        GOLDEN.put("hospital", Intent.HEALTH);
+        GOLDEN.put("my car", Intent.VEHICLE);
+        GOLDEN.put("bike cover", Intent.VEHICLE);
+        GOLDEN.put("life", Intent.LIFE);
+        GOLDEN.put("term plan", Intent.LIFE);
+        GOLDEN.put("book a meeting", Intent.APPOINTMENT);
+        GOLDEN.put("how to file a claim", Intent.CLAIMS);
+        GOLDEN.put("how much does it cost", Intent.PREMIUM);
+        GOLDEN.put("premium", Intent.PREMIUM);
+        GOLDEN.put("how to apply", Intent.APPLICATION);
+        GOLDEN.put("documents needed", Intent.DOCUMENTS);
+        GOLDEN.put("papers", Intent.DOCUMENTS);
+        GOLDEN.put("what does it cover", Intent.BENEFITS);
+        GOLDEN.put("phone number", Intent.CONTACT);
+        GOLDEN.put("email support", Intent.CONTACT);
+        GOLDEN.put("am I eligible", Intent.ELIGIBILITY);
+        GOLDEN.put("renew", Intent.RENEWAL);
+        GOLDEN.put("when does it expire", Intent.RENEWAL);
+        GOLDEN.put("what", Intent.GENERAL_QUESTION);
+        GOLDEN.put("why?", Intent.GENERAL_QUESTION);
+        GOLDEN.put("where do I go", Intent.SMART_SUGGESTIONS);
+        GOLDEN.put("can I", Intent.SMART_SUGGESTIONS);
+        GOLDEN.put("ok", Intent.SMART_DEFAULT);
+        GOLDEN.put("", Intent.SMART_DEFAULT);
+        GOLDEN.put("नमस्ते", Intent.SMART_DEFAULT);
+    }
+
+    @Test
+    void matchesGoldenSet() {
+        GOLDEN.forEach((message, expected) ->
+            assertEquals(expected, engine.classify(message), "message: " + message));
+    }
+
+    @Test
+    void goldenSetMatchesOriginalChain() {
+        GOLDEN.forEach((message, expected) ->
+            assertEquals(expected, LegacyIntentClassifier.classify(message), "message: " + message));
+    }
+
+    @Test
+    void agreesWithOriginalChainOnGeneratedMessages() {
+        List<String> vocabulary = List.of("agent", "compare", "health", "vehicle", "life", "hello", "policy",
+            "policies", "which", "can you", "claim", "how much", "how to", "what does", "where", "should",
+            "renewal", "eligible", "email", "book", "car", "term", "?", "the", "my", "please", "insurance",
+            "documents", "benefit", "premium", "schedule", "versus", "better", "comparison", "thanks", "quick", "now", "hi", "vs");
+        Random random = new Random(42);
+
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder message = new StringBuilder();
+            int words = 1 + random.nextInt(6);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    message.append(' ');
+                }
+                String word = vocabulary.get(random.nextInt(vocabulary.size()));
+                message.append(random.nextInt(5) == 0 ? word.toUpperCase() : word);
+            }
+            messages.add(message.toString());
+        }
+
+        for (String message : messages) {
+            assertEquals(LegacyIntentClassifier.classify(message), engine.classify(message), "message: " + message);
+        }
+    }
+}
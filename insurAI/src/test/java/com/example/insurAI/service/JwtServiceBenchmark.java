@@ -0,0 +1,84 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.Role;
+import com.example.insurAI.entity.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old per-call key/parser construction against JwtService's
+ * shared parser and verified-token cache for the extractEmail + isTokenValid
+ * pair a single request performs.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.insurAI.service.JwtServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long!!";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "maxCachedTokens", 10_000);
+        jwtService.init();
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("customer@test.com");
+        user.setRole(Role.CUSTOMER);
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean uncachedParsePerCall() {
+        String email = Jwts.parserBuilder().setSigningKey(legacyKey()).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        boolean valid;
+        try {
+            Jwts.parserBuilder().setSigningKey(legacyKey()).build().parseClaimsJws(token);
+            valid = true;
+        } catch (Exception e) {
+            valid = false;
+        }
+        return valid && email != null;
+    }
+
+    @Benchmark
+    public boolean cachedVerification() {
+        String email = jwtService.extractEmail(token);
+        return jwtService.isTokenValid(token) && email != null;
+    }
+
+    private static Key legacyKey() {
+        return new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
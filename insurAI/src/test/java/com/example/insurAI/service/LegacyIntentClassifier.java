@@ -0,0 +1,82 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.service.IntentEngine.Intent;
+
+/**
+ * The original contains/matches chain from ChatbotService, kept as the
+ * reference for golden tests and benchmarks of {@link IntentEngine}.
+ */
+final class LegacyIntentClassifier {
+
+    private LegacyIntentClassifier() {
+    }
+
+    static Intent classify(String rawMessage) {
+        String message = rawMessage.toLowerCase();
+        String msg = message.toLowerCase();
+
+        if (msg.contains("agent") || msg.contains("available") || msg.contains("portal")) {
+            return Intent.AGENTS;
+        }
+        if (message.matches(".*(compare|comparison|difference|vs|versus|better|which.*better|can you compare).*") ||
+            (message.contains("health") && message.contains("vehicle")) ||
+            (message.contains("health") && message.contains("life")) ||
+            (message.contains("vehicle") && message.contains("life"))) {
+            return Intent.COMPARISON;
+        }
+        if (msg.contains("hello") || msg.contains("hi") || msg.contains("hey")) {
+            return Intent.GREETING;
+        }
+        if (msg.contains("policies") || msg.contains("insurance") || msg.contains("available") || msg.contains("types") || msg.contains("plans")) {
+            return Intent.POLICIES;
+        }
+        if (msg.contains("health") || msg.contains("medical") || msg.contains("hospital")) {
+            return Intent.HEALTH;
+        }
+        if (msg.contains("vehicle") || msg.contains("car") || msg.contains("bike") || msg.contains("auto")) {
+            return Intent.VEHICLE;
+        }
+        if (msg.contains("life") || msg.contains("term")) {
+            return Intent.LIFE;
+        }
+        if (msg.contains("appointment") || msg.contains("schedule") || msg.contains("meeting") || msg.contains("book")) {
+            return Intent.APPOINTMENT;
+        }
+        if (msg.contains("claim") || msg.contains("file") || msg.contains("submit")) {
+            return Intent.CLAIMS;
+        }
+        if (msg.contains("premium") || msg.contains("price") || msg.contains("cost") || msg.contains("how much")) {
+            return Intent.PREMIUM;
+        }
+        if (msg.contains("apply") || msg.contains("application") || msg.contains("how to")) {
+            return Intent.APPLICATION;
+        }
+        if (msg.contains("document") || msg.contains("papers") || msg.contains("required")) {
+            return Intent.DOCUMENTS;
+        }
+        if (msg.contains("benefit") || msg.contains("coverage") || msg.contains("what does")) {
+            return Intent.BENEFITS;
+        }
+        if (msg.contains("contact") || msg.contains("phone") || msg.contains("email") || msg.contains("support")) {
+            return Intent.CONTACT;
+        }
+        if (msg.contains("age") || msg.contains("eligible") || msg.contains("qualify")) {
+            return Intent.ELIGIBILITY;
+        }
+        if (msg.contains("renew") || msg.contains("renewal") || msg.contains("expire")) {
+            return Intent.RENEWAL;
+        }
+        if (msg.contains("compare") || msg.contains("difference") || msg.contains("vs") || msg.contains("better") ||
+            (msg.contains("can you") && (msg.contains("health") || msg.contains("vehicle") || msg.contains("life"))) ||
+            (msg.contains("which") && msg.contains("policy"))) {
+            return Intent.COMPARISON;
+        }
+        if (msg.contains("what") || msg.contains("how") || msg.contains("why") || msg.contains("when") || msg.contains("?")) {
+            return Intent.GENERAL_QUESTION;
+        }
+        if (message.matches(".*(what|how|when|where|why|can|should|will).*")) {
+            return Intent.SMART_SUGGESTIONS;
+        }
+        return Intent.SMART_DEFAULT;
+    }
+}
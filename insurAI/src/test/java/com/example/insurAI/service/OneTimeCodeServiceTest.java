@@ -0,0 +1,97 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.OneTimeCodePurpose;
+import com.example.insurAI.repository.OneTimeCodeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OneTimeCodeServiceTest {
+
+    private OneTimeCodeRepository repository;
+    private OneTimeCodeService codeService;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OneTimeCodeRepository.class);
+        when(repository.findByUserIdAndPurpose(anyLong(), any())).thenReturn(List.of());
+        when(repository.findByCodeHash(anyString())).thenReturn(Optional.empty());
+        codeService = service("server-secret");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void issuedCodeReachesTheIndexOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        String code = codeService.issue(7L, OneTimeCodePurpose.EMAIL_VERIFICATION, Duration.ofMinutes(10));
+        assertTrue(codeService.find(code, OneTimeCodePurpose.EMAIL_VERIFICATION).isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        OneTimeCodeService.CodeEntry entry = codeService.find(code, OneTimeCodePurpose.EMAIL_VERIFICATION).orElseThrow();
+        assertEquals(7L, entry.userId());
+    }
+
+    @Test
+    void rolledBackIssueLeavesNoCodeBehind() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        String code = codeService.issue(7L, OneTimeCodePurpose.PASSWORD_RESET, Duration.ofMinutes(10));
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(codeService.find(code, OneTimeCodePurpose.PASSWORD_RESET).isEmpty());
+    }
+
+    @Test
+    void onlyTheRequestThatDeletedTheRowConsumesTheCode() {
+        String hash = codeService.hash(OneTimeCodePurpose.PASSWORD_RESET, "123456");
+        when(repository.deleteLiveCode(eq(hash), eq(OneTimeCodePurpose.PASSWORD_RESET), any(LocalDateTime.class)))
+            .thenReturn(1, 0);
+
+        assertTrue(codeService.consume("123456", OneTimeCodePurpose.PASSWORD_RESET));
+        assertFalse(codeService.consume("123456", OneTimeCodePurpose.PASSWORD_RESET));
+        assertFalse(codeService.consume(null, OneTimeCodePurpose.PASSWORD_RESET));
+    }
+
+    @Test
+    void hashIsKeyedByTheServerSecret() {
+        String hash = codeService.hash(OneTimeCodePurpose.EMAIL_VERIFICATION, "123456");
+
+        assertEquals(hash, service("server-secret").hash(OneTimeCodePurpose.EMAIL_VERIFICATION, "123456"));
+        assertNotEquals(hash, service("other-secret").hash(OneTimeCodePurpose.EMAIL_VERIFICATION, "123456"));
+        assertNotEquals(hash, codeService.hash(OneTimeCodePurpose.PASSWORD_RESET, "123456"));
+    }
+
+    private OneTimeCodeService service(String secret) {
+        OneTimeCodeService service = new OneTimeCodeService();
+        ReflectionTestUtils.setField(service, "oneTimeCodeRepository", repository);
+        ReflectionTestUtils.setField(service, "hmacSecret", secret);
+        return service;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHashingService hashingService;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (hashingService != null) {
+            hashingService.shutdown();
+        }
+    }
+
+    @Test
+    void encodesAndVerifiesOnThePool() {
+        hashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 4, 0, 5000);
+
+        String hash = hashingService.encode("secret-1");
+
+        assertTrue(hashingService.matches("secret-1", hash));
+        assertFalse(hashingService.matches("secret-2", hash));
+    }
+
+    @Test
+    void flagsHashesWithAnotherCostForRehash() {
+        hashingService = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 4, 0, 5000);
+
+        assertFalse(hashingService.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(hashingService.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+        assertFalse(hashingService.needsRehash(null));
+    }
+
+    @Test
+    void defaultQueueHoldsAFewHashesPerCoreThenRejects() throws Exception {
+        hashingService = new PasswordHashingService(blockingEncoder(), meterRegistry, 10, 0, 30_000);
+        int capacity = CORES + CORES * PasswordHashingService.QUEUE_PER_CORE;
+
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            Thread caller = Thread.ofVirtual().start(() -> hashingService.encode("secret"));
+            callers.add(caller);
+        }
+        awaitGauge("auth.password.active", CORES);
+        awaitGauge("auth.password.queue.depth", CORES * PasswordHashingService.QUEUE_PER_CORE);
+
+        // Well below the servlet pool, the next caller is turned away at once
+        assertThrows(ServiceBusyException.class, () -> hashingService.encode("secret"));
+        assertEquals(1.0, meterRegistry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join(5000);
+        }
+    }
+
+    @Test
+    void givesUpOnAHashThatOutlivesTheWait() {
+        hashingService = new PasswordHashingService(blockingEncoder(), meterRegistry, 10, 0, 50);
+
+        assertThrows(ServiceBusyException.class, () -> hashingService.encode("secret"));
+    }
+
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+    }
+
+    private void awaitGauge(String name, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, (int) meterRegistry.get(name).gauge().value());
+    }
+}
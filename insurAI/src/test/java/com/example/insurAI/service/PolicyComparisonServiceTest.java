@@ -0,0 +1,123 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.dto.PolicyComparison;
+import com.example.insurAI.entity.Policy;
+import com.example.insurAI.entity.PolicyStatus;
+import com.example.insurAI.event.PolicyCatalogChangedEvent;
+import com.example.insurAI.repository.PolicyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PolicyComparisonServiceTest {
+
+    private final List<Policy> catalog = new ArrayList<>();
+    private PolicyComparisonService comparisonService;
+
+    @BeforeEach
+    void setUp() {
+        PolicyRepository policyRepository = mock(PolicyRepository.class);
+        when(policyRepository.findByStatus(PolicyStatus.ACTIVE)).thenAnswer(invocation -> new ArrayList<>(catalog));
+
+        comparisonService = new PolicyComparisonService();
+        ReflectionTestUtils.setField(comparisonService, "policyRepository", policyRepository);
+    }
+
+    @Test
+    void summarisesMinMedianAndMaxPerType() {
+        policy("Gold Health", "Health", "300");
+        policy("Basic Health", "Health", "100");
+        policy("Silver Health", "Health", "200");
+
+        PolicyComparison.TypeSummary health = rebuild().types().get(0);
+
+        assertEquals(new BigDecimal("100"), health.minPremium());
+        assertEquals(new BigDecimal("200"), health.medianPremium());
+        assertEquals(new BigDecimal("300"), health.maxPremium());
+    }
+
+    @Test
+    void medianOfAnEvenCountAveragesTheMiddlePair() {
+        policy("Term A", "Life", "400");
+        policy("Term B", "Life", "100");
+        policy("Term C", "Life", "300");
+        policy("Term D", "Life", "201");
+
+        PolicyComparison.TypeSummary life = rebuild().types().get(0);
+
+        assertEquals(new BigDecimal("250.50"), life.medianPremium());
+        assertEquals(new BigDecimal("100"), life.minPremium());
+        assertEquals(new BigDecimal("400"), life.maxPremium());
+    }
+
+    @Test
+    void groupsPolicyTypesIgnoringCase() {
+        policy("Car Basic", "Vehicle", "150");
+        policy("Car Plus", "VEHICLE", "250");
+        policy("Bike", "vehicle", "50");
+        policy("Term", "Life", "500");
+
+        PolicyComparison comparison = rebuild();
+
+        assertEquals(4, comparison.totalPolicies());
+        assertEquals(List.of("Life", "Vehicle"),
+            comparison.types().stream().map(PolicyComparison.TypeSummary::policyType).toList());
+        assertEquals(3, comparison.types().get(1).policyCount());
+    }
+
+    @Test
+    void topPicksAreTheCheapestThreeWithDefaultCoverage() {
+        policy("Premium Care", "Health", "900").setCoverage("Worldwide");
+        policy("Basic Care", "Health", "100");
+        policy("Family Care", "Health", "400").setCoverage("Family floater");
+        policy("Senior Care", "Health", "600");
+
+        List<PolicyComparison.Pick> picks = rebuild().types().get(0).topPicks();
+
+        assertEquals(List.of("Basic Care", "Family Care", "Senior Care"),
+            picks.stream().map(PolicyComparison.Pick::policyName).toList());
+        assertEquals("Standard Coverage", picks.get(0).coverage());
+        assertEquals("Family floater", picks.get(1).coverage());
+    }
+
+    @Test
+    void rendersTheChatReplyFromTheSnapshot() {
+        assertTrue(comparisonService.getChatReply().startsWith("No policies available for comparison"));
+
+        policy("Basic Care", "Health", "100");
+        policy("Family Care", "Health", "300").setCoverage("Family floater");
+        rebuild();
+
+        String reply = comparisonService.getChatReply();
+        assertTrue(reply.contains("**Health Insurance (2 policies):**\n"), reply);
+        assertTrue(reply.contains("Premiums: ₹100 - ₹300 (median ₹200)\n"), reply);
+        assertTrue(reply.contains("• Basic Care - Premium: ₹100, Coverage: Standard Coverage\n"), reply);
+        assertTrue(reply.contains("• Family Care - Premium: ₹300, Coverage: Family floater\n"), reply);
+        assertTrue(reply.contains("💡 **Key Differences:**"), reply);
+    }
+
+    private PolicyComparison rebuild() {
+        comparisonService.onPolicyCatalogChanged(new PolicyCatalogChangedEvent(null));
+        return comparisonService.getComparison();
+    }
+
+    private Policy policy(String name, String type, String premium) {
+        Policy policy = new Policy();
+        policy.setId((long) catalog.size() + 1);
+        policy.setPolicyName(name);
+        policy.setPolicyType(type);
+        policy.setPremium(new BigDecimal(premium));
+        policy.setStatus(PolicyStatus.ACTIVE);
+        catalog.add(policy);
+        return policy;
+    }
+}
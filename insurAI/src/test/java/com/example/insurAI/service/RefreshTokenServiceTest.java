@@ -0,0 +1,157 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.entity.RefreshToken;
+import com.example.insurAI.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    // Stands in for the refresh_tokens table, keyed by token hash
+    private final Map<String, RefreshToken> tokens = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    // Set to make lookups wait for each other before anyone rotates
+    private final AtomicReference<CyclicBarrier> lookupBarrier = new AtomicReference<>();
+
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(ids.incrementAndGet());
+            tokens.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(repository.findByTokenHash(anyString())).thenAnswer(invocation -> {
+            RefreshToken stored = tokens.get(invocation.<String>getArgument(0));
+            CyclicBarrier barrier = lookupBarrier.get();
+            if (barrier != null) {
+                barrier.await(5, TimeUnit.SECONDS);
+            }
+            return Optional.ofNullable(stored).map(RefreshTokenServiceTest::copy);
+        });
+        when(repository.markRotated(anyLong())).thenAnswer(invocation -> {
+            synchronized (tokens) {
+                for (RefreshToken token : tokens.values()) {
+                    if (token.getId().equals(invocation.getArgument(0)) && !token.isRevoked()) {
+                        token.setRevoked(true);
+                        return 1;
+                    }
+                }
+                return 0;
+            }
+        });
+        when(repository.revokeFamily(anyString())).thenAnswer(invocation -> {
+            synchronized (tokens) {
+                tokens.values().stream()
+                    .filter(token -> token.getFamilyId().equals(invocation.getArgument(0)))
+                    .forEach(token -> token.setRevoked(true));
+                return 0;
+            }
+        });
+
+        refreshTokenService = new RefreshTokenService();
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenRepository", repository);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", 60_000L);
+    }
+
+    @Test
+    void rotationRetiresTheOldTokenAndStaysInTheFamily() {
+        String first = refreshTokenService.issue(7L);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertEquals(7L, rotation.userId());
+        assertNotEquals(first, rotation.refreshToken());
+        assertEquals(1, tokens.values().stream().map(RefreshToken::getFamilyId).distinct().count());
+        assertEquals(7L, refreshTokenService.rotate(rotation.refreshToken()).userId());
+    }
+
+    @Test
+    void presentingARotatedTokenRevokesTheWholeFamily() {
+        String first = refreshTokenService.issue(7L);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(first));
+
+        assertTrue(tokens.values().stream().allMatch(RefreshToken::isRevoked));
+        assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    void concurrentRotationsOfOneTokenLetOnlyOneThrough() throws Exception {
+        String token = refreshTokenService.issue(7L);
+        lookupBarrier.set(new CyclicBarrier(2));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<Future<RefreshTokenService.Rotation>> attempts = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            attempts.add(executor.submit(() -> refreshTokenService.rotate(token)));
+        }
+        int succeeded = 0;
+        int rejected = 0;
+        for (Future<RefreshTokenService.Rotation> attempt : attempts) {
+            try {
+                attempt.get(5, TimeUnit.SECONDS);
+                succeeded++;
+            } catch (ExecutionException e) {
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        // Both read the token as live; the loser is treated as reuse and takes the family down
+        assertEquals(1, succeeded);
+        assertEquals(1, rejected);
+        assertTrue(tokens.values().stream().allMatch(RefreshToken::isRevoked));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = refreshTokenService.issue(7L);
+        tokens.values().forEach(stored -> stored.setExpiresAt(LocalDateTime.now().minusSeconds(1)));
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> refreshTokenService.rotate(token));
+        assertEquals("Refresh token expired", error.getMessage());
+    }
+
+    private static RefreshToken copy(RefreshToken stored) {
+        RefreshToken copy = new RefreshToken();
+        copy.setId(stored.getId());
+        copy.setTokenHash(stored.getTokenHash());
+        copy.setUserId(stored.getUserId());
+        copy.setFamilyId(stored.getFamilyId());
+        copy.setExpiresAt(stored.getExpiresAt());
+        copy.setRevoked(stored.isRevoked());
+        return copy;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.insurAI.service;
+
+import com.example.insurAI.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+    private static final String PASSWORD = "Secret@123";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // Emails a concurrent registration inserted after the existence check
+    private final Set<String> takenByRace = new HashSet<>();
+    private boolean raceCommitted;
+    // Emails whose row breaks some other constraint, such as a column length
+    private final Set<String> invalidRows = new HashSet<>();
+    private final List<String> inserted = new ArrayList<>();
+
+    private UserImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return emails.stream()
+                .filter(email -> email.equals("existing@test.com") || raceCommitted && takenByRace.contains(email))
+                .toList();
+        });
+
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenAnswer(invocation -> {
+                List<String> emails = new ArrayList<>();
+                for (Object row : (Collection<Object>) invocation.getArgument(1)) {
+                    emails.add(email(row));
+                }
+                // The unique key fails the whole batch, as a rolled-back transaction would
+                if (emails.stream().anyMatch(takenByRace::contains)) {
+                    raceCommitted = true;
+                    throw new DuplicateKeyException("Duplicate entry");
+                }
+                if (emails.stream().anyMatch(invalidRows::contains)) {
+                    throw new DataIntegrityViolationException("Data truncation: Data too long for column 'full_name'");
+                }
+                inserted.addAll(emails);
+                return new int[0][];
+            });
+
+        importService = new UserImportService();
+        ReflectionTestUtils.setField(importService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(importService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(importService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(importService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(importService, "chunkSize", 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void rejectsAdminRowsAndImportsTheRest() throws Exception {
+        List<JsonNode> report = importCsv(
+            "email,password,fullName,role",
+            "a@test.com," + PASSWORD + ",Ann,CUSTOMER",
+            "boss@test.com," + PASSWORD + ",Boss,ADMIN",
+            "c@test.com," + PASSWORD + ",Cal,agent");
+
+        assertEquals(List.of("a@test.com", "c@test.com"), inserted);
+        assertEquals("boss@test.com", report.get(0).get("email").asText());
+        assertEquals("Admin accounts cannot be imported", report.get(0).get("error").asText());
+        assertSummary(report, 3, 2, 1);
+    }
+
+    @Test
+    void rollsBackAFailedChunkBeforeRetryingRowByRow() throws Exception {
+        takenByRace.add("b@test.com");
+
+        List<JsonNode> report = importCsv(
+            "email,password,fullName",
+            "a@test.com," + PASSWORD + ",Ann",
+            "b@test.com," + PASSWORD + ",Ben",
+            "c@test.com," + PASSWORD + ",Cal");
+
+        // The failed batch and the failed single row each roll back; the two good rows commit
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(List.of("a@test.com", "c@test.com"), inserted);
+        assertEquals("Email already exists", report.get(0).get("error").asText());
+        assertSummary(report, 3, 2, 1);
+    }
+
+    @Test
+    void reportsTheRealCauseWhenARowFailsForAnotherReason() throws Exception {
+        invalidRows.add("b@test.com");
+
+        List<JsonNode> report = importCsv(
+            "email,password,fullName",
+            "a@test.com," + PASSWORD + ",Ann",
+            "b@test.com," + PASSWORD + ",Ben");
+
+        assertEquals(List.of("a@test.com"), inserted);
+        assertEquals("b@test.com", report.get(0).get("email").asText());
+        assertEquals("Could not insert user: Data truncation: Data too long for column 'full_name'",
+            report.get(0).get("error").asText());
+        assertSummary(report, 2, 1, 1);
+    }
+
+    @Test
+    void reportsRowsThatFailValidationOrAlreadyExist() throws Exception {
+        List<JsonNode> report = importNdjson(
+            "{\"email\":\"existing@test.com\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Eve\"}",
+            "{\"email\":\"weak@test.com\",\"password\":\"weak\",\"fullName\":\"Wes\"}",
+            "{\"email\":\"new@test.com\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Nia\"}",
+            "{\"email\":\"NEW@test.com\",\"password\":\"" + PASSWORD + "\",\"fullName\":\"Nia\"}");
+
+        assertEquals(List.of("new@test.com"), inserted);
+        assertEquals(4, report.size());
+        assertSummary(report, 4, 1, 3);
+    }
+
+    @Test
+    void parsesQuotedCsvFields() {
+        assertEquals(List.of("a@test.com", "Smith, \"Jo\"", ""),
+            UserImportService.parseCsvLine("a@test.com,\"Smith, \"\"Jo\"\"\","));
+    }
+
+    private List<JsonNode> importCsv(String... lines) throws Exception {
+        return run(UserImportService.Format.CSV, lines);
+    }
+
+    private List<JsonNode> importNdjson(String... lines) throws Exception {
+        return run(UserImportService.Format.NDJSON, lines);
+    }
+
+    private List<JsonNode> run(UserImportService.Format format, String... lines) throws Exception {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        importService.importUsers(new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)),
+            format, report);
+        List<JsonNode> entries = new ArrayList<>();
+        for (String line : report.toString(StandardCharsets.UTF_8).split("\n")) {
+            entries.add(objectMapper.readTree(line));
+        }
+        return entries;
+    }
+
+    private static void assertSummary(List<JsonNode> report, int total, int created, int failed) {
+        JsonNode summary = report.get(report.size() - 1);
+        assertEquals(total, summary.get("total").asInt());
+        assertEquals(created, summary.get("created").asInt());
+        assertEquals(failed, summary.get("failed").asInt());
+    }
+
+    private static String email(Object row) throws ReflectiveOperationException {
+        Field email = row.getClass().getDeclaredField("email");
+        email.setAccessible(true);
+        return (String) email.get(row);
+    }
+}
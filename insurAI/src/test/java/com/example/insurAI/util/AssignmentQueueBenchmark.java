@@ -0,0 +1,78 @@
+package com.example.insurAI.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assignment against 5,000 agents with eight one-hour slots each: claiming the
+ * earliest slot, and putting an agent back after a change. The queue is
+ * refilled whenever it runs dry.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.insurAI.util.AssignmentQueueBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssignmentQueueBenchmark {
+
+    private static final int AGENTS = 5_000;
+
+    private AssignmentQueue queue;
+    private int[][] starts;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        Random layout = new Random(7);
+        starts = new int[AGENTS][];
+        for (int agent = 0; agent < AGENTS; agent++) {
+            int first = 8 * 60 + 15 * layout.nextInt(8);
+            starts[agent] = new int[8];
+            for (int s = 0; s < 8; s++) {
+                starts[agent][s] = first + 60 * s;
+            }
+        }
+        queue = new AssignmentQueue();
+        fill();
+        random = new Random(3);
+    }
+
+    @Benchmark
+    public Optional<AssignmentQueue.Claim> claim() {
+        Optional<AssignmentQueue.Claim> claim = queue.claim(0);
+        if (claim.isEmpty()) {
+            fill();
+        }
+        return claim;
+    }
+
+    @Benchmark
+    public void put() {
+        int agent = random.nextInt(AGENTS);
+        queue.put(agent, starts[agent], random.nextInt(4));
+    }
+
+    private void fill() {
+        for (int agent = 0; agent < AGENTS; agent++) {
+            queue.put(agent, starts[agent], 0);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AssignmentQueueBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AssignmentQueueTest {
+
+    private static final int NINE = 9 * 60;
+    private static final int TEN = 10 * 60;
+
+    @Test
+    void assignsTheEarliestSlotThenTheLeastLoadedAgent() {
+        AssignmentQueue queue = new AssignmentQueue();
+        queue.put(1, new int[] {TEN}, 0);
+        queue.put(2, new int[] {NINE, TEN}, 3);
+        queue.put(3, new int[] {NINE}, 1);
+
+        assertEquals(new AssignmentQueue.Claim(3, NINE), queue.claim(0).orElseThrow());
+        assertEquals(new AssignmentQueue.Claim(2, NINE), queue.claim(0).orElseThrow());
+        // Both are free at ten; agent 1 has fewer bookings
+        assertEquals(new AssignmentQueue.Claim(1, TEN), queue.claim(0).orElseThrow());
+        assertEquals(new AssignmentQueue.Claim(2, TEN), queue.claim(0).orElseThrow());
+        assertEquals(Optional.empty(), queue.claim(0));
+    }
+
+    @Test
+    void equallyFreeAgentsTakeTurns() {
+        AssignmentQueue queue = new AssignmentQueue();
+        for (long agent = 1; agent <= 3; agent++) {
+            queue.put(agent, new int[] {NINE, TEN, 11 * 60}, 0);
+        }
+
+        List<Long> order = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            order.add(queue.claim(0).orElseThrow().agentId());
+        }
+        assertEquals(List.of(1L, 2L, 3L, 1L, 2L, 3L, 1L, 2L, 3L), order);
+    }
+
+    @Test
+    void skipsStartsThatHavePassedAndReleasesUnbookedClaims() {
+        AssignmentQueue queue = new AssignmentQueue();
+        queue.put(1, new int[] {NINE, TEN}, 0);
+        queue.put(2, new int[] {NINE + 30}, 0);
+
+        AssignmentQueue.Claim claim = queue.claim(NINE + 1).orElseThrow();
+        assertEquals(new AssignmentQueue.Claim(2, NINE + 30), claim);
+
+        queue.release(claim);
+        assertEquals(claim, queue.claim(NINE + 1).orElseThrow());
+        assertEquals(new AssignmentQueue.Claim(1, TEN), queue.claim(NINE + 1).orElseThrow());
+        assertEquals(0, queue.size());
+
+        // Putting the agent again replaces whatever was left
+        queue.put(1, new int[] {TEN + 30}, 1);
+        queue.remove(2);
+        assertEquals(new AssignmentQueue.Claim(1, TEN + 30), queue.claim(0).orElseThrow());
+    }
+
+    @Test
+    void concurrentClaimsNeverShareASlot() throws Exception {
+        AssignmentQueue queue = new AssignmentQueue();
+        int agents = 500;
+        int[] starts = new int[16];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = NINE + i * 30;
+        }
+        for (long agent = 0; agent < agents; agent++) {
+            queue.put(agent, starts, 0);
+        }
+
+        Set<AssignmentQueue.Claim> claimed = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    Optional<AssignmentQueue.Claim> claim;
+                    while ((claim = queue.claim(0)).isPresent()) {
+                        assertTrue(claimed.add(claim.get()), "claimed twice: " + claim.get());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        assertEquals(agents * starts.length, claimed.size());
+
+        assertEquals(0, queue.size());
+    }
+}
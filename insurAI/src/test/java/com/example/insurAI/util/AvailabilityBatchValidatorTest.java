@@ -0,0 +1,107 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityBatchValidatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private static AvailabilityBatchValidator.Candidate window(long agentId, LocalDate day, int startHour, int endHour) {
+        return new AvailabilityBatchValidator.Candidate(agentId, day, LocalTime.of(startHour, 0), LocalTime.of(endHour % 24, 0));
+    }
+
+    @Test
+    void rejectsOverlapsWithinTheBatchAndWithExistingWindows() {
+        List<AvailabilityBatchValidator.Candidate> candidates = Arrays.asList(
+            window(1, DAY, 9, 12),
+            window(1, DAY, 11, 13),
+            window(2, DAY, 11, 13),
+            window(1, DAY, 12, 14),
+            null,
+            window(1, DAY.plusDays(1), 15, 18),
+            window(1, DAY, 18, 17),
+            window(1, DAY, 22, 24));
+
+        // Agent 1 already has 16:00-17:00 on the second day
+        String[] reasons = AvailabilityBatchValidator.validate(candidates,
+            (agentId, day) -> agentId == 1 && day.equals(DAY.plusDays(1)) ? new int[] {16 * 60, 17 * 60} : new int[0]);
+
+        assertArrayEquals(new String[] {
+            null,
+            "Overlaps window 0 in this batch",
+            null,
+            null,
+            null,
+            "Overlaps existing availability",
+            "End time must be after start time",
+            null}, reasons);
+    }
+
+    @Test
+    void acceptedWindowsNeverOverlap() {
+        Random random = new Random(3);
+        List<AvailabilityBatchValidator.Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            int start = random.nextInt(23);
+            candidates.add(window(1 + random.nextInt(5), DAY.plusDays(random.nextInt(3)), start, start + 1 + random.nextInt(24 - start)));
+        }
+
+        String[] reasons = AvailabilityBatchValidator.validate(candidates, (agentId, day) -> new int[0]);
+
+        int accepted = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (reasons[i] != null) {
+                continue;
+            }
+            accepted++;
+            for (int j = i + 1; j < candidates.size(); j++) {
+                AvailabilityBatchValidator.Candidate a = candidates.get(i);
+                AvailabilityBatchValidator.Candidate b = candidates.get(j);
+                if (reasons[j] == null && a.agentId() == b.agentId() && a.day().equals(b.day())) {
+                    assertNull(overlapOf(a, b), a + " overlaps " + b);
+                }
+            }
+        }
+        // Every agent-day keeps at least its earliest window
+        assertTrue(accepted >= 15);
+    }
+
+    private static String overlapOf(AvailabilityBatchValidator.Candidate a, AvailabilityBatchValidator.Candidate b) {
+        int aEnd = a.end().equals(LocalTime.MIDNIGHT) ? 24 : a.end().getHour();
+        int bEnd = b.end().equals(LocalTime.MIDNIGHT) ? 24 : b.end().getHour();
+        return a.start().getHour() < bEnd && b.start().getHour() < aEnd ? "overlap" : null;
+    }
+
+    @Test
+    void checksAgainstEveryStoredWindowIncludingOverlappingOnes() {
+        // A long booked window with a short open one inside it, added out of order
+        AvailabilityBatchValidator.ExistingWindowSet existing = new AvailabilityBatchValidator.ExistingWindowSet();
+        existing.add(1, DAY, LocalTime.of(10, 0), LocalTime.of(11, 0));
+        existing.add(1, DAY, LocalTime.of(9, 0), LocalTime.of(13, 0));
+        existing.add(1, DAY, LocalTime.of(20, 0), LocalTime.MIDNIGHT);
+
+        String[] reasons = AvailabilityBatchValidator.validate(Arrays.asList(
+            window(1, DAY, 12, 14),
+            window(1, DAY, 14, 15),
+            window(1, DAY, 23, 24),
+            window(2, DAY, 12, 14)), existing);
+
+        assertArrayEquals(new String[] {
+            "Overlaps existing availability",
+            null,
+            "Overlaps existing availability",
+            null}, reasons);
+        assertArrayEquals(new int[] {9 * 60, 13 * 60, 10 * 60, 11 * 60, 20 * 60, 24 * 60}, existing.bounds(1, DAY));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.insurAI.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability lookups against 10,000 agents with a morning and an afternoon
+ * window on each of the next 90 days (1.8M windows).
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.insurAI.util.AvailabilityIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class AvailabilityIndexBenchmark {
+
+    private static final int AGENTS = 10_000;
+    private static final int DAYS = 90;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+
+    private AvailabilityIndex index;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        index = new AvailabilityIndex();
+        Random layout = new Random(11);
+        long windowId = 1;
+        for (long agent = 1; agent <= AGENTS; agent++) {
+            List<AvailabilityIndex.Window> windows = new ArrayList<>(DAYS * 2);
+            for (int d = 0; d < DAYS; d++) {
+                LocalDate day = FIRST_DAY.plusDays(d);
+                int morning = 8 + layout.nextInt(3);
+                int afternoon = 13 + layout.nextInt(3);
+                windows.add(new AvailabilityIndex.Window(windowId++, day, LocalTime.of(morning, 0), LocalTime.of(morning + 3, 0)));
+                windows.add(new AvailabilityIndex.Window(windowId++, day, LocalTime.of(afternoon, 30), LocalTime.of(afternoon + 3, 0)));
+            }
+            index.replaceAgent(agent, windows);
+        }
+        random = new Random(5);
+    }
+
+    @Benchmark
+    public long[] agentsFreeAt() {
+        return index.agentsFreeAt(FIRST_DAY.plusDays(random.nextInt(DAYS)),
+            LocalTime.of(8 + random.nextInt(10), random.nextInt(60)));
+    }
+
+    @Benchmark
+    public Optional<AvailabilityIndex.FreeSlot> nextFreeSlot() {
+        LocalDateTime from = FIRST_DAY.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), 0);
+        return index.nextFreeSlot(1 + random.nextInt(AGENTS), from);
+    }
+
+    @Benchmark
+    public void replaceAgent() {
+        long agent = 1 + random.nextInt(AGENTS);
+        List<AvailabilityIndex.Window> windows = new ArrayList<>(DAYS);
+        for (int d = 0; d < DAYS; d++) {
+            windows.add(new AvailabilityIndex.Window(agent * 1_000 + d, FIRST_DAY.plusDays(d), LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        }
+        index.replaceAgent(agent, windows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AvailabilityIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private static AvailabilityIndex.Window window(long id, LocalDate day, int startHour, int endHour) {
+        return new AvailabilityIndex.Window(id, day, LocalTime.of(startHour, 0), LocalTime.of(endHour % 24, 0));
+    }
+
+    @Test
+    void findsAgentsAndWindowsCoveringATime() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        index.replaceAgent(1, List.of(window(10, DAY, 9, 12), window(11, DAY, 14, 17)));
+        index.replaceAgent(2, List.of(window(20, DAY, 11, 13)));
+        index.replaceAgent(3, List.of(window(30, DAY.plusDays(1), 9, 17)));
+
+        long[] agents = index.agentsFreeAt(DAY, LocalTime.of(11, 30));
+        Arrays.sort(agents);
+        assertArrayEquals(new long[] {1, 2}, agents);
+        assertEquals(List.of(11L), index.openingsAt(DAY, LocalTime.of(14, 0)).stream()
+            .map(AvailabilityIndex.Opening::windowId).toList());
+
+        // End times are exclusive
+        assertEquals(0, index.agentsFreeAt(DAY, LocalTime.of(17, 0)).length);
+        assertEquals(0, index.agentsFreeAt(DAY.minusDays(1), LocalTime.of(10, 0)).length);
+    }
+
+    @Test
+    void replacingAnAgentDropsItsOldWindows() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        index.replaceAgent(1, List.of(window(10, DAY, 9, 12)));
+        index.replaceAgent(2, List.of(window(20, DAY, 9, 12)));
+        index.replaceAgent(1, List.of(window(12, DAY.plusDays(2), 9, 12)));
+
+        assertArrayEquals(new long[] {2}, index.agentsFreeAt(DAY, LocalTime.of(10, 0)));
+        assertArrayEquals(new long[] {1}, index.agentsFreeAt(DAY.plusDays(2), LocalTime.of(10, 0)));
+        assertEquals(2, index.size());
+
+        index.replaceAgent(2, List.of());
+        assertEquals(0, index.agentsFreeAt(DAY, LocalTime.of(10, 0)).length);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void nextFreeSlotMergesTouchingWindowsAndSkipsThePast() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        index.replaceAgent(1, List.of(window(10, DAY, 9, 12), window(11, DAY, 12, 13), window(12, DAY, 22, 24),
+            window(13, DAY.plusDays(3), 8, 9)));
+
+        AvailabilityIndex.FreeSlot slot = index.nextFreeSlot(1, DAY.atTime(10, 15)).orElseThrow();
+        assertEquals(DAY.atTime(10, 15), slot.start());
+        assertEquals(DAY.atTime(13, 0), slot.end());
+
+        slot = index.nextFreeSlot(1, DAY.atTime(13, 0)).orElseThrow();
+        assertEquals(DAY.atTime(22, 0), slot.start());
+        assertEquals(DAY.plusDays(1).atStartOfDay(), slot.end());
+
+        slot = index.nextFreeSlot(1, DAY.plusDays(1).atTime(7, 0)).orElseThrow();
+        assertEquals(LocalDateTime.of(DAY.plusDays(3), LocalTime.of(8, 0)), slot.start());
+
+        assertTrue(index.nextFreeSlot(1, DAY.plusDays(4).atStartOfDay()).isEmpty());
+        assertTrue(index.nextFreeSlot(99, DAY.atStartOfDay()).isEmpty());
+    }
+
+    @Test
+    void matchesABruteForceScanWithOddMinutesAndReplacements() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        Map<Long, List<AvailabilityIndex.Window>> truth = new HashMap<>();
+        Random random = new Random(3);
+        long windowId = 1;
+        for (int round = 0; round < 2_000; round++) {
+            long agent = 1 + random.nextInt(300);
+            List<AvailabilityIndex.Window> windows = new ArrayList<>();
+            for (int w = random.nextInt(7); w > 0; w--) {
+                int start = random.nextInt(1_400);
+                int end = start + 1 + random.nextInt(240);
+                windows.add(new AvailabilityIndex.Window(windowId++, DAY, LocalTime.of(start / 60, start % 60),
+                    end >= 1_440 ? LocalTime.MIDNIGHT : LocalTime.of(end / 60, end % 60)));
+            }
+            index.replaceAgent(agent, windows);
+            truth.put(agent, windows);
+        }
+
+        for (int minute = 0; minute < 1_440; minute += 7) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+            List<Long> expected = new ArrayList<>();
+            for (Map.Entry<Long, List<AvailabilityIndex.Window>> entry : truth.entrySet()) {
+                boolean free = entry.getValue().stream().anyMatch(w -> !w.start().isAfter(time)
+                    && (w.end().equals(LocalTime.MIDNIGHT) || w.end().isAfter(time)));
+                if (free) {
+                    expected.add(entry.getKey());
+                }
+            }
+            long[] actual = index.agentsFreeAt(DAY, time);
+            Arrays.sort(actual);
+            assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), actual, "at " + time);
+        }
+    }
+}
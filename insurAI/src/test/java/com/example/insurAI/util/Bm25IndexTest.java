@@ -0,0 +1,73 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Bm25IndexTest {
+
+    @Test
+    void ranksMoreSpecificMatchesFirst() {
+        Bm25Index index = new Bm25Index();
+        index.put(1, TextTokens.tokenize("Family Health Plan health insurance hospitalization cashless"));
+        index.put(2, TextTokens.tokenize("Car Shield vehicle insurance own damage theft"));
+        index.put(3, TextTokens.tokenize("Term Life Secure life insurance death benefit"));
+
+        List<Bm25Index.Hit> hits = index.search(TextTokens.tokenize("cashless hospitalization"), 10);
+        assertEquals(1, hits.size());
+        assertEquals(1, hits.get(0).id());
+
+        hits = index.search(TextTokens.tokenize("insurance for my car against theft"), 10);
+        assertEquals(3, hits.size());
+        assertEquals(2, hits.get(0).id());
+    }
+
+    @Test
+    void updatesAndRemovalsAreReflectedImmediately() {
+        Bm25Index index = new Bm25Index();
+        index.put(1, TextTokens.tokenize("dental cover"));
+        index.put(2, TextTokens.tokenize("vision cover"));
+
+        index.put(1, TextTokens.tokenize("maternity cover"));
+        assertTrue(index.search(TextTokens.tokenize("dental"), 5).isEmpty());
+        assertEquals(1, index.search(TextTokens.tokenize("maternity"), 5).get(0).id());
+
+        index.remove(2);
+        assertTrue(index.search(TextTokens.tokenize("vision"), 5).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void searchStaysUnderAMillisecondOnALargeCatalog() {
+        String[] vocabulary = {"health", "vehicle", "life", "hospital", "accident", "theft", "cashless", "critical",
+            "illness", "maternity", "premium", "rider", "term", "endowment", "bike", "car", "commercial",
+            "surgery", "dental", "vision", "family", "senior", "child", "travel", "home", "fire", "flood"};
+        Random random = new Random(7);
+        Bm25Index index = new Bm25Index();
+        for (int id = 0; id < 5_000; id++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < 120; w++) {
+                text.append(vocabulary[random.nextInt(vocabulary.length)]).append(' ');
+            }
+            index.put(id, TextTokens.tokenize(text.toString()));
+        }
+
+        List<String> query = TextTokens.tokenize("cashless hospital surgery for senior family");
+        for (int i = 0; i < 3_000; i++) {
+            index.search(query, 10);
+        }
+        int runs = 1_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            index.search(query, 10);
+        }
+        double averageMs = (double) TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / runs / 1000;
+        System.out.printf("BM25 search over 5000 policies: %.3f ms%n", averageMs);
+        assertTrue(averageMs < 5, "average search took " + averageMs + " ms");
+    }
+}
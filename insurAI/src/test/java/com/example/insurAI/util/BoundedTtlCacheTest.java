@@ -0,0 +1,110 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedTtlCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    @Test
+    void servesEntriesUntilTheyExpire() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock::get);
+        cache.put("a", "1", 2_000);
+
+        clock.set(1_999);
+        assertEquals("1", cache.get("a"));
+        clock.set(2_000);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryWhenFull() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, clock::get);
+        cache.put("a", "1", 9_000);
+        cache.put("b", "2", 9_000);
+        cache.get("a");
+
+        cache.put("c", "3", 9_000);
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+        // Overwriting a cached key does not evict another
+        cache.put("a", "4", 9_000);
+        assertEquals(2, cache.size());
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void loadsIntoAFullCacheByEvicting() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(1, clock::get);
+        cache.put("a", "1", 9_000);
+
+        assertEquals("2", cache.getOrLoad("b", () -> "2", 1_000));
+
+        assertEquals("2", cache.get("b"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void loadsOncePerTtlAndDoesNotCacheNulls() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        Supplier<String> loader = () -> "v" + loads.incrementAndGet();
+
+        assertEquals("v1", cache.getOrLoad("a", loader, 1_000));
+        assertEquals("v1", cache.getOrLoad("a", loader, 1_000));
+        clock.set(2_000);
+        assertEquals("v2", cache.getOrLoad("a", loader, 1_000));
+
+        assertNull(cache.getOrLoad("missing", () -> null, 1_000));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void loadRacingWithAnInvalidationOfItsKeyIsNotCached() {
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, clock::get);
+
+        String value = cache.getOrLoad(7L, () -> {
+            cache.invalidate(7L);
+            return "stale";
+        }, 1_000);
+
+        assertEquals("stale", value);
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    void invalidatingAnotherKeyDoesNotDiscardALoad() {
+        BoundedTtlCache<Long, String> cache = new BoundedTtlCache<>(10, clock::get);
+
+        cache.getOrLoad(7L, () -> {
+            cache.invalidate(8L);
+            return "fresh";
+        }, 1_000);
+
+        assertEquals("fresh", cache.get(7L));
+    }
+
+    @Test
+    void invalidateAllDiscardsEntriesAndLoadsInFlight() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock::get);
+        cache.put("a", "1", 9_000);
+
+        cache.getOrLoad("b", () -> {
+            cache.invalidateAll();
+            return "stale";
+        }, 1_000);
+
+        assertEquals(0, cache.size());
+    }
+}
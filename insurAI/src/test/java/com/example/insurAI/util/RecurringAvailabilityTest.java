@@ -0,0 +1,67 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurringAvailabilityTest {
+
+    // A Monday
+    private static final LocalDate MONDAY = LocalDate.of(2030, 3, 4);
+
+    private static RecurringAvailability.Rule weekdays(long id, int startHour, int endHour, LocalDate until) {
+        int mask = RecurringAvailability.maskOf(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+        return new RecurringAvailability.Rule(id, mask, LocalTime.of(startHour, 0), LocalTime.of(endHour % 24, 0), MONDAY, until);
+    }
+
+    @Test
+    void masksRoundTripAndRulesOccurOnlyOnTheirDaysWithinTheirRange() {
+        EnumSet<DayOfWeek> days = EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SUNDAY);
+        assertEquals(days, RecurringAvailability.daysOf(RecurringAvailability.maskOf(days)));
+
+        RecurringAvailability.Rule rule = weekdays(1, 9, 17, MONDAY.plusDays(7));
+        assertTrue(rule.occursOn(MONDAY));
+        assertFalse(rule.occursOn(MONDAY.plusDays(5)));
+        assertFalse(rule.occursOn(MONDAY.minusDays(7)));
+        assertTrue(rule.occursOn(MONDAY.plusDays(7)));
+        assertFalse(rule.occursOn(MONDAY.plusDays(8)));
+    }
+
+    @Test
+    void expandsRulesIntoWindowsWithNegatedIds() {
+        List<AvailabilityIndex.Window> windows = RecurringAvailability.expand(
+            List.of(weekdays(3, 9, 12, null), weekdays(4, 14, 17, MONDAY.plusDays(1))), MONDAY, MONDAY.plusDays(13));
+
+        // Ten weekdays of the morning rule, two days of the afternoon one
+        assertEquals(12, windows.size());
+        assertEquals(10, windows.stream().filter(w -> w.id() == -3).count());
+        assertTrue(windows.stream().noneMatch(w -> w.day().getDayOfWeek().getValue() > 5));
+        assertEquals(new AvailabilityIndex.Window(-4, MONDAY.plusDays(1), LocalTime.of(14, 0), LocalTime.of(17, 0)),
+            windows.get(3));
+    }
+
+    @Test
+    void timeOffRemovesWholeDaysAndSplitsWindows() {
+        List<AvailabilityIndex.Window> windows = RecurringAvailability.expand(
+            List.of(weekdays(5, 9, 24, null)), MONDAY, MONDAY.plusDays(2));
+
+        List<AvailabilityIndex.Window> left = RecurringAvailability.subtract(windows, List.of(
+            new RecurringAvailability.TimeOff(MONDAY, null, null),
+            new RecurringAvailability.TimeOff(MONDAY.plusDays(1), LocalTime.of(12, 0), LocalTime.of(13, 30)),
+            new RecurringAvailability.TimeOff(MONDAY.plusDays(1), LocalTime.of(20, 0), LocalTime.MIDNIGHT),
+            new RecurringAvailability.TimeOff(MONDAY.plusDays(2), LocalTime.of(6, 0), LocalTime.of(10, 0))));
+
+        assertEquals(List.of(
+            new AvailabilityIndex.Window(-5, MONDAY.plusDays(1), LocalTime.of(9, 0), LocalTime.of(12, 0)),
+            new AvailabilityIndex.Window(-5, MONDAY.plusDays(1), LocalTime.of(13, 30), LocalTime.of(20, 0)),
+            new AvailabilityIndex.Window(-5, MONDAY.plusDays(2), LocalTime.of(10, 0), LocalTime.MIDNIGHT)), left);
+    }
+}
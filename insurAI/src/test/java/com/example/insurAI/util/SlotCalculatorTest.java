@@ -0,0 +1,51 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SlotCalculatorTest {
+
+    private static int at(int hour, int minute) {
+        return hour * 60 + minute;
+    }
+
+    @Test
+    void cutsWindowsIntoSlots() {
+        int[] windows = {at(14, 0), at(17, 0), at(9, 0), at(12, 0)};
+
+        assertArrayEquals(new int[] {at(9, 0), at(10, 0), at(11, 0), at(14, 0), at(15, 0), at(16, 0)},
+            SlotCalculator.bookableStarts(windows, new int[0], 60, 0));
+        assertArrayEquals(new int[] {at(9, 0), at(10, 15), at(14, 0), at(15, 15)},
+            SlotCalculator.bookableStarts(windows, new int[0], 60, 15));
+    }
+
+    @Test
+    void mergesOverlappingAndTouchingWindows() {
+        int[] windows = {at(9, 0), at(10, 30), at(10, 0), at(11, 0), at(11, 0), at(12, 0)};
+
+        assertArrayEquals(new int[] {at(9, 0), at(10, 30)},
+            SlotCalculator.bookableStarts(windows, new int[0], 90, 0));
+    }
+
+    @Test
+    void subtractsBookingsWithTheirBuffer() {
+        int[] windows = {at(9, 0), at(13, 0)};
+
+        assertArrayEquals(new int[] {at(9, 0), at(11, 0), at(12, 0)},
+            SlotCalculator.bookableStarts(windows, new int[] {at(10, 0)}, 60, 0));
+
+        // Buffer keeps 10:50-11:40 clear around the 11:00 booking and 10 minutes between slots
+        assertArrayEquals(new int[] {at(9, 0), at(9, 40), at(10, 20), at(11, 40), at(12, 20)},
+            SlotCalculator.bookableStarts(windows, new int[] {at(11, 0)}, 30, 10));
+    }
+
+    @Test
+    void bookingsOutsideWindowsAndTooShortGapsYieldNothing() {
+        assertArrayEquals(new int[0], SlotCalculator.bookableStarts(new int[0], new int[] {at(9, 0)}, 30, 0));
+        assertArrayEquals(new int[0],
+            SlotCalculator.bookableStarts(new int[] {at(9, 0), at(9, 50)}, new int[] {at(9, 20)}, 30, 0));
+        assertArrayEquals(new int[] {at(23, 0)},
+            SlotCalculator.bookableStarts(new int[] {at(22, 0), at(24, 0)}, new int[] {at(21, 30)}, 60, 30));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeBucketedBloomFilterTest {
+
+    private static final long WIDTH = 15 * 60 * 1000L;
+
+    @Test
+    void neverMissesAnAddedKey() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(WIDTH, 10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("jti-" + i, i * 1_000L);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("jti-" + i, i * 1_000L));
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheTargetRate() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(WIDTH, 10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revoked-" + i, 0);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("live-" + i, 0)) {
+                falsePositives++;
+            }
+        }
+        // 0.1% target; allow some slack for hash variance
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void looksOnlyInTheBucketCoveringTheExpiry() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(WIDTH, 100, 0.01);
+        filter.put("jti", WIDTH + 5);
+
+        assertTrue(filter.mightContain("jti", WIDTH + 10));
+        assertFalse(filter.mightContain("jti", 5));
+        assertFalse(filter.mightContain("jti", 2 * WIDTH + 5));
+    }
+
+    @Test
+    void dropsBucketsWhoseWindowHasPassed() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(WIDTH, 100, 0.01);
+        filter.put("old", 10);
+        filter.put("current", WIDTH + 10);
+        filter.put("future", 3 * WIDTH);
+
+        filter.expireBefore(WIDTH + 20);
+
+        assertEquals(2, filter.bucketCount());
+        assertFalse(filter.mightContain("old", 10));
+        assertTrue(filter.mightContain("current", WIDTH + 10));
+        assertTrue(filter.mightContain("future", 3 * WIDTH));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.insurAI.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login attempts against the limiter from 16 threads: spread over 20,000
+ * emails, and all on one hot key. Key churn past the bound keeps eviction in
+ * the measurement.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.example.insurAI.util.TokenBucketRateLimiterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(16)
+@Fork(1)
+public class TokenBucketRateLimiterBenchmark {
+
+    private static final int KEYS = 20_000;
+
+    private TokenBucketRateLimiter limiter;
+    private String[] emails;
+
+    @Setup
+    public void setup() {
+        limiter = new TokenBucketRateLimiter(5, 0.1, KEYS / 2);
+        emails = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            emails[i] = "user" + i + "@test.com";
+        }
+    }
+
+    @Benchmark
+    public long spreadKeys() {
+        return limiter.tryAcquire(emails[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return limiter.tryAcquire("victim@test.com");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenBucketRateLimiterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.insurAI.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void refillsAtConfiguredRate() {
+        AtomicLong clock = new AtomicLong(1_000);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1.0, 100, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("a@test.com"));
+        assertEquals(0, limiter.tryAcquire("a@test.com"));
+        assertEquals(1000, limiter.tryAcquire("a@test.com"));
+
+        clock.addAndGet(500);
+        assertEquals(500, limiter.tryAcquire("a@test.com"));
+
+        clock.addAndGet(500);
+        assertEquals(0, limiter.tryAcquire("a@test.com"));
+        assertTrue(limiter.tryAcquire("a@test.com") > 0);
+    }
+
+    @Test
+    void idleFullBucketDoesNotOverCredit() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1.0, 100, clock::get);
+
+        clock.addAndGet(3_600_000);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        clock.addAndGet(1);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertTrue(limiter.tryAcquire("ip") > 0);
+    }
+
+    @Test
+    void boundsTrackedKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1.0, 1_000);
+        for (int i = 0; i < 50_000; i++) {
+            limiter.tryAcquire("user" + i + "@test.com");
+        }
+        assertTrue(limiter.size() <= 1_000 + THREADS, "tracked keys: " + limiter.size());
+    }
+
+    @Test
+    void singleHotKeyNeverExceedsBudgetUnderContention() throws Exception {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 1.0, 1_000, clock::get);
+        LongAdder allowed = new LongAdder();
+
+        runConcurrently(200_000, i -> {
+            if (limiter.tryAcquire("victim@test.com") == 0) {
+                allowed.increment();
+            }
+        });
+
+        // Clock is frozen, so exactly the bucket capacity may pass
+        assertEquals(100, allowed.sum());
+    }
+
+    @Test
+    void throttledKeySurvivesASprayOfNewKeys() {
+        AtomicLong clock = new AtomicLong(0);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 0.1, 1_000, clock::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("victim@test.com");
+        }
+
+        // Each new key spends one token, so none of them is idle enough to drop for free
+        for (int i = 0; i < 20_000; i++) {
+            limiter.tryAcquire("spray" + i + "@test.com");
+        }
+
+        assertTrue(limiter.size() <= 1_000);
+        assertTrue(limiter.tryAcquire("victim@test.com") > 0);
+    }
+
+    private static void runConcurrently(int totalAttempts, java.util.function.IntConsumer attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        int perThread = totalAttempts / THREADS;
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t * perThread;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    attempt.accept(offset + i);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+    }
+}